@@ -0,0 +1,65 @@
+package com.amit.cs.trees;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One value update followed by a diameter and max path sum query: ancestor repair in
+ * {@link AugmentedTree} against recomputing both answers over the whole {@code FlatTree}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class AugmentedTreeBenchmark {
+
+  @State(Scope.Thread)
+  public static class EditState {
+    AugmentedTree tree;
+    List<AugmentedTree.Node> nodes;
+    int[] values;
+    final Random random = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp(TreeState state) {
+      tree = AugmentedTree.of(state.root);
+      nodes = new ArrayList<>(tree.size());
+      if (tree.root() != null) nodes.add(tree.root());
+      for (int i = 0; i < nodes.size(); i++) {
+        final var node = nodes.get(i);
+        if (node.left() != null) nodes.add(node.left());
+        if (node.right() != null) nodes.add(node.right());
+      }
+      values = state.flat.val;
+    }
+  }
+
+  @Benchmark
+  public long updateThenQueryAugmented(EditState state) {
+    final var node = state.nodes.get(state.random.nextInt(state.nodes.size()));
+    state.tree.setValue(node, state.random.nextInt(201) - 100);
+    return (long) state.tree.diameter() << 32 | state.tree.maxPathSum() & 0xFFFFFFFFL;
+  }
+
+  @Benchmark
+  public long updateThenRecomputeFlat(TreeState tree, EditState state) {
+    state.values[state.random.nextInt(tree.flat.size)] = state.random.nextInt(201) - 100;
+    return (long) new DiameterOfBinaryTree().diameterOfBinaryTree(tree.flat) << 32
+      | new MaxPathSum().maxPathSum(tree.flat) & 0xFFFFFFFFL;
+  }
+}
@@ -0,0 +1,182 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.RaggedIntArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level-synchronous BFS queries: both {@link LevelOrderTraversal} strategies, zigzag, right-side view,
+ * bottom-left value and max level sum, over {@code TreeNode} and {@code FlatTree} inputs, the
+ * {@code TraversalPlanner} sampling that picks between the BFS and DFS forms, and the level
+ * sums over a prebuilt {@code LevelLayout}; run with {@code -Dcom.amit.cs.trees.scalarKernels=true} in
+ * the fork's JVM arguments to compare against the scalar kernels.
+ *
+ * <p>Throughput gives ops/ms, sample mode gives latency percentiles, and the {@code gc} profiler
+ * wired into the {@code jmh} Gradle task adds {@code gc.alloc.rate.norm} (bytes per call).</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class LevelTraversalBenchmark {
+
+  @Benchmark
+  public List<List<Integer>> levelOrder(TreeState state) {
+    return new LevelOrderTraversal().levelOrder(state.root);
+  }
+
+  @Benchmark
+  public List<List<Integer>> levelOrderUsingSizeVariable(TreeState state) {
+    return new LevelOrderTraversal().levelOrderUsingSizeVariable(state.root);
+  }
+
+  @Benchmark
+  public List<List<Integer>> levelOrderFlat(TreeState state) {
+    return new LevelOrderTraversal().levelOrder(state.flat);
+  }
+
+  @Benchmark
+  public RaggedIntArray levelOrderCompact(TreeState state) {
+    return new LevelOrderTraversal().levelOrderCompact(state.root);
+  }
+
+  @Benchmark
+  public RaggedIntArray levelOrderCompactFlat(TreeState state) {
+    return new LevelOrderTraversal().levelOrderCompact(state.flat);
+  }
+
+  @Benchmark
+  public void levelOrderVisitor(TreeState state, Blackhole blackhole) {
+    new LevelOrderTraversal().levelOrder(state.root, blackhole::consume);
+  }
+
+  @Benchmark
+  public void levelOrderVisitorFlat(TreeState state, Blackhole blackhole) {
+    new LevelOrderTraversal().levelOrder(state.flat, blackhole::consume);
+  }
+
+  @Benchmark
+  public List<List<Integer>> zigzagLevelOrder(TreeState state) {
+    return new ZigzagLevelOrderTraversal().zigzagLevelOrder(state.root);
+  }
+
+  @Benchmark
+  public List<List<Integer>> zigzagLevelOrderFlat(TreeState state) {
+    return new ZigzagLevelOrderTraversal().zigzagLevelOrder(state.flat);
+  }
+
+  @Benchmark
+  public RaggedIntArray zigzagLevelOrderCompact(TreeState state) {
+    return new ZigzagLevelOrderTraversal().zigzagLevelOrderCompact(state.root);
+  }
+
+  @Benchmark
+  public RaggedIntArray zigzagLevelOrderCompactFlat(TreeState state) {
+    return new ZigzagLevelOrderTraversal().zigzagLevelOrderCompact(state.flat);
+  }
+
+  @Benchmark
+  public List<Integer> rightSideView(TreeState state) {
+    return new RightSideView().rightSideView(state.root);
+  }
+
+  @Benchmark
+  public List<Integer> rightSideViewFlat(TreeState state) {
+    return new RightSideView().rightSideView(state.flat);
+  }
+
+  @Benchmark
+  public int findBottomLeftValue(TreeState state) {
+    return new FindBottomLeftValue().findBottomLeftValue(state.root);
+  }
+
+  @Benchmark
+  public int findBottomLeftValueFlat(TreeState state) {
+    return new FindBottomLeftValue().findBottomLeftValue(state.flat);
+  }
+
+  @Benchmark
+  public List<Integer> rightSideViewDfs(TreeState state) {
+    return new RightSideView().rightSideViewDfs(state.root);
+  }
+
+  @Benchmark
+  public List<Integer> rightSideViewDfsFlat(TreeState state) {
+    return new RightSideView().rightSideViewDfs(state.flat);
+  }
+
+  @Benchmark
+  public int findBottomLeftValueDfs(TreeState state) {
+    return new FindBottomLeftValue().findBottomLeftValueDfs(state.root);
+  }
+
+  @Benchmark
+  public int findBottomLeftValueDfsFlat(TreeState state) {
+    return new FindBottomLeftValue().findBottomLeftValueDfs(state.flat);
+  }
+
+  @Benchmark
+  public TraversalPlanner.Shape plannerSample(TreeState state) {
+    return TraversalPlanner.sample(state.root);
+  }
+
+  @Benchmark
+  public TraversalPlanner.Shape plannerSampleFlat(TreeState state) {
+    return TraversalPlanner.sample(state.flat);
+  }
+
+  @Benchmark
+  public int maxLevelSum(TreeState state) {
+    return new MaxLevelSum().maxLevelSum(state.root);
+  }
+
+  @Benchmark
+  public int maxLevelSumFlat(TreeState state) {
+    return new MaxLevelSum().maxLevelSum(state.flat);
+  }
+
+  @Benchmark
+  public int maxLevelSumLayout(TreeState state) {
+    return new MaxLevelSum().maxLevelSum(state.layout);
+  }
+
+  @Benchmark
+  public void separateLevelQueries(TreeState state, Blackhole blackhole) {
+    blackhole.consume(new MaxLevelSum().maxLevelSum(state.flat));
+    blackhole.consume(new RightSideView().rightSideView(state.flat));
+    blackhole.consume(new FindBottomLeftValue().findBottomLeftValue(state.flat));
+    blackhole.consume(new LevelOrderTraversal().levelOrderCompact(state.flat));
+    blackhole.consume(new ZigzagLevelOrderTraversal().zigzagLevelOrderCompact(state.flat));
+  }
+
+  @Benchmark
+  public FusedLevelQueries.Result fusedLevelQueries(TreeState state) {
+    return FusedLevelQueries.run(state.flat, EnumSet.allOf(FusedLevelQueries.Query.class));
+  }
+
+  @Benchmark
+  public RaggedIntArray levelOrderCompactParallelFlat(TreeState state) {
+    return new LevelOrderTraversal().levelOrderCompactParallel(state.flat);
+  }
+
+  @Benchmark
+  public RaggedIntArray zigzagLevelOrderCompactParallelFlat(TreeState state) {
+    return new ZigzagLevelOrderTraversal().zigzagLevelOrderCompactParallel(state.flat);
+  }
+
+  @Benchmark
+  public int maxLevelSumParallelFlat(TreeState state) {
+    return new MaxLevelSum().maxLevelSumParallel(state.flat);
+  }
+}
@@ -0,0 +1,186 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.SubtreeDag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post-order and pre-order reductions: diameter, max path sum, root-to-leaf numbers and left leaves,
+ * plus the Morris traversals and the {@code SubtreeDag} overloads.
+ *
+ * <p>The recursive {@code TreeNode} variants take a {@link ShallowTreeState}, so they never run on
+ * {@link TreeShape#LEFT_DEGENERATE}: a 10M-node chain would need a 10M-frame stack. Every other
+ * variant is iterative (explicit stack or Morris threading), parallel or array-based and runs on all
+ * shapes, except {@code sumNumbersMorris}, which takes a {@link ShortPathTreeState} because it rejects
+ * path numbers beyond a {@code long}. The Morris variants rewire the shared tree while they run and
+ * restore it before returning, so this class must run with one benchmark thread, the default.</p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PathAggregateBenchmark {
+
+  @Benchmark
+  public int diameterOfBinaryTree(ShallowTreeState state) {
+    return new DiameterOfBinaryTree().diameterOfBinaryTree(state.root);
+  }
+
+  @Benchmark
+  public int diameterOfBinaryTreeFlat(TreeState state) {
+    return new DiameterOfBinaryTree().diameterOfBinaryTree(state.flat);
+  }
+
+  @Benchmark
+  public int maxPathSum(ShallowTreeState state) {
+    return new MaxPathSum().maxPathSum(state.root);
+  }
+
+  @Benchmark
+  public int maxPathSumFlat(TreeState state) {
+    return new MaxPathSum().maxPathSum(state.flat);
+  }
+
+  @Benchmark
+  public int sumNumbers(ShallowTreeState state) {
+    return new SumNumbers().sumNumbers(state.root);
+  }
+
+  @Benchmark
+  public int sumNumbersFlat(TreeState state) {
+    return new SumNumbers().sumNumbers(state.flat);
+  }
+
+  @Benchmark
+  public int sumOfLeftLeaves(ShallowTreeState state) {
+    return new SumOfLeftLeaves().sumOfLeftLeaves(state.root, false);
+  }
+
+  @Benchmark
+  public int sumOfLeftLeavesFlat(TreeState state) {
+    return new SumOfLeftLeaves().sumOfLeftLeaves(state.flat);
+  }
+
+  @Benchmark
+  public int sumOfLeftLeavesLayout(TreeState state) {
+    return new SumOfLeftLeaves().sumOfLeftLeaves(state.layout);
+  }
+
+  @Benchmark
+  public int diameterOfBinaryTreeIterative(TreeState state) {
+    return new DiameterOfBinaryTree().diameterOfBinaryTreeIterative(state.root);
+  }
+
+  @Benchmark
+  public int maxPathSumIterative(TreeState state) {
+    return new MaxPathSum().maxPathSumIterative(state.root);
+  }
+
+  @Benchmark
+  public int sumNumbersIterative(TreeState state) {
+    return new SumNumbers().sumNumbersIterative(state.root);
+  }
+
+  @Benchmark
+  public int sumOfLeftLeavesIterative(TreeState state) {
+    return new SumOfLeftLeaves().sumOfLeftLeavesIterative(state.root, false);
+  }
+
+  @Benchmark
+  public int sumNumbersMorris(ShortPathTreeState state) {
+    return new SumNumbers().sumNumbersMorris(state.root);
+  }
+
+  @Benchmark
+  public int sumOfLeftLeavesMorris(TreeState state) {
+    return new SumOfLeftLeaves().sumOfLeftLeavesMorris(state.root, false);
+  }
+
+  @Benchmark
+  public void morrisInorder(TreeState state, Blackhole blackhole) {
+    MorrisTraversal.inorder(state.root, blackhole::consume);
+  }
+
+  @Benchmark
+  public void morrisPreorder(TreeState state, Blackhole blackhole) {
+    MorrisTraversal.preorder(state.root, blackhole::consume);
+  }
+
+  @Benchmark
+  public long morrisInorderIterator(TreeState state) {
+    long sum = 0;
+    try (var values = MorrisTraversal.inorderIterator(state.root)) {
+      while (values.hasNext()) sum += values.nextInt();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public SubtreeDag subtreeDagOf(TreeState state) {
+    return SubtreeDag.of(state.root);
+  }
+
+  @Benchmark
+  public SubtreeDag subtreeDagOfFlat(TreeState state) {
+    return SubtreeDag.of(state.flat);
+  }
+
+  @Benchmark
+  public int diameterOfBinaryTreeDag(SubtreeDagState state) {
+    return new DiameterOfBinaryTree().diameterOfBinaryTree(state.dag);
+  }
+
+  @Benchmark
+  public int maxPathSumDag(SubtreeDagState state) {
+    return new MaxPathSum().maxPathSum(state.dag);
+  }
+
+  @Benchmark
+  public int sumOfLeftLeavesDag(SubtreeDagState state) {
+    return new SumOfLeftLeaves().sumOfLeftLeaves(state.dag);
+  }
+
+  @Benchmark
+  public int diameterOfBinaryTreeParallel(TreeState state) {
+    return new DiameterOfBinaryTree().diameterOfBinaryTreeParallel(state.root);
+  }
+
+  @Benchmark
+  public int maxPathSumParallel(TreeState state) {
+    return new MaxPathSum().maxPathSumParallel(state.root);
+  }
+
+  @Benchmark
+  public int sumNumbersParallel(TreeState state) {
+    return new SumNumbers().sumNumbersParallel(state.root);
+  }
+
+  @Benchmark
+  public int sumOfLeftLeavesParallel(TreeState state) {
+    return new SumOfLeftLeaves().sumOfLeftLeavesParallel(state.root, false);
+  }
+
+  @Benchmark
+  public StructuralHash.Digest structuralHash(TreeState state) {
+    return StructuralHash.of(state.root);
+  }
+
+  @Benchmark
+  public StructuralHash.Digest structuralHashParallel(TreeState state) {
+    return StructuralHash.ofParallel(state.root);
+  }
+
+  @Benchmark
+  public StructuralHash.Digest structuralHashFlat(TreeState state) {
+    return StructuralHash.of(state.flat);
+  }
+}
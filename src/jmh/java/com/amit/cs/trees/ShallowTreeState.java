@@ -0,0 +1,32 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Benchmark input for the recursive {@code TreeNode} variants: only the shapes whose height is
+ * logarithmic in the size, so the recursion depth stays small whatever the frame size. The same seed
+ * as {@link TreeState} gives the same trees for the shapes both cover.
+ */
+@State(Scope.Benchmark)
+public class ShallowTreeState {
+
+  @Param({"COMPLETE", "RANDOM"})
+  public TreeShape shape;
+
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  public TreeNode root;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    root = shape.build(size, new Random(42));
+  }
+}
@@ -0,0 +1,29 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Benchmark input for {@link SumNumbers#sumNumbersMorris}, which throws once a root-to-leaf number no
+ * longer fits in a {@code long}: complete trees of at most 18 levels, so every path number has at most
+ * 18 digits. The same seed as {@link TreeState} gives the same trees for the sizes both cover.
+ */
+@State(Scope.Benchmark)
+public class ShortPathTreeState {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  public TreeNode root;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    root = TreeShape.COMPLETE.build(size, new Random(42));
+  }
+}
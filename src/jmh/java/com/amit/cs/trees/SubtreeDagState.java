@@ -0,0 +1,23 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.SubtreeDag;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link SubtreeDag} of the {@link TreeState} tree of the same trial. The random values of the benchmark
+ * shapes leave little to share, so this measures the DAG reductions at close to full size, their worst
+ * case.
+ */
+@State(Scope.Benchmark)
+public class SubtreeDagState {
+
+  public SubtreeDag dag;
+
+  @Setup(Level.Trial)
+  public void setUp(TreeState tree) {
+    dag = SubtreeDag.of(tree.flat);
+  }
+}
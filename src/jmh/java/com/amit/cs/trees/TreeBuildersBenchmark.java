@@ -0,0 +1,94 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeBuilders;
+import com.amit.cs.common.TreeNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level-order construction: {@link TreeBuilders} on primitive slots against the boxed
+ * {@code Integer[]} queue builder every test carries around.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class TreeBuildersBenchmark {
+
+  private static final int NULL = Integer.MIN_VALUE;
+
+  @State(Scope.Thread)
+  public static class SlotState {
+    int[] slots;
+    Integer[] boxed;
+
+    /** Level-order slots of the trial tree, trailing nulls trimmed. */
+    @Setup(Level.Trial)
+    public void setUp(TreeState tree) {
+      final var flat = tree.flat;
+      slots = new int[2 * flat.size + 1];
+      int count = 0;
+      if (!flat.isEmpty()) slots[count++] = flat.val[0];
+      final var queue = new int[flat.size];
+      int tail = 0;
+      if (!flat.isEmpty()) queue[tail++] = 0;
+      for (int head = 0; head < tail; head++) {
+        for (final var child : new int[]{flat.left[queue[head]], flat.right[queue[head]]}) {
+          if (child == FlatTree.NIL) {
+            slots[count++] = NULL;
+          } else {
+            slots[count++] = flat.val[child];
+            queue[tail++] = child;
+          }
+        }
+      }
+      while (count > 0 && slots[count - 1] == NULL) count--;
+      slots = Arrays.copyOf(slots, count);
+      boxed = new Integer[count];
+      for (int i = 0; i < count; i++) boxed[i] = slots[i] == NULL ? null : slots[i];
+    }
+  }
+
+  @Benchmark
+  public TreeNode boxedQueue(SlotState state) {
+    final var vals = state.boxed;
+    if (vals.length == 0 || vals[0] == null) return null;
+    final var root = new TreeNode(vals[0]);
+    final var queue = new ArrayDeque<TreeNode>();
+    queue.offer(root);
+    int i = 1;
+    while (!queue.isEmpty() && i < vals.length) {
+      final var cur = queue.poll();
+      if (i < vals.length && vals[i] != null) queue.offer(cur.left = new TreeNode(vals[i]));
+      i++;
+      if (i < vals.length && vals[i] != null) queue.offer(cur.right = new TreeNode(vals[i]));
+      i++;
+    }
+    return root;
+  }
+
+  @Benchmark
+  public TreeNode treeNode(SlotState state) {
+    return TreeBuilders.treeNode(state.slots, NULL);
+  }
+
+  @Benchmark
+  public FlatTree flatTree(SlotState state) {
+    return TreeBuilders.flatTree(state.slots, NULL);
+  }
+}
@@ -0,0 +1,79 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary {@link TreeCodec} throughput. Encoded sizes vary with the tree shape, so compare runs by
+ * {@code encodedBytes / time} rather than by operations per second alone.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class TreeCodecBenchmark {
+
+  @State(Scope.Thread)
+  public static class CodecState {
+    final TreeCodec codec = new TreeCodec();
+    final DiscardingChannel sink = new DiscardingChannel();
+    byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp(TreeState tree) {
+      encoded = TreeCodec.encode(tree.root);
+    }
+  }
+
+  /** Counts and drops the bytes, so the benchmark measures encoding rather than buffering. */
+  static final class DiscardingChannel implements WritableByteChannel {
+    long written;
+
+    @Override
+    public int write(ByteBuffer src) {
+      final var n = src.remaining();
+      src.position(src.limit());
+      written += n;
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  @Benchmark
+  public long writeFlat(TreeState tree, CodecState state) throws IOException {
+    state.codec.write(tree.flat, state.sink);
+    return state.sink.written;
+  }
+
+  @Benchmark
+  public FlatTree readFlat(CodecState state) throws IOException {
+    return state.codec.readFlatTree(Channels.newChannel(new ByteArrayInputStream(state.encoded)));
+  }
+}
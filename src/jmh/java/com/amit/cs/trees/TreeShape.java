@@ -0,0 +1,95 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+
+import java.util.Random;
+
+/**
+ * Tree shapes the benchmarks are parameterized over. Every builder is iterative, so even a
+ * 10M-node degenerate chain is built without touching the thread stack.
+ *
+ * <p>{@link #COMPLETE} is also the widest and shallowest shape a binary tree of a given size can have,
+ * so it is the wide end of the width/height axis and {@link #LEFT_DEGENERATE} the narrow end.</p>
+ *
+ * <p>Node values are drawn from {@code [-9, 9]} so that path sums and root-to-leaf numbers
+ * exercise negative handling without the inputs being trivially uniform.</p>
+ */
+public enum TreeShape {
+
+  /** Heap-shaped: every level full except possibly the last, which is filled left to right. */
+  COMPLETE {
+    @Override
+    TreeNode build(int size, Random random) {
+      return heap(size, random);
+    }
+  },
+
+  /** A chain of left children; height equals size. */
+  LEFT_DEGENERATE {
+    @Override
+    TreeNode build(int size, Random random) {
+      final var root = new TreeNode(value(random));
+      var node = root;
+      for (int i = 1; i < size; i++) {
+        node.left = new TreeNode(value(random));
+        node = node.left;
+      }
+      return root;
+    }
+  },
+
+  /**
+   * Grown by attaching each new node to a uniformly chosen free child slot, which gives the
+   * logarithmic-but-ragged height of a random binary search tree.
+   */
+  RANDOM {
+    @Override
+    TreeNode build(int size, Random random) {
+      final var root = new TreeNode(value(random));
+      final var slots = new TreeNode[2 * size + 1];
+      final var isLeft = new boolean[2 * size + 1];
+      int free = 0;
+      slots[free] = root;
+      isLeft[free++] = true;
+      slots[free] = root;
+      isLeft[free++] = false;
+
+      for (int i = 1; i < size; i++) {
+        final var pick = random.nextInt(free);
+        final var parent = slots[pick];
+        final var left = isLeft[pick];
+        free--;
+        slots[pick] = slots[free];
+        isLeft[pick] = isLeft[free];
+
+        final var node = new TreeNode(value(random));
+        if (left) parent.left = node;
+        else parent.right = node;
+
+        slots[free] = node;
+        isLeft[free++] = true;
+        slots[free] = node;
+        isLeft[free++] = false;
+      }
+      return root;
+    }
+  };
+
+  abstract TreeNode build(int size, Random random);
+
+  private static TreeNode heap(int size, Random random) {
+    final var nodes = new TreeNode[size];
+    for (int i = 0; i < size; i++) {
+      nodes[i] = new TreeNode(value(random));
+    }
+    for (int i = 0; 2 * i + 1 < size; i++) {
+      nodes[i].left = nodes[2 * i + 1];
+      if (2 * i + 2 < size) nodes[i].right = nodes[2 * i + 2];
+    }
+    return nodes[0];
+  }
+
+  private static int value(Random random) {
+    return random.nextInt(19) - 9;
+  }
+}
@@ -0,0 +1,44 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.LevelLayout;
+import com.amit.cs.common.TreeNode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Shared benchmark input: one tree per (shape, size) trial, in both the pointer and the
+ * {@link FlatTree} representation, plus the root tuples the vertical/view APIs expect.
+ *
+ * <p>The full matrix is large; narrow it from the command line, e.g.
+ * {@code -PjmhArgs="-p shape=RANDOM -p size=1000"}.</p>
+ */
+@State(Scope.Benchmark)
+public class TreeState {
+
+  @Param({"COMPLETE", "LEFT_DEGENERATE", "RANDOM"})
+  public TreeShape shape;
+
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  public TreeNode root;
+  public FlatTree flat;
+  public LevelLayout layout;
+  TopBottomView.Tuple viewRoot;
+  VerticalOrderTraversal.Tuple verticalRoot;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    root = shape.build(size, new Random(42));
+    flat = FlatTree.of(root);
+    layout = LevelLayout.of(flat);
+    viewRoot = new TopBottomView.Tuple(root, 0, 0);
+    verticalRoot = new VerticalOrderTraversal.Tuple(root, 0, 0);
+  }
+}
@@ -0,0 +1,85 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.RaggedIntArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column-based queries: top view, bottom view and vertical order traversal, comparing the reference
+ * {@code TreeMap}/{@code PriorityQueue} implementations with the array-indexed engines.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx4g"})
+public class VerticalViewBenchmark {
+
+  @Benchmark
+  public List<Integer> topView(TreeState state) {
+    return new TopBottomView().topView(state.viewRoot);
+  }
+
+  @Benchmark
+  public List<Integer> topViewFlat(TreeState state) {
+    return new TopBottomView().topView(state.flat);
+  }
+
+  @Benchmark
+  public List<Integer> topViewUsingTreeMap(TreeState state) {
+    return new TopBottomView().topViewUsingTreeMap(state.viewRoot);
+  }
+
+  @Benchmark
+  public List<Integer> bottomView(TreeState state) {
+    return new TopBottomView().bottomView(state.viewRoot);
+  }
+
+  @Benchmark
+  public List<Integer> bottomViewFlat(TreeState state) {
+    return new TopBottomView().bottomView(state.flat);
+  }
+
+  @Benchmark
+  public List<Integer> bottomViewUsingTreeMap(TreeState state) {
+    return new TopBottomView().bottomViewUsingTreeMap(state.viewRoot);
+  }
+
+  @Benchmark
+  public TopBottomView.Views topAndBottomView(TreeState state) {
+    return new TopBottomView().topAndBottomView(state.viewRoot);
+  }
+
+  @Benchmark
+  public List<List<Integer>> verticalTraversal(TreeState state) {
+    return new VerticalOrderTraversal().verticalTraversal(state.verticalRoot);
+  }
+
+  @Benchmark
+  public List<List<Integer>> verticalTraversalUsingTreeMap(TreeState state) {
+    return new VerticalOrderTraversal().verticalTraversalUsingTreeMap(state.verticalRoot);
+  }
+
+  @Benchmark
+  public List<List<Integer>> verticalTraversalFlat(TreeState state) {
+    return new VerticalOrderTraversal().verticalTraversal(state.flat);
+  }
+
+  @Benchmark
+  public RaggedIntArray verticalTraversalCompact(TreeState state) {
+    return new VerticalOrderTraversal().verticalTraversalCompact(state.verticalRoot);
+  }
+
+  @Benchmark
+  public RaggedIntArray verticalTraversalCompactFlat(TreeState state) {
+    return new VerticalOrderTraversal().verticalTraversalCompact(state.flat);
+  }
+}
@@ -0,0 +1,184 @@
+package com.amit.cs.common;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays representation of a binary tree.
+ *
+ * <p><strong>What it is:</strong> The same shape as a {@link TreeNode} graph, but stored as three
+ * parallel {@code int[]} columns: {@code val[i]}, {@code left[i]} and {@code right[i]} describe node
+ * {@code i}, and a child index of {@link #NIL} ({@code -1}) stands for a {@code null} child.
+ * The root, when present, is always index {@code 0}.</p>
+ *
+ * <p><strong>Why:</strong> A {@code TreeNode} costs an object header plus two references per node and
+ * every traversal step is a pointer chase. Three primitive arrays cost 12 bytes per node, are invisible
+ * to the GC marker and are walked sequentially by the traversals in {@code com.amit.cs.trees}.</p>
+ *
+ * <p><strong>Invariant:</strong> every child index is strictly greater than its parent's index
+ * (level-order and pre-order numberings both satisfy this), and every node but the root has exactly
+ * one parent, so the columns describe a single tree with no unreachable nodes. The algorithms rely on
+ * this to replace recursion with a single forward or backward scan over the arrays. {@link #of(TreeNode)} numbers
+ * nodes in level order, so nodes of the same level are also contiguous.</p>
+ *
+ * <p><strong>Complexity:</strong> {@link #of(TreeNode)} and {@link #toTreeNode()} run in
+ * <code>O(n)</code> time; the representation uses <code>3n</code> ints.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * // Tree:        index:  0  1  2  3
+ * //     1        val   : 1  2  3  4
+ * //    / \       left  : 1 -1  3 -1
+ * //   2   3      right : 2 -1 -1 -1
+ * //      /
+ * //     4
+ * }</pre>
+ *
+ * <p><strong>Source compatibility:</strong> the queries in {@code com.amit.cs.trees} take a
+ * {@code FlatTree} through overloads of their existing {@code TreeNode} and {@code Tuple} methods, so a call with a bare
+ * {@code null} literal, e.g. {@code zigzagLevelOrder(null)}, no longer compiles; cast it to the intended
+ * type, e.g. {@code (TreeNode) null}.</p>
+ *
+ * @see TreeNode
+ * @see IndexedTree
+ */
+public final class FlatTree implements IndexedTree {
+
+  /** Child index used for a missing child. */
+  public static final int NIL = -1;
+
+  public final int[] val;
+  public final int[] left;
+  public final int[] right;
+  public final int size;
+
+  /**
+   * Wraps existing columns without copying. Only the first {@code size} entries are used, so the
+   * arrays may be larger than the tree (e.g. presized builder buffers).
+   *
+   * <p>Every node other than the root must be the child of exactly one node. Since parents come
+   * before their children, that also makes every node reachable from the root, which the array-scan
+   * algorithms rely on: an orphan or a shared child would be counted by a scan but not by a walk.</p>
+   *
+   * @throws IllegalArgumentException if the arrays are shorter than {@code size}, a child index
+   *                                  breaks the parent-before-child invariant, or a node other than
+   *                                  the root has no parent or more than one
+   */
+  public FlatTree(int[] val, int[] left, int[] right, int size) {
+    if (size < 0 || val.length < size || left.length < size || right.length < size) {
+      throw new IllegalArgumentException("columns shorter than size " + size);
+    }
+    final var hasParent = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      checkChild(i, left[i], size, hasParent);
+      checkChild(i, right[i], size, hasParent);
+    }
+    for (int i = 1; i < size; i++) {
+      if (!hasParent[i]) throw new IllegalArgumentException("node " + i + " is not reachable from the root");
+    }
+    this.val = val;
+    this.left = left;
+    this.right = right;
+    this.size = size;
+  }
+
+  private static void checkChild(int parent, int child, int size, boolean[] hasParent) {
+    if (child == NIL) return;
+    if (child <= parent || child >= size) {
+      throw new IllegalArgumentException("node " + parent + " has invalid child index " + child);
+    }
+    if (hasParent[child]) throw new IllegalArgumentException("node " + child + " has more than one parent");
+    hasParent[child] = true;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int val(int node) {
+    return val[node];
+  }
+
+  @Override
+  public int left(int node) {
+    return left[node];
+  }
+
+  @Override
+  public int right(int node) {
+    return right[node];
+  }
+
+  /** Index of the root, or {@link #NIL} for an empty tree. */
+  @Override
+  public int root() {
+    return size == 0 ? NIL : 0;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean isLeaf(int i) {
+    return left[i] == NIL && right[i] == NIL;
+  }
+
+  /**
+   * Converts a pointer tree into level-order numbered columns.
+   *
+   * <p>The node buffer doubles as the BFS queue: a node's index is its position in the buffer,
+   * so children get their index at the moment they are enqueued.</p>
+   */
+  public static FlatTree of(TreeNode root) {
+    if (root == null) return new FlatTree(new int[0], new int[0], new int[0], 0);
+
+    var order = new TreeNode[16];
+    var left = new int[16];
+    var right = new int[16];
+    order[0] = root;
+    int tail = 1;
+
+    for (int head = 0; head < tail; head++) {
+      final var node = order[head];
+      if (tail + 2 > order.length) {
+        final var capacity = order.length << 1;
+        order = Arrays.copyOf(order, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+      }
+      left[head] = NIL;
+      right[head] = NIL;
+      if (node.left != null) {
+        left[head] = tail;
+        order[tail++] = node.left;
+      }
+      if (node.right != null) {
+        right[head] = tail;
+        order[tail++] = node.right;
+      }
+    }
+
+    final var val = new int[tail];
+    for (int i = 0; i < tail; i++) {
+      val[i] = order[i].val;
+    }
+    return new FlatTree(val, Arrays.copyOf(left, tail), Arrays.copyOf(right, tail), tail);
+  }
+
+  /** Rebuilds an equivalent {@link TreeNode} graph; mainly useful for tests and interop. */
+  public TreeNode toTreeNode() {
+    if (size == 0) return null;
+
+    final var nodes = new TreeNode[size];
+    for (int i = 0; i < size; i++) {
+      nodes[i] = new TreeNode(val[i]);
+    }
+    for (int i = 0; i < size; i++) {
+      if (left[i] != NIL) nodes[i].left = nodes[left[i]];
+      if (right[i] != NIL) nodes[i].right = nodes[right[i]];
+    }
+    return nodes[0];
+  }
+}
@@ -0,0 +1,33 @@
+package com.amit.cs.common;
+
+/**
+ * Read-only, index-addressed view of a binary tree, independent of where the nodes are stored.
+ *
+ * <p>Node {@code i} has value {@link #val(int)} and children {@link #left(int)} / {@link #right(int)},
+ * with {@link FlatTree#NIL} for a missing child. Implementations keep the {@link FlatTree} invariant:
+ * the root is index {@code 0} and every child index is greater than its parent's, so the traversals in
+ * {@code com.amit.cs.trees} terminate and can scan instead of recurse.</p>
+ *
+ * <p>{@link FlatTree} keeps its column arrays public and the traversals read them directly; this
+ * interface is what lets the same traversals run over storage that never becomes a Java array, such
+ * as the memory-mapped columns of {@link MappedTree}.</p>
+ */
+public interface IndexedTree {
+
+  int size();
+
+  int val(int node);
+
+  int left(int node);
+
+  int right(int node);
+
+  /** Index of the root, or {@link FlatTree#NIL} for an empty tree. */
+  default int root() {
+    return size() == 0 ? FlatTree.NIL : 0;
+  }
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+}
@@ -0,0 +1,114 @@
+package com.amit.cs.common;
+
+import java.util.Arrays;
+
+/**
+ * Node values of a binary tree in breadth-first order, with an index of where each level starts, for
+ * queries that reduce over levels or over all nodes without looking at the shape again.
+ *
+ * <p><strong>What it is:</strong> {@link #val} lists the values level by level, left to right, and
+ * level {@code d} (root at 0) occupies {@code val[levelOffsets[d]] .. val[levelOffsets[d + 1] - 1]}, the
+ * same row layout as a {@link RaggedIntArray}. {@link #leftLeaf} marks the positions holding a leaf that
+ * is the left child of its parent.</p>
+ *
+ * <p><strong>Why:</strong> once the tree has been flattened like this, a level sum is a reduction over
+ * one contiguous slice and the sum of left leaves is a masked reduction over the whole array. Neither
+ * chases a pointer or an index, so both can be vectorized and run at memory bandwidth; see
+ * {@code MaxLevelSum.maxLevelSum(LevelLayout)} and {@code SumOfLeftLeaves.sumOfLeftLeaves(LevelLayout)}
+ * in {@code com.amit.cs.trees}. The layout holds no child links, so it answers these queries only;
+ * build it once per tree and reuse it.</p>
+ *
+ * <p><strong>Complexity:</strong> {@link #of(FlatTree)} runs in <code>O(n)</code> time; the layout uses
+ * {@code n} ints, {@code n} booleans and one int per level.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * // Tree:        val          : 3  9  20  15  7
+ * //     3        levelOffsets : 0  1  3   5
+ * //    / \       leftLeaf     : f  t  f   t   f
+ * //   9   20
+ * //      /  \
+ * //     15   7
+ * }</pre>
+ */
+public final class LevelLayout {
+
+  public final int[] val;
+  /** Start of every level in {@link #val}, followed by {@link #size}; {@code levels() + 1} entries. */
+  public final int[] levelOffsets;
+  public final boolean[] leftLeaf;
+  public final int size;
+
+  private LevelLayout(int[] val, int[] levelOffsets, boolean[] leftLeaf) {
+    this.val = val;
+    this.levelOffsets = levelOffsets;
+    this.leftLeaf = leftLeaf;
+    this.size = val.length;
+  }
+
+  public int levels() {
+    return levelOffsets.length - 1;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public static LevelLayout of(TreeNode root) {
+    return of(FlatTree.of(root));
+  }
+
+  /**
+   * Lays out any {@link FlatTree}. A BFS over child indexes writes each node's value at its
+   * breadth-first position and marks a left child that is a leaf as it is enqueued; a tree already in
+   * level order, such as one from {@link FlatTree#of(TreeNode)}, comes out in the same order.
+   *
+   * <p>The {@link FlatTree} constructor guarantees one parent per node, but its arrays stay writable;
+   * the walk is bounded by the nodes actually enqueued, so arrays changed since then fail here instead
+   * of producing a wrong layout or an index out of bounds.</p>
+   *
+   * @throws IllegalArgumentException if the walk from the root reaches more or fewer than
+   *                                  {@code tree.size} nodes
+   */
+  public static LevelLayout of(FlatTree tree) {
+    final var n = tree.size;
+    if (n == 0) return new LevelLayout(new int[0], new int[]{0}, new boolean[0]);
+
+    final var order = new int[n];
+    final var val = new int[n];
+    final var leftLeaf = new boolean[n];
+    var offsets = new int[17];
+    int levels = 0;
+
+    order[0] = tree.root();
+    int tail = 1;
+    // Exclusive end of the level being dequeued; once its last node is dequeued, everything enqueued
+    // so far forms the next level.
+    int levelEnd = 1;
+    for (int head = 0; head < tail; head++) {
+      final var node = order[head];
+      val[head] = tree.val[node];
+      final var l = tree.left[node];
+      final var r = tree.right[node];
+      final var children = (l != FlatTree.NIL ? 1 : 0) + (r != FlatTree.NIL ? 1 : 0);
+      if (tail + children > n) {
+        throw new IllegalArgumentException("more than " + n + " nodes reachable from the root");
+      }
+      if (l != FlatTree.NIL) {
+        leftLeaf[tail] = tree.isLeaf(l);
+        order[tail++] = l;
+      }
+      if (r != FlatTree.NIL) order[tail++] = r;
+
+      if (head + 1 == levelEnd) {
+        if (levels + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length << 1);
+        offsets[++levels] = levelEnd;
+        levelEnd = tail;
+      }
+    }
+    if (tail != n) {
+      throw new IllegalArgumentException((n - tail) + " of " + n + " nodes not reachable from the root");
+    }
+    return new LevelLayout(val, Arrays.copyOf(offsets, levels + 1), leftLeaf);
+  }
+}
@@ -0,0 +1,187 @@
+package com.amit.cs.common;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A {@link FlatTree} kept on disk and queried in place through memory-mapped columns.
+ *
+ * <p><strong>What it is:</strong> the three {@code FlatTree} columns written back to back to a file and
+ * mapped read-only with {@link FileChannel#map}. Opening a tree maps the file and reads a 16-byte
+ * header; nodes are paged in by the OS as the traversals touch them, so a restart does not deserialize
+ * anything and the page cache is shared by every process that maps the same file.</p>
+ *
+ * <p><strong>File format</strong> (little-endian):</p>
+ * <pre>{@code
+ * offset        size   content
+ * 0             4      magic 0x46545245 ("FTRE")
+ * 4             4      format version, currently 1
+ * 8             4      node count n
+ * 12            4      reserved, 0
+ * 16            4n     val column
+ * 16 + 4n       4n     left column  (FlatTree.NIL for a missing child)
+ * 16 + 8n       4n     right column
+ * }</pre>
+ *
+ * <p><strong>Limits:</strong> each column is mapped separately, so a column may use the full 2 GiB a
+ * single mapping allows: up to {@value #MAX_NODES} nodes, i.e. files of roughly 6 GiB. A mapping stays
+ * valid until the {@code MappedTree} is garbage collected; the JDK has no supported way to unmap it
+ * earlier, and the file must not be truncated while it is mapped.</p>
+ *
+ * <p><strong>Trust:</strong> {@link #open(Path)} checks the header and file length only, to keep startup
+ * independent of the tree size. Call {@link #verify()} once for files that did not come from
+ * {@link #write(FlatTree, Path)}.</p>
+ */
+public final class MappedTree implements IndexedTree {
+
+  static final int MAGIC = 0x46545245;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 16;
+  static final int MAX_NODES = Integer.MAX_VALUE / Integer.BYTES;
+
+  private final int size;
+  private final IntBuffer val;
+  private final IntBuffer left;
+  private final IntBuffer right;
+
+  private MappedTree(int size, IntBuffer val, IntBuffer left, IntBuffer right) {
+    this.size = size;
+    this.val = val;
+    this.left = left;
+    this.right = right;
+  }
+
+  /**
+   * Writes {@code tree} to {@code file}, replacing any existing content. The columns are written as-is,
+   * so the node numbering of {@code tree} is preserved.
+   */
+  public static void write(FlatTree tree, Path file) throws IOException {
+    try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      final var buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(tree.size).putInt(0);
+      for (final var column : new int[][]{tree.val, tree.left, tree.right}) {
+        for (int i = 0; i < tree.size; ) {
+          if (buffer.remaining() < Integer.BYTES) drain(buffer, channel);
+          final var chunk = Math.min(tree.size - i, buffer.remaining() / Integer.BYTES);
+          buffer.asIntBuffer().put(column, i, chunk);
+          buffer.position(buffer.position() + chunk * Integer.BYTES);
+          i += chunk;
+        }
+      }
+      drain(buffer, channel);
+    }
+  }
+
+  public static void write(TreeNode root, Path file) throws IOException {
+    write(FlatTree.of(root), file);
+  }
+
+  private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) channel.write(buffer);
+    buffer.clear();
+  }
+
+  /**
+   * Maps a file produced by {@link #write(FlatTree, Path)}. The channel is closed before returning;
+   * the mappings outlive it.
+   *
+   * @throws StreamCorruptedException if the header is not recognised or the file length does not
+   *                                  match the node count
+   */
+  public static MappedTree open(Path file) throws IOException {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) throw new StreamCorruptedException("file too short for a tree header");
+
+      final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      if (header.getInt(0) != MAGIC) throw new StreamCorruptedException("not a mapped tree file: " + file);
+      if (header.getInt(4) != VERSION) {
+        throw new StreamCorruptedException("unsupported mapped tree version " + header.getInt(4));
+      }
+      final var size = header.getInt(8);
+      if (size < 0 || size > MAX_NODES) throw new StreamCorruptedException("invalid node count " + size);
+
+      final var columnBytes = (long) size * Integer.BYTES;
+      if (channel.size() != HEADER_BYTES + 3 * columnBytes) {
+        throw new StreamCorruptedException("file length " + channel.size() + " does not match " + size + " nodes");
+      }
+      return new MappedTree(size,
+        column(channel, HEADER_BYTES, columnBytes),
+        column(channel, HEADER_BYTES + columnBytes, columnBytes),
+        column(channel, HEADER_BYTES + 2 * columnBytes, columnBytes));
+    }
+  }
+
+  private static IntBuffer column(FileChannel channel, long offset, long bytes) throws IOException {
+    return channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+  }
+
+  /**
+   * Checks the same invariant as the {@link FlatTree} constructor, touching the whole file once: every
+   * child index comes after its parent and within the tree, and every node except the root has exactly
+   * one parent. A verified file therefore also converts with {@link #toFlatTree()}. The parent marks
+   * take a {@link BitSet}, one bit per node.
+   *
+   * @throws IllegalStateException naming the first offending node
+   */
+  public MappedTree verify() {
+    final var hasParent = new BitSet(size);
+    for (int i = 0; i < size; i++) {
+      checkChild(i, left.get(i), hasParent);
+      checkChild(i, right.get(i), hasParent);
+    }
+    final var orphan = size == 0 ? -1 : hasParent.nextClearBit(1);
+    if (orphan >= 1 && orphan < size) {
+      throw new IllegalStateException("node " + orphan + " is not reachable from the root");
+    }
+    return this;
+  }
+
+  private void checkChild(int parent, int child, BitSet hasParent) {
+    if (child == FlatTree.NIL) return;
+    if (child <= parent || child >= size) {
+      throw new IllegalStateException("node " + parent + " has invalid child index " + child);
+    }
+    if (hasParent.get(child)) throw new IllegalStateException("node " + child + " has more than one parent");
+    hasParent.set(child);
+  }
+
+  /** Copies the mapped columns onto the heap. */
+  public FlatTree toFlatTree() {
+    final var v = new int[size];
+    final var l = new int[size];
+    final var r = new int[size];
+    val.get(0, v);
+    left.get(0, l);
+    right.get(0, r);
+    return new FlatTree(v, l, r, size);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int val(int node) {
+    return val.get(node);
+  }
+
+  @Override
+  public int left(int node) {
+    return left.get(node);
+  }
+
+  @Override
+  public int right(int node) {
+    return right.get(node);
+  }
+}
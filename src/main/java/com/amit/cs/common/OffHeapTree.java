@@ -0,0 +1,218 @@
+package com.amit.cs.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+/**
+ * Binary tree stored outside the Java heap, addressed by {@code long} node indexes.
+ *
+ * <p><strong>What it is:</strong> the {@link FlatTree} layout (values, left and right child columns,
+ * parents before children, root at {@code 0}) kept in direct memory. Child indexes are {@code long}s,
+ * so the tree is not capped at 2<sup>31</sup> nodes, and none of it is scanned or copied by the GC:
+ * a tree of billions of nodes costs the heap a few small chunk arrays.</p>
+ *
+ * <p><strong>Layout:</strong> each column is split into chunks of 2<sup>{@value #CHUNK_SHIFT}</sup>
+ * nodes, one direct {@link ByteBuffer} per chunk and column (4 bytes per value, 8 per child index),
+ * so node {@code i} lives in chunk {@code i >>> CHUNK_SHIFT}.</p>
+ *
+ * <p><strong>Memory limit:</strong> a tree takes 20 bytes of direct memory per node, and direct
+ * buffers are capped by {@code -XX:MaxDirectMemorySize}, which defaults to roughly the maximum heap
+ * size. Past the cap, building throws {@link OutOfMemoryError} however much RAM is free, so a tree
+ * larger than the heap needs the flag, e.g. {@code -XX:MaxDirectMemorySize=64g} for about three
+ * billion nodes.</p>
+ *
+ * <p><strong>Lifecycle:</strong> {@link #close()} drops the chunks and any later access throws
+ * {@link IllegalStateException}; the memory goes back to the OS when the collector clears the buffers.
+ * Nothing is freed by hand, so a reader racing with {@code close()} either still sees the chunks, which
+ * stay valid while it holds them, or gets the exception; it can never read freed memory. Until the
+ * collector runs, a closed tree still counts against the cap above. Not thread-safe while building; a
+ * built tree may be read concurrently.</p>
+ *
+ * <p><strong>Building:</strong> {@link #of(TreeNode)} and {@link #of(IndexedTree)} copy existing trees;
+ * {@link Builder} streams nodes in level order, which is how
+ * {@link TreeCodec#readOffHeapTree(java.nio.channels.ReadableByteChannel)} decodes straight into direct
+ * memory.</p>
+ */
+public final class OffHeapTree implements AutoCloseable {
+
+  /** Child index used for a missing child. */
+  public static final long NIL = -1;
+
+  static final int CHUNK_SHIFT = 20;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private final long size;
+  // Volatile so that readers on other threads see close() promptly; on x86 a volatile load is a plain
+  // load.
+  private volatile ByteBuffer[] val;
+  private volatile ByteBuffer[] left;
+  private volatile ByteBuffer[] right;
+
+  private OffHeapTree(long size) {
+    if (size < 0) throw new IllegalArgumentException("negative size " + size);
+    this.size = size;
+    final var chunks = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+    val = new ByteBuffer[chunks];
+    left = new ByteBuffer[chunks];
+    right = new ByteBuffer[chunks];
+  }
+
+  /** Copies a pointer tree in level order, like {@link FlatTree#of(TreeNode)}. */
+  public static OffHeapTree of(TreeNode root) {
+    long count = 0;
+    final var stack = new ArrayDeque<TreeNode>();
+    if (root != null) stack.push(root);
+    while (!stack.isEmpty()) {
+      final var node = stack.pop();
+      count++;
+      if (node.left != null) stack.push(node.left);
+      if (node.right != null) stack.push(node.right);
+    }
+
+    final var builder = new Builder(count);
+    final var queue = new ArrayDeque<TreeNode>();
+    if (root != null) queue.offer(root);
+    while (!queue.isEmpty()) {
+      final var node = queue.poll();
+      builder.add(node.val, node.left != null, node.right != null);
+      if (node.left != null) queue.offer(node.left);
+      if (node.right != null) queue.offer(node.right);
+    }
+    return builder.build();
+  }
+
+  /** Copies any indexed tree, keeping its numbering. */
+  public static OffHeapTree of(IndexedTree source) {
+    final var tree = new OffHeapTree(source.size());
+    for (int i = 0; i < source.size(); i++) {
+      tree.setVal(i, source.val(i));
+      tree.setLeft(i, source.left(i));
+      tree.setRight(i, source.right(i));
+    }
+    return tree;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  /** Index of the root, or {@link #NIL} for an empty tree. */
+  public long root() {
+    return size == 0 ? NIL : 0;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int val(long node) {
+    return open(val)[(int) (node >>> CHUNK_SHIFT)].getInt((int) (node & CHUNK_MASK) * Integer.BYTES);
+  }
+
+  public long left(long node) {
+    return open(left)[(int) (node >>> CHUNK_SHIFT)].getLong((int) (node & CHUNK_MASK) * Long.BYTES);
+  }
+
+  public long right(long node) {
+    return open(right)[(int) (node >>> CHUNK_SHIFT)].getLong((int) (node & CHUNK_MASK) * Long.BYTES);
+  }
+
+  public boolean isLeaf(long node) {
+    return left(node) == NIL && right(node) == NIL;
+  }
+
+  /** Drops the chunks; idempotent. */
+  @Override
+  public void close() {
+    val = left = right = null;
+  }
+
+  /** A column read once by the caller, so a concurrent {@link #close()} cannot null it in between. */
+  private static ByteBuffer[] open(ByteBuffer[] column) {
+    if (column == null) throw new IllegalStateException("off-heap tree is closed");
+    return column;
+  }
+
+  private void setVal(long node, int value) {
+    chunk(val, node, Integer.BYTES).putInt((int) (node & CHUNK_MASK) * Integer.BYTES, value);
+  }
+
+  private void setLeft(long node, long child) {
+    chunk(left, node, Long.BYTES).putLong((int) (node & CHUNK_MASK) * Long.BYTES, child);
+  }
+
+  private void setRight(long node, long child) {
+    chunk(right, node, Long.BYTES).putLong((int) (node & CHUNK_MASK) * Long.BYTES, child);
+  }
+
+  /**
+   * Chunk of {@code column} holding {@code node}, allocated on first write. Chunks are only allocated
+   * as nodes are written, so a {@link Builder} fed from untrusted input never reserves more direct
+   * memory than the nodes it has actually been given; a built tree has every chunk.
+   */
+  private ByteBuffer chunk(ByteBuffer[] column, long node, int bytes) {
+    final var c = (int) (node >>> CHUNK_SHIFT);
+    if (column[c] == null) {
+      final var nodes = (int) Math.min(CHUNK_SIZE, size - ((long) c << CHUNK_SHIFT));
+      column[c] = ByteBuffer.allocateDirect(nodes * bytes).order(ByteOrder.nativeOrder());
+    }
+    return column[c];
+  }
+
+  /**
+   * Builds a tree of known size from its level-order description. Each {@link #structure} call
+   * describes the next node in level order; its children receive the next free indexes, exactly as
+   * {@link FlatTree#of(TreeNode)} numbers them. Values may be set in any order, before or after.
+   */
+  public static final class Builder {
+    private final OffHeapTree tree;
+    private long described;
+    private long next;
+
+    public Builder(long size) {
+      tree = new OffHeapTree(size);
+      next = size == 0 ? 0 : 1;
+    }
+
+    /**
+     * @throws IllegalStateException if all nodes are already described, the node has no parent, or its
+     *                               children would not fit
+     */
+    public Builder structure(boolean hasLeft, boolean hasRight) {
+      if (described == tree.size) throw new IllegalStateException("all " + tree.size + " nodes already described");
+      if (described > 0 && described >= next) throw new IllegalStateException("node " + described + " has no parent");
+      final var children = (hasLeft ? 1 : 0) + (hasRight ? 1 : 0);
+      if (next + children > tree.size) {
+        throw new IllegalStateException("node " + described + " has children beyond size " + tree.size);
+      }
+      tree.setLeft(described, hasLeft ? next++ : NIL);
+      tree.setRight(described, hasRight ? next++ : NIL);
+      described++;
+      return this;
+    }
+
+    public Builder val(long node, int value) {
+      tree.setVal(node, value);
+      return this;
+    }
+
+    /** Describes the next node in level order together with its value. */
+    public Builder add(int value, boolean hasLeft, boolean hasRight) {
+      structure(hasLeft, hasRight);
+      tree.setVal(described - 1, value);
+      return this;
+    }
+
+    /**
+     * @throws IllegalStateException if fewer nodes were described, or fewer children declared, than the size
+     */
+    public OffHeapTree build() {
+      if (described != tree.size || next != tree.size) {
+        throw new IllegalStateException("structure reaches " + next + " of " + tree.size + " nodes");
+      }
+      return tree;
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package com.amit.cs.common;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only list of {@code int} rows stored in compressed-sparse-row (CSR) form.
+ *
+ * <p><strong>What it is:</strong> A primitive replacement for {@code List<List<Integer>>} results
+ * (levels, zigzag levels, vertical columns). All values live back to back in one {@code int[] values}
+ * array, and row {@code r} is the slice {@code values[offsets[r] .. offsets[r + 1])}. A whole result
+ * therefore costs two arrays instead of one {@code ArrayList} per row plus one {@code Integer} per value.</p>
+ *
+ * <p><strong>Compatibility:</strong> {@link #asList()} exposes the same data as an unmodifiable
+ * {@code List<List<Integer>>} view that boxes lazily on access, so it compares {@code equals} to the
+ * lists returned by the classic APIs; {@link #toLists()} copies it into {@code ArrayList}s for callers
+ * that need to modify the result.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * // [[1], [2, 3], [4, 5]]
+ * // values  = [1, 2, 3, 4, 5]
+ * // offsets = [0, 1, 3, 5]
+ * }</pre>
+ */
+public final class RaggedIntArray {
+
+  private static final RaggedIntArray EMPTY = new RaggedIntArray(new int[0], new int[]{0});
+
+  private final int[] values;
+  private final int[] offsets;
+
+  /**
+   * Wraps the given arrays without copying; the caller must not modify them afterwards.
+   *
+   * @param values  row values, back to back; may be longer than {@code offsets[rows]}
+   * @param offsets {@code rows + 1} non-decreasing start indexes, beginning with 0
+   * @throws IllegalArgumentException if the offsets are not a valid row index over {@code values}
+   */
+  public RaggedIntArray(int[] values, int[] offsets) {
+    if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] > values.length) {
+      throw new IllegalArgumentException("offsets must start at 0 and end within values");
+    }
+    for (int r = 1; r < offsets.length; r++) {
+      if (offsets[r] < offsets[r - 1]) {
+        throw new IllegalArgumentException("offsets must be non-decreasing at row " + (r - 1));
+      }
+    }
+    this.values = values;
+    this.offsets = offsets;
+  }
+
+  public static RaggedIntArray empty() {
+    return EMPTY;
+  }
+
+  public int rows() {
+    return offsets.length - 1;
+  }
+
+  /** Total number of values across all rows. */
+  public int size() {
+    return offsets[offsets.length - 1];
+  }
+
+  public int rowLength(int row) {
+    return offsets[row + 1] - offsets[row];
+  }
+
+  public int get(int row, int index) {
+    final var length = rowLength(row);
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("index " + index + " out of row length " + length);
+    }
+    return values[offsets[row] + index];
+  }
+
+  /** Copy of a single row. */
+  public int[] row(int row) {
+    return Arrays.copyOfRange(values, offsets[row], offsets[row + 1]);
+  }
+
+  /**
+   * Copy of all values, row after row, of length {@link #size()}. Instances are shared, e.g. by
+   * {@link #empty()} and by query caches, so the backing arrays are never handed out.
+   */
+  public int[] values() {
+    return Arrays.copyOf(values, size());
+  }
+
+  /** Copy of the row start indexes followed by {@link #size()}; {@code rows() + 1} entries. */
+  public int[] offsets() {
+    return offsets.clone();
+  }
+
+  /**
+   * Modifiable copy as one {@code ArrayList} per row, for APIs whose contract is a mutable
+   * {@code List<List<Integer>>}; boxes every value once.
+   */
+  public List<List<Integer>> toLists() {
+    final var result = new ArrayList<List<Integer>>(rows());
+    for (int r = 0; r < rows(); r++) {
+      final var row = new ArrayList<Integer>(rowLength(r));
+      for (int i = offsets[r]; i < offsets[r + 1]; i++) row.add(values[i]);
+      result.add(row);
+    }
+    return result;
+  }
+
+  /** Unmodifiable {@code List<List<Integer>>} view; values are boxed on access, nothing is copied. */
+  public List<List<Integer>> asList() {
+    return new AbstractList<>() {
+      @Override
+      public List<Integer> get(int row) {
+        final var start = offsets[row];
+        final var length = rowLength(row);
+        return new AbstractList<>() {
+          @Override
+          public Integer get(int index) {
+            if (index < 0 || index >= length) {
+              throw new IndexOutOfBoundsException("index " + index + " out of row length " + length);
+            }
+            return values[start + index];
+          }
+
+          @Override
+          public int size() {
+            return length;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return rows();
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof RaggedIntArray)) return false;
+    final var other = (RaggedIntArray) o;
+    return Arrays.equals(offsets, other.offsets)
+      && Arrays.equals(values, 0, size(), other.values, 0, other.size());
+  }
+
+  @Override
+  public int hashCode() {
+    var hash = Arrays.hashCode(offsets);
+    for (int i = 0; i < size(); i++) {
+      hash = 31 * hash + values[i];
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return asList().toString();
+  }
+
+  /**
+   * Appends values row by row into growable primitive buffers. Presize it when the node count or
+   * number of rows is known to avoid any regrowth.
+   */
+  public static final class Builder {
+    private int[] values;
+    private int[] offsets;
+    private int size;
+    private int rows;
+
+    public Builder() {
+      this(16, 4);
+    }
+
+    public Builder(int expectedValues, int expectedRows) {
+      values = new int[Math.max(expectedValues, 1)];
+      offsets = new int[Math.max(expectedRows, 1) + 1];
+    }
+
+    public Builder add(int value) {
+      if (size == values.length) values = Arrays.copyOf(values, size << 1);
+      values[size++] = value;
+      return this;
+    }
+
+    /** Reverses the values added since the last {@link #endRow()}, e.g. for right-to-left levels. */
+    public Builder reverseCurrentRow() {
+      for (int i = offsets[rows], j = size - 1; i < j; i++, j--) {
+        final var tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+      }
+      return this;
+    }
+
+    /** Closes the current row; rows may be empty. */
+    public Builder endRow() {
+      if (rows + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length << 1);
+      offsets[++rows] = size;
+      return this;
+    }
+
+    /**
+     * Finishes the result; values added after the last {@link #endRow()} are discarded. Buffers that
+     * were presized exactly are handed over without copying, so the builder must not be used afterwards.
+     */
+    public RaggedIntArray build() {
+      final var size = offsets[rows];
+      return new RaggedIntArray(
+        values.length == size ? values : Arrays.copyOf(values, size),
+        offsets.length == rows + 1 ? offsets : Arrays.copyOf(offsets, rows + 1));
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package com.amit.cs.common;
+
+import java.util.Arrays;
+
+/**
+ * Binary tree with identical subtrees stored once: a hash-consed DAG.
+ *
+ * <p><strong>What it is:</strong> every distinct subtree, i.e. every distinct
+ * {@code (value, left subtree, right subtree)} triple, gets one id and is stored once in three parallel
+ * columns like {@link FlatTree}. A tree made of many copies of the same subtrees shrinks to the number
+ * of <em>distinct</em> subtrees; a complete tree whose values depend only on depth shrinks from
+ * <code>2<sup>h</sup> - 1</code> nodes to <code>h</code>.</p>
+ *
+ * <p><strong>Invariant:</strong> ids are handed out bottom-up, so every child id is strictly
+ * <em>smaller</em> than its parent's, and no id above {@link #root()} is reachable. Post-order reductions
+ * ({@code MaxPathSum}, {@code DiameterOfBinaryTree}, {@code SumOfLeftLeaves} in
+ * {@code com.amit.cs.trees}) become one forward scan that answers each distinct subtree once, so their
+ * cost is proportional to {@link #size} rather than to {@link #nodeCount()}.</p>
+ *
+ * <p><strong>Building:</strong> {@link #of(TreeNode)} and {@link #of(FlatTree)} compress an existing
+ * tree; {@link Builder} interns nodes as a generator produces them, so a compressible tree never needs
+ * to exist in expanded form. Interning is a lookup in an open-addressing table keyed by the triple, with
+ * no per-node allocation.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * // Tree:        id:     0  1
+ * //     1        val   : 2  1
+ * //    / \       left  : -1  0
+ * //   2   2      right : -1  0
+ * }</pre>
+ */
+public final class SubtreeDag {
+
+  /** Child id used for a missing child. */
+  public static final int NIL = -1;
+
+  public final int[] val;
+  public final int[] left;
+  public final int[] right;
+  /** Number of distinct subtrees. */
+  public final int size;
+  private final int root;
+  private final long nodeCount;
+
+  private SubtreeDag(int[] val, int[] left, int[] right, int size, int root, long nodeCount) {
+    this.val = val;
+    this.left = left;
+    this.right = right;
+    this.size = size;
+    this.root = root;
+    this.nodeCount = nodeCount;
+  }
+
+  /** Id of the root, or {@link #NIL} for an empty tree. */
+  public int root() {
+    return root;
+  }
+
+  public boolean isEmpty() {
+    return root == NIL;
+  }
+
+  public boolean isLeaf(int id) {
+    return left[id] == NIL && right[id] == NIL;
+  }
+
+  /**
+   * Number of nodes of the expanded tree, saturating at {@code Long.MAX_VALUE}: a DAG of a few hundred
+   * ids can stand for more nodes than a {@code long} counts.
+   */
+  public long nodeCount() {
+    return nodeCount;
+  }
+
+  /** Compresses a pointer tree; an iterative post-order, so deep trees are safe. */
+  public static SubtreeDag of(TreeNode root) {
+    final var builder = new Builder();
+    if (root == null) return builder.build(NIL);
+
+    var nodes = new TreeNode[64];
+    var ids = new int[64];
+    int nodeTop = 0;
+    int idTop = 0;
+    TreeNode node = root;
+    TreeNode last = null;
+    while (node != null || nodeTop > 0) {
+      if (node != null) {
+        if (nodeTop == nodes.length) nodes = Arrays.copyOf(nodes, nodeTop << 1);
+        nodes[nodeTop++] = node;
+        node = node.left;
+        continue;
+      }
+
+      final var top = nodes[nodeTop - 1];
+      if (top.right != null && top.right != last) {
+        node = top.right;
+        continue;
+      }
+
+      nodeTop--;
+      final var r = top.right != null ? ids[--idTop] : NIL;
+      final var l = top.left != null ? ids[--idTop] : NIL;
+      if (idTop == ids.length) ids = Arrays.copyOf(ids, idTop << 1);
+      ids[idTop++] = builder.node(top.val, l, r);
+      last = top;
+    }
+    return builder.build(ids[0]);
+  }
+
+  /** Compresses a {@link FlatTree}; a backward scan interns every child before its parent. */
+  public static SubtreeDag of(FlatTree tree) {
+    final var builder = new Builder();
+    if (tree.isEmpty()) return builder.build(NIL);
+
+    final var ids = new int[tree.size];
+    for (int i = tree.size - 1; i >= 0; i--) {
+      final var l = tree.left[i];
+      final var r = tree.right[i];
+      ids[i] = builder.node(tree.val[i], l == FlatTree.NIL ? NIL : ids[l], r == FlatTree.NIL ? NIL : ids[r]);
+    }
+    return builder.build(ids[0]);
+  }
+
+  /**
+   * Expands back into {@link TreeNode}s <em>with sharing</em>: one {@code TreeNode} per distinct subtree,
+   * so memory stays proportional to {@link #size}. Read-only algorithms accept the result as a tree,
+   * but a write through one occurrence changes every occurrence.
+   */
+  public TreeNode toSharedTreeNode() {
+    if (root == NIL) return null;
+
+    final var nodes = new TreeNode[size];
+    for (int id = 0; id < size; id++) {
+      nodes[id] = new TreeNode(val[id],
+        left[id] == NIL ? null : nodes[left[id]],
+        right[id] == NIL ? null : nodes[right[id]]);
+    }
+    return nodes[root];
+  }
+
+  /**
+   * Interns nodes bottom-up: {@link #node(int, int, int)} returns the id of an existing identical
+   * subtree when there is one. Not thread-safe.
+   */
+  public static final class Builder {
+    private int[] val = new int[64];
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private long[] count = new long[64];
+    private int size;
+
+    /** Open-addressing table of {@code id + 1}; 0 marks a free slot. Load factor at most 1/2. */
+    private int[] table = new int[128];
+
+    public int leaf(int value) {
+      return node(value, NIL, NIL);
+    }
+
+    /**
+     * Returns the id of the subtree {@code (value, left, right)}, creating it if it is new.
+     *
+     * @throws IllegalArgumentException if a child id was not returned by this builder
+     */
+    public int node(int value, int left, int right) {
+      checkChild(left);
+      checkChild(right);
+
+      final var mask = table.length - 1;
+      for (int slot = hash(value, left, right) & mask; ; slot = (slot + 1) & mask) {
+        final var entry = table[slot];
+        if (entry == 0) {
+          table[slot] = add(value, left, right) + 1;
+          if (size > table.length >>> 1) rehash();
+          return size - 1;
+        }
+        final var id = entry - 1;
+        if (val[id] == value && this.left[id] == left && this.right[id] == right) return id;
+      }
+    }
+
+    /** Distinct subtrees interned so far. */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * @param root id of the root, or {@link #NIL} for an empty tree
+     */
+    public SubtreeDag build(int root) {
+      if (root != NIL) checkChild(root);
+      return new SubtreeDag(Arrays.copyOf(val, size), Arrays.copyOf(left, size), Arrays.copyOf(right, size),
+        size, root, root == NIL ? 0 : count[root]);
+    }
+
+    private void checkChild(int id) {
+      if (id != NIL && (id < 0 || id >= size)) throw new IllegalArgumentException("unknown subtree id " + id);
+    }
+
+    private int add(int value, int l, int r) {
+      if (size == val.length) {
+        final var capacity = size << 1;
+        val = Arrays.copyOf(val, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        count = Arrays.copyOf(count, capacity);
+      }
+      val[size] = value;
+      left[size] = l;
+      right[size] = r;
+      final var lc = l == NIL ? 0 : count[l];
+      final var rc = r == NIL ? 0 : count[r];
+      count[size] = lc >= Long.MAX_VALUE - 1 - rc ? Long.MAX_VALUE : 1 + lc + rc;
+      return size++;
+    }
+
+    private void rehash() {
+      table = new int[table.length << 1];
+      final var mask = table.length - 1;
+      for (int id = 0; id < size; id++) {
+        var slot = hash(val[id], left[id], right[id]) & mask;
+        while (table[slot] != 0) slot = (slot + 1) & mask;
+        table[slot] = id + 1;
+      }
+    }
+
+    private static int hash(int value, int left, int right) {
+      var h = value * 0x9E3779B97F4A7C15L + left;
+      h = h * 0xBF58476D1CE4E5B9L + right;
+      h ^= h >>> 31;
+      h *= 0x94D049BB133111EBL;
+      return (int) (h ^ h >>> 32);
+    }
+  }
+}
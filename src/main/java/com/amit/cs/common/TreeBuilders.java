@@ -0,0 +1,198 @@
+package com.amit.cs.common;
+
+import java.util.BitSet;
+import java.util.function.IntSupplier;
+
+/**
+ * Builds trees from LeetCode-style level-order input without boxing.
+ *
+ * <p><strong>Input:</strong> a sequence of slots in level order, where a slot is either a value or
+ * {@code null}. Slot {@code 0} is the root and every non-null node, in order of appearance, owns the
+ * next two slots as its left and right child; {@code null} slots own nothing. Slots left over once
+ * every node has its children are ignored, so trailing {@code null}s may be present or trimmed.</p>
+ * <pre>{@code
+ * // [1, 2, 3, null, 4, 5]        1
+ * //                             / \
+ * //                            2   3
+ * //                             \  /
+ * //                             4 5
+ * }</pre>
+ *
+ * <p><strong>Null encodings:</strong> the slots come as an {@code int[]} with a {@link BitSet} whose set
+ * bits mark the {@code null} slots, as an {@code int[]} with a sentinel value standing for
+ * {@code null}, or as an {@link IntSupplier} that is asked for exactly the slots the tree consumes.
+ * The sentinel form is the fastest, but it cannot build a tree containing the sentinel value itself.</p>
+ *
+ * <p><strong>Why it is cheap:</strong> the <code>k</code>-th non-null slot becomes node
+ * <code>k</code>, which is its level-order index, and slot <code>s &gt; 0</code> is always a child of
+ * node <code>(s - 1) / 2</code>. Construction is therefore a single forward pass with no queue, into
+ * buffers presized from the slot count; {@link FlatTree} results reuse those buffers without copying.</p>
+ *
+ * <p><strong>Complexity:</strong> <code>O(s)</code> time for <code>s</code> slots consumed and
+ * <code>O(s)</code> extra space at most.</p>
+ */
+public final class TreeBuilders {
+
+  private TreeBuilders() {
+  }
+
+  public static TreeNode treeNode(int[] values, BitSet nulls) {
+    return treeNode(new BitmapSlots(values, nulls));
+  }
+
+  public static TreeNode treeNode(int[] values, int sentinel) {
+    return treeNode(new SentinelSlots(values, sentinel));
+  }
+
+  /**
+   * Builds from at most {@code count} slots pulled from {@code slots}; reading stops as soon as the
+   * tree is complete.
+   */
+  public static TreeNode treeNode(IntSupplier slots, int count, int sentinel) {
+    return treeNode(new StreamSlots(slots, count, sentinel));
+  }
+
+  public static FlatTree flatTree(int[] values, BitSet nulls) {
+    return flatTree(new BitmapSlots(values, nulls));
+  }
+
+  public static FlatTree flatTree(int[] values, int sentinel) {
+    return flatTree(new SentinelSlots(values, sentinel));
+  }
+
+  /**
+   * Builds from at most {@code count} slots pulled from {@code slots}; reading stops as soon as the
+   * tree is complete.
+   */
+  public static FlatTree flatTree(IntSupplier slots, int count, int sentinel) {
+    return flatTree(new StreamSlots(slots, count, sentinel));
+  }
+
+  private static TreeNode treeNode(Slots slots) {
+    if (slots.count == 0 || !slots.present(0)) return null;
+
+    final var nodes = new TreeNode[slots.count];
+    nodes[0] = new TreeNode(slots.value());
+    int size = 1;
+    for (int s = 1; s < slots.count; s++) {
+      final var parent = (s - 1) >>> 1;
+      if (parent >= size) break;
+      if (!slots.present(s)) continue;
+
+      final var node = new TreeNode(slots.value());
+      if ((s & 1) == 1) nodes[parent].left = node;
+      else nodes[parent].right = node;
+      nodes[size++] = node;
+    }
+    return nodes[0];
+  }
+
+  private static FlatTree flatTree(Slots slots) {
+    if (slots.count == 0 || !slots.present(0)) return new FlatTree(new int[0], new int[0], new int[0], 0);
+
+    final var val = new int[slots.count];
+    final var left = new int[slots.count];
+    final var right = new int[slots.count];
+    val[0] = slots.value();
+    left[0] = right[0] = FlatTree.NIL;
+    int size = 1;
+    for (int s = 1; s < slots.count; s++) {
+      final var parent = (s - 1) >>> 1;
+      if (parent >= size) break;
+      if (!slots.present(s)) continue;
+
+      val[size] = slots.value();
+      left[size] = right[size] = FlatTree.NIL;
+      if ((s & 1) == 1) left[parent] = size;
+      else right[parent] = size;
+      size++;
+    }
+    return new FlatTree(val, left, right, size);
+  }
+
+  /**
+   * Slot source read strictly in increasing order: {@link #present(int)} is called once per slot and
+   * {@link #value()} only after it returned {@code true}.
+   */
+  private abstract static class Slots {
+    final int count;
+
+    Slots(int count) {
+      if (count < 0) throw new IllegalArgumentException("negative slot count " + count);
+      this.count = count;
+    }
+
+    abstract boolean present(int slot);
+
+    abstract int value();
+  }
+
+  private static final class BitmapSlots extends Slots {
+    private final int[] values;
+    private final BitSet nulls;
+    private int slot;
+
+    BitmapSlots(int[] values, BitSet nulls) {
+      super(values.length);
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Override
+    boolean present(int slot) {
+      this.slot = slot;
+      return !nulls.get(slot);
+    }
+
+    @Override
+    int value() {
+      return values[slot];
+    }
+  }
+
+  private static final class SentinelSlots extends Slots {
+    private final int[] values;
+    private final int sentinel;
+    private int value;
+
+    SentinelSlots(int[] values, int sentinel) {
+      super(values.length);
+      this.values = values;
+      this.sentinel = sentinel;
+    }
+
+    @Override
+    boolean present(int slot) {
+      value = values[slot];
+      return value != sentinel;
+    }
+
+    @Override
+    int value() {
+      return value;
+    }
+  }
+
+  private static final class StreamSlots extends Slots {
+    private final IntSupplier supplier;
+    private final int sentinel;
+    private int value;
+
+    StreamSlots(IntSupplier supplier, int count, int sentinel) {
+      super(count);
+      this.supplier = supplier;
+      this.sentinel = sentinel;
+    }
+
+    @Override
+    boolean present(int slot) {
+      value = supplier.getAsInt();
+      return value != sentinel;
+    }
+
+    @Override
+    int value() {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,293 @@
+package com.amit.cs.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of a binary tree, read and written through NIO channels.
+ *
+ * <p><strong>Format:</strong> nodes are numbered in level order, the same numbering
+ * {@link FlatTree#of(TreeNode)} uses.</p>
+ * <pre>{@code
+ * version   1 byte                 currently 1
+ * count     varint                 number of nodes n
+ * structure ceil(2n / 8) bytes     2 bits per node, low bits first: bit 0 = has left, bit 1 = has right
+ * values    n zig-zag varints      node values in level order
+ * }</pre>
+ *
+ * <p><strong>Why:</strong> the structure costs 2 bits per node no matter how sparse the tree is, and
+ * zig-zag varints store small values of either sign in one byte. Typical trees encode to a fraction of
+ * their {@code "[1,2,null,3]"} text form and decode without any parsing or boxing. Decoding assigns
+ * child indexes straight from the structure bits, so the result is a ready-made {@link FlatTree}.</p>
+ *
+ * <p><strong>I/O:</strong> each codec owns one direct {@link ByteBuffer} for writing and one for
+ * reading, so the channel sees large, copy-free transfers. Bytes read past the end of a tree stay in
+ * the read buffer and are consumed by the next read on the same codec, which lets several trees be
+ * streamed back to back over one channel. A codec is therefore stateful and not thread-safe; use one
+ * per thread and per input channel. Channels must be blocking: a {@link SelectableChannel} in
+ * non-blocking mode is rejected with {@link IllegalArgumentException}, since a read or write that
+ * transfers nothing would otherwise be retried forever.</p>
+ *
+ * <p><strong>Complexity:</strong> <code>O(n)</code> time both ways; encoding needs an
+ * <code>O(n)</code> BFS order, decoding allocates only the three {@code FlatTree} columns.</p>
+ *
+ * <p><strong>Untrusted input:</strong> the node count in the header is not used to size anything
+ * before the structure bits that back it have been read, so a corrupt or hostile count fails with
+ * {@link EOFException} or {@link StreamCorruptedException} ({@link IllegalArgumentException} from
+ * {@link #decode(byte[])}) instead of an {@link OutOfMemoryError}.</p>
+ */
+public final class TreeCodec {
+
+  static final byte VERSION = 1;
+
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_VARINT_BYTES = 5;
+  private static final int INITIAL_COLUMN_SIZE = 1024;
+
+  private final ByteBuffer out;
+  private final ByteBuffer in;
+
+  public TreeCodec() {
+    this(DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param bufferSize capacity of each direct buffer, at least 16 bytes
+   */
+  public TreeCodec(int bufferSize) {
+    if (bufferSize < 16) throw new IllegalArgumentException("bufferSize must be at least 16: " + bufferSize);
+    out = ByteBuffer.allocateDirect(bufferSize);
+    in = ByteBuffer.allocateDirect(bufferSize);
+    in.limit(0);
+  }
+
+  /** Encodes a tree into a fresh byte array. */
+  public static byte[] encode(TreeNode root) {
+    final var bytes = new ByteArrayOutputStream();
+    try {
+      new TreeCodec(4096).write(root, Channels.newChannel(bytes));
+    } catch (IOException e) {
+      throw new IllegalStateException("in-memory write failed", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a tree produced by {@link #encode(TreeNode)}.
+   *
+   * @throws IllegalArgumentException if the bytes are not a well-formed encoding
+   */
+  public static TreeNode decode(byte[] bytes) {
+    try {
+      final var codec = new TreeCodec(Math.min(Math.max(bytes.length, 16), DEFAULT_BUFFER_SIZE));
+      return codec.readTreeNode(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("malformed tree encoding", e);
+    }
+  }
+
+  public void write(TreeNode root, WritableByteChannel channel) throws IOException {
+    write(FlatTree.of(root), channel);
+  }
+
+  /**
+   * Writes {@code tree} to {@code channel}. Any numbering that satisfies the {@link FlatTree}
+   * invariant is accepted; nodes are emitted in level order.
+   *
+   * @throws IllegalArgumentException if {@code channel} is in non-blocking mode
+   */
+  public void write(FlatTree tree, WritableByteChannel channel) throws IOException {
+    requireBlocking(channel);
+    final var n = tree.size;
+    final var order = levelOrder(tree);
+
+    out.clear();
+    out.put(VERSION);
+    putVarint(n);
+
+    int bits = 0;
+    int shift = 0;
+    for (int i = 0; i < n; i++) {
+      final var node = order[i];
+      if (tree.left[node] != FlatTree.NIL) bits |= 1 << shift;
+      if (tree.right[node] != FlatTree.NIL) bits |= 2 << shift;
+      shift += 2;
+      if (shift == 8) {
+        if (!out.hasRemaining()) flush(channel);
+        out.put((byte) bits);
+        bits = 0;
+        shift = 0;
+      }
+    }
+    if (shift > 0) {
+      if (!out.hasRemaining()) flush(channel);
+      out.put((byte) bits);
+    }
+
+    for (int i = 0; i < n; i++) {
+      if (out.remaining() < MAX_VARINT_BYTES) flush(channel);
+      final var value = tree.val[order[i]];
+      putVarint((value << 1) ^ (value >> 31));
+    }
+    flush(channel);
+  }
+
+  public TreeNode readTreeNode(ReadableByteChannel channel) throws IOException {
+    return readFlatTree(channel).toTreeNode();
+  }
+
+  /**
+   * Reads one tree from {@code channel}.
+   *
+   * @throws EOFException              if the channel ends in the middle of a tree
+   * @throws StreamCorruptedException  if the bytes are not a well-formed encoding
+   * @throws IllegalArgumentException  if {@code channel} is in non-blocking mode
+   */
+  public FlatTree readFlatTree(ReadableByteChannel channel) throws IOException {
+    requireBlocking(channel);
+    final var n = readHeader(channel);
+
+    // The count comes from the input, so the child columns grow with the structure bytes actually read
+    // rather than being allocated from it up front, and a node without a parent fails at once.
+    var left = new int[Math.min(n, INITIAL_COLUMN_SIZE)];
+    var right = new int[left.length];
+    int next = n == 0 ? 0 : 1;
+    for (int i = 0; i < n; i += 4) {
+      require(channel, 1);
+      final var bits = in.get();
+      if (i + 4 > left.length && left.length < n) {
+        final var capacity = (int) Math.min(n, Math.max(i + 4L, 2L * left.length));
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+      }
+      for (int k = 0; k < 4 && i + k < n; k++) {
+        final var node = i + k;
+        if (node > 0 && node >= next) throw new StreamCorruptedException("node " + node + " has no parent");
+        left[node] = (bits >>> 2 * k & 1) != 0 ? next++ : FlatTree.NIL;
+        right[node] = (bits >>> 2 * k & 2) != 0 ? next++ : FlatTree.NIL;
+      }
+      if (next > n) throw new StreamCorruptedException("structure has more children than the " + n + " nodes declared");
+    }
+    if (next != n) throw new StreamCorruptedException("structure reaches " + next + " of " + n + " nodes");
+
+    // n is now backed by n / 4 structure bytes that were really there.
+    final var val = new int[n];
+    for (int i = 0; i < n; i++) {
+      final var zigzag = getVarint(channel);
+      val[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+    return new FlatTree(val, left, right, n);
+  }
+
+  /**
+   * Reads one tree straight into direct memory, without an on-heap {@link FlatTree} in between.
+   *
+   * @throws EOFException              if the channel ends in the middle of a tree
+   * @throws StreamCorruptedException  if the bytes are not a well-formed encoding
+   * @throws IllegalArgumentException  if {@code channel} is in non-blocking mode
+   */
+  public OffHeapTree readOffHeapTree(ReadableByteChannel channel) throws IOException {
+    requireBlocking(channel);
+    final var n = readHeader(channel);
+    final var builder = new OffHeapTree.Builder(n);
+    try {
+      for (int i = 0; i < n; i += 4) {
+        require(channel, 1);
+        final var bits = in.get();
+        for (int k = 0; k < 4 && i + k < n; k++) {
+          builder.structure((bits >>> 2 * k & 1) != 0, (bits >>> 2 * k & 2) != 0);
+        }
+      }
+      for (int i = 0; i < n; i++) {
+        final var zigzag = getVarint(channel);
+        builder.val(i, (zigzag >>> 1) ^ -(zigzag & 1));
+      }
+      return builder.build();
+    } catch (IllegalStateException e) {
+      throw new StreamCorruptedException(e.getMessage());
+    }
+  }
+
+  private int readHeader(ReadableByteChannel channel) throws IOException {
+    require(channel, 1);
+    final var version = in.get();
+    if (version != VERSION) throw new StreamCorruptedException("unsupported tree format version " + version);
+    final var n = getVarint(channel);
+    if (n < 0) throw new StreamCorruptedException("negative node count " + n);
+    return n;
+  }
+
+  private static void requireBlocking(Channel channel) {
+    if (channel instanceof SelectableChannel selectable && !selectable.isBlocking()) {
+      throw new IllegalArgumentException("channel must be in blocking mode");
+    }
+  }
+
+  private static int[] levelOrder(FlatTree tree) {
+    final var queue = new int[tree.size];
+    if (tree.isEmpty()) return queue;
+    int tail = 0;
+    queue[tail++] = tree.root();
+    for (int head = 0; head < tail; head++) {
+      final var node = queue[head];
+      if (tree.left[node] != FlatTree.NIL) queue[tail++] = tree.left[node];
+      if (tree.right[node] != FlatTree.NIL) queue[tail++] = tree.right[node];
+    }
+    return queue;
+  }
+
+  private void putVarint(int value) {
+    while ((value & ~0x7F) != 0) {
+      out.put((byte) (value & 0x7F | 0x80));
+      value >>>= 7;
+    }
+    out.put((byte) value);
+  }
+
+  private int getVarint(ReadableByteChannel channel) throws IOException {
+    if (in.remaining() < MAX_VARINT_BYTES) fill(channel, MAX_VARINT_BYTES);
+    int value = 0;
+    for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+      if (!in.hasRemaining()) throw new EOFException("channel ended inside a varint");
+      final var b = in.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) return value;
+    }
+    throw new StreamCorruptedException("varint longer than " + MAX_VARINT_BYTES + " bytes");
+  }
+
+  private void flush(WritableByteChannel channel) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) channel.write(out);
+    out.clear();
+  }
+
+  private void require(ReadableByteChannel channel, int bytes) throws IOException {
+    if (in.remaining() < bytes && fill(channel, bytes) < bytes) {
+      throw new EOFException("channel ended in the middle of a tree");
+    }
+  }
+
+  /** Reads until at least {@code wanted} bytes are buffered or the channel ends; returns what is buffered. */
+  private int fill(ReadableByteChannel channel, int wanted) throws IOException {
+    in.compact();
+    try {
+      while (in.position() < wanted) {
+        if (channel.read(in) < 0) break;
+      }
+    } finally {
+      in.flip();
+    }
+    return in.remaining();
+  }
+}
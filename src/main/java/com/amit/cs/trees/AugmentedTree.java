@@ -0,0 +1,295 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+
+import java.util.Arrays;
+
+/**
+ * Mutable binary tree that keeps its diameter and maximum path sum up to date across edits.
+ *
+ * <p><strong>What it is:</strong> every {@link Node} carries a parent link and caches the same
+ * per-subtree aggregates {@link DiameterOfBinaryTree} and {@link MaxPathSum} compute bottom-up:
+ * height, best diameter, best downward gain and best path sum. The root's cache therefore holds both
+ * answers, and {@link #diameter()} and {@link #maxPathSum()} are <code>O(1)</code> reads.</p>
+ *
+ * <p><strong>How edits work:</strong> a value update, leaf insert or leaf removal only changes the
+ * aggregates of the edited node's ancestors. Each edit recomputes them from their children's caches,
+ * walking up the parent links, and stops at the first ancestor whose cache did not change; an edit
+ * deep in one branch rarely reaches the root. The cost is <code>O(depth)</code> in the worst case,
+ * i.e. <code>O(log n)</code> for balanced trees. Removing only leaves keeps every repair local; a whole
+ * subtree can be detached by removing its leaves bottom-up.</p>
+ *
+ * <p><strong>Semantics:</strong> the answers equal {@code new DiameterOfBinaryTree().diameterOfBinaryTree}
+ * and {@code new MaxPathSum().maxPathSum} on {@link #toTreeNode()}, including {@code int} overflow
+ * and the empty tree (diameter 0, path sum {@code Integer.MIN_VALUE}).</p>
+ *
+ * <p><strong>Threading:</strong> not thread-safe. Nodes belong to the tree that created them; passing a
+ * removed node or one of another tree throws {@link IllegalArgumentException}.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * var tree = AugmentedTree.of(root);
+ * var leaf = tree.insertLeft(tree.root().right(), 7);  // repairs O(depth) ancestors
+ * tree.setValue(leaf, -3);
+ * int best = tree.maxPathSum();                         // O(1)
+ * }</pre>
+ */
+public final class AugmentedTree {
+
+  private Node root;
+  private int size;
+
+  /** Creates an empty tree; add the root with {@link #insertRoot(int)}. */
+  public AugmentedTree() {
+  }
+
+  /**
+   * Copies a pointer tree. Nodes are numbered in level order, so visiting them backwards computes
+   * every cache from already-finished children without recursion.
+   */
+  public static AugmentedTree of(TreeNode source) {
+    final var tree = new AugmentedTree();
+    if (source == null) return tree;
+
+    var order = new TreeNode[16];
+    var nodes = new Node[16];
+    order[0] = source;
+    nodes[0] = tree.root = tree.new Node(source.val, null);
+    int tail = 1;
+    for (int head = 0; head < tail; head++) {
+      if (tail + 2 > order.length) {
+        order = Arrays.copyOf(order, order.length << 1);
+        nodes = Arrays.copyOf(nodes, order.length);
+      }
+      final var from = order[head];
+      final var to = nodes[head];
+      if (from.left != null) {
+        order[tail] = from.left;
+        nodes[tail++] = to.left = tree.new Node(from.left.val, to);
+      }
+      if (from.right != null) {
+        order[tail] = from.right;
+        nodes[tail++] = to.right = tree.new Node(from.right.val, to);
+      }
+    }
+    for (int i = tail - 1; i >= 0; i--) {
+      nodes[i].recompute();
+    }
+    tree.size = tail;
+    return tree;
+  }
+
+  /** The root, or {@code null} for an empty tree. */
+  public Node root() {
+    return root;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Number of nodes on the longest root-to-leaf path; 0 for an empty tree. */
+  public int height() {
+    return root == null ? 0 : root.height;
+  }
+
+  /** Edges on the longest path between two nodes, in <code>O(1)</code>. */
+  public int diameter() {
+    return root == null ? 0 : root.diameter;
+  }
+
+  /** Largest sum of a non-empty path, in <code>O(1)</code>; {@code Integer.MIN_VALUE} when empty. */
+  public int maxPathSum() {
+    return root == null ? Integer.MIN_VALUE : root.best;
+  }
+
+  /**
+   * @throws IllegalStateException if the tree already has a root
+   */
+  public Node insertRoot(int val) {
+    if (root != null) throw new IllegalStateException("tree already has a root");
+    root = new Node(val, null);
+    root.recompute();
+    size = 1;
+    return root;
+  }
+
+  /**
+   * Adds a leaf as the left child of {@code parent}.
+   *
+   * @throws IllegalArgumentException if {@code parent} is not a node of this tree or already has a left child
+   */
+  public Node insertLeft(Node parent, int val) {
+    checkOwned(parent);
+    if (parent.left != null) throw new IllegalArgumentException("node already has a left child");
+    parent.left = new Node(val, parent);
+    return inserted(parent.left);
+  }
+
+  /**
+   * Adds a leaf as the right child of {@code parent}.
+   *
+   * @throws IllegalArgumentException if {@code parent} is not a node of this tree or already has a right child
+   */
+  public Node insertRight(Node parent, int val) {
+    checkOwned(parent);
+    if (parent.right != null) throw new IllegalArgumentException("node already has a right child");
+    parent.right = new Node(val, parent);
+    return inserted(parent.right);
+  }
+
+  private Node inserted(Node leaf) {
+    leaf.recompute();
+    size++;
+    repair(leaf.parent);
+    return leaf;
+  }
+
+  /**
+   * Detaches a leaf; removing the last node empties the tree.
+   *
+   * @throws IllegalArgumentException if {@code leaf} is not a node of this tree or has children
+   */
+  public void removeLeaf(Node leaf) {
+    checkOwned(leaf);
+    if (leaf.left != null || leaf.right != null) throw new IllegalArgumentException("node is not a leaf");
+
+    final var parent = leaf.parent;
+    if (parent == null) {
+      root = null;
+    } else if (parent.left == leaf) {
+      parent.left = null;
+    } else {
+      parent.right = null;
+    }
+    leaf.parent = null;
+    leaf.owner = null;
+    size--;
+    repair(parent);
+  }
+
+  /**
+   * @throws IllegalArgumentException if {@code node} is not a node of this tree
+   */
+  public void setValue(Node node, int val) {
+    checkOwned(node);
+    if (node.val == val) return;
+    node.val = val;
+    node.recompute();
+    repair(node.parent);
+  }
+
+  /**
+   * Recomputes the caches of {@code node} and its ancestors, stopping at the first one that is
+   * unchanged: everything above it was computed from the same inputs.
+   */
+  private static void repair(Node node) {
+    while (node != null && node.recompute()) {
+      node = node.parent;
+    }
+  }
+
+  private void checkOwned(Node node) {
+    if (node == null || node.owner != this) throw new IllegalArgumentException("node does not belong to this tree");
+  }
+
+  /** Snapshot as a plain {@link TreeNode} graph, e.g. to cross-check with the stateless algorithms. */
+  public TreeNode toTreeNode() {
+    if (root == null) return null;
+
+    final var order = new Node[size];
+    final var copies = new TreeNode[size];
+    order[0] = root;
+    copies[0] = new TreeNode(root.val);
+    int tail = 1;
+    for (int head = 0; head < tail; head++) {
+      final var node = order[head];
+      if (node.left != null) {
+        order[tail] = node.left;
+        copies[tail++] = copies[head].left = new TreeNode(node.left.val);
+      }
+      if (node.right != null) {
+        order[tail] = node.right;
+        copies[tail++] = copies[head].right = new TreeNode(node.right.val);
+      }
+    }
+    return copies[0];
+  }
+
+  /**
+   * A node of an {@link AugmentedTree}. Structure and values are changed through the tree, which keeps
+   * the cached aggregates consistent.
+   */
+  public final class Node {
+    private int val;
+    private Node left;
+    private Node right;
+    private Node parent;
+    private AugmentedTree owner;
+
+    private int height;
+    private int diameter;
+    private int gain;
+    private int best;
+
+    private Node(int val, Node parent) {
+      this.val = val;
+      this.parent = parent;
+      this.owner = AugmentedTree.this;
+    }
+
+    public int val() {
+      return val;
+    }
+
+    public Node left() {
+      return left;
+    }
+
+    public Node right() {
+      return right;
+    }
+
+    /** The parent, or {@code null} for the root and for removed nodes. */
+    public Node parent() {
+      return parent;
+    }
+
+    /** Nodes on the longest downward path from this node. */
+    public int height() {
+      return height;
+    }
+
+    /** Best downward path sum starting at this node; may be negative. */
+    public int gain() {
+      return gain;
+    }
+
+    /**
+     * Same combine step as {@link DiameterOfBinaryTree} and {@link MaxPathSum}, from the children's
+     * caches. Returns whether any cached value changed.
+     */
+    private boolean recompute() {
+      final var lh = left == null ? 0 : left.height;
+      final var rh = right == null ? 0 : right.height;
+      final var ld = left == null ? 0 : left.diameter;
+      final var rd = right == null ? 0 : right.diameter;
+      final var ls = left == null ? 0 : Math.max(left.gain, 0);
+      final var rs = right == null ? 0 : Math.max(right.gain, 0);
+      final var lb = left == null ? Integer.MIN_VALUE : left.best;
+      final var rb = right == null ? Integer.MIN_VALUE : right.best;
+
+      final var newHeight = 1 + Math.max(lh, rh);
+      final var newDiameter = Math.max(lh + rh, Math.max(ld, rd));
+      final var newGain = val + Math.max(ls, rs);
+      final var newBest = Math.max(ls + rs + val, Math.max(lb, rb));
+
+      final var changed = newHeight != height || newDiameter != diameter || newGain != gain || newBest != best;
+      height = newHeight;
+      diameter = newDiameter;
+      gain = newGain;
+      best = newBest;
+      return changed;
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.amit.cs.trees;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs one query over many independent trees concurrently and hands the results back in input order.
+ *
+ * <p><strong>What it does:</strong> the trees of a batch (a collection, stream or iterator, of any
+ * representation) are submitted one task per tree, so a batch of millions of small trees keeps every
+ * core busy without a hand-rolled executor. Results are delivered in the order the trees were
+ * supplied, whatever order the tasks finish in.</p>
+ *
+ * <p><strong>Backpressure:</strong> at most {@code maxInFlight} trees are submitted and not yet
+ * delivered. When the window is full the submitting thread waits for the oldest task and delivers its
+ * result before reading the next tree, so a lazy stream is consumed only as fast as it is processed and
+ * memory stays bounded by the window, not by the batch.</p>
+ *
+ * <p><strong>Executors:</strong> {@link #create(int)} runs on virtual threads, one per tree;
+ * {@link #forkJoin(ForkJoinPool, int)} uses a given pool. The traversals in this package are CPU-bound,
+ * so both give about one core per running query; virtual threads only help when the query also blocks,
+ * e.g. on {@link com.amit.cs.common.MappedTree} page faults.</p>
+ *
+ * <p><strong>Metrics:</strong> {@link #stats()} reports trees submitted, completed and failed, the
+ * current in-flight and queued counts, throughput since creation and per-tree latency (mean, max and
+ * log2-bucketed percentiles).</p>
+ *
+ * <p><strong>Failures:</strong> a query that throws fails the batch: the exception is rethrown by
+ * {@code run} (wrapped in {@link java.util.concurrent.CompletionException}) when its turn to be
+ * delivered comes, and no further trees are submitted. The trees still in the window are cancelled:
+ * those not yet started never run, those already running finish but their results are dropped. The
+ * executor itself can be reused.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * try (var batch = BatchQueryExecutor.create(1024)) {
+ *   List<Integer> sums = batch.run(trees, new MaxPathSum()::maxPathSum);
+ * }
+ * }</pre>
+ */
+public final class BatchQueryExecutor implements AutoCloseable {
+
+  private static final int LATENCY_BUCKETS = 64;
+
+  private final Executor executor;
+  private final ExecutorService owned;
+  private final int maxInFlight;
+  private final boolean virtual;
+  private final long createdNanos = System.nanoTime();
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder started = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder latencyNanos = new LongAdder();
+  private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BUCKETS];
+
+  private BatchQueryExecutor(Executor executor, ExecutorService owned, int maxInFlight, boolean virtual) {
+    if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+    this.executor = executor;
+    this.owned = owned;
+    this.maxInFlight = maxInFlight;
+    this.virtual = virtual;
+    for (int i = 0; i < LATENCY_BUCKETS; i++) latencyBuckets[i] = new LongAdder();
+  }
+
+  /** Runs each query on a virtual thread of its own. */
+  public static BatchQueryExecutor create(int maxInFlight) {
+    final var virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    return new BatchQueryExecutor(virtualThreads, virtualThreads, maxInFlight, true);
+  }
+
+  /** Runs queries on {@code pool}, which is not shut down by {@link #close()}. */
+  public static BatchQueryExecutor forkJoin(ForkJoinPool pool, int maxInFlight) {
+    return new BatchQueryExecutor(pool, null, maxInFlight, false);
+  }
+
+  public boolean usesVirtualThreads() {
+    return virtual;
+  }
+
+  public int maxInFlight() {
+    return maxInFlight;
+  }
+
+  /** Results for {@code trees}, in order. */
+  public <T, R> List<R> run(Collection<? extends T> trees, Function<? super T, ? extends R> query) {
+    final var results = new ArrayList<R>(trees.size());
+    run(trees.iterator(), query, results::add);
+    return results;
+  }
+
+  /** Results for a lazily produced stream of trees, in order; the stream is read under backpressure. */
+  public <T, R> List<R> run(Stream<? extends T> trees, Function<? super T, ? extends R> query) {
+    final var results = new ArrayList<R>();
+    run(trees.iterator(), query, results::add);
+    return results;
+  }
+
+  /**
+   * Streams results to {@code sink} in input order without collecting them. The sink runs on the
+   * calling thread.
+   */
+  public <T, R> void run(Iterator<? extends T> trees, Function<? super T, ? extends R> query,
+                         Consumer<? super R> sink) {
+    final var window = new ArrayDeque<CompletableFuture<R>>(Math.min(maxInFlight, 1024));
+    try {
+      while (trees.hasNext()) {
+        if (window.size() == maxInFlight) sink.accept(window.poll().join());
+        final T tree = trees.next();
+        submitted.increment();
+        window.add(CompletableFuture.supplyAsync(() -> evaluate(query, tree), executor));
+      }
+      while (!window.isEmpty()) sink.accept(window.poll().join());
+    } finally {
+      // Only left non-empty by a failure: a query, the iterator or the sink threw.
+      for (final var future : window) future.cancel(false);
+    }
+  }
+
+  private <T, R> R evaluate(Function<? super T, ? extends R> query, T tree) {
+    started.increment();
+    final var start = System.nanoTime();
+    try {
+      final R result = query.apply(tree);
+      completed.increment();
+      return result;
+    } catch (RuntimeException | Error e) {
+      failed.increment();
+      throw e;
+    } finally {
+      final var elapsed = System.nanoTime() - start;
+      latencyNanos.add(elapsed);
+      maxLatencyNanos.accumulate(elapsed);
+      latencyBuckets[63 - Long.numberOfLeadingZeros(Math.max(elapsed, 1))].increment();
+    }
+  }
+
+  public Stats stats() {
+    final var buckets = new long[LATENCY_BUCKETS];
+    for (int i = 0; i < LATENCY_BUCKETS; i++) buckets[i] = latencyBuckets[i].sum();
+    final var done = completed.sum();
+    final var errors = failed.sum();
+    final var begun = started.sum();
+    final var total = submitted.sum();
+    return new Stats(total, done, errors, total - done - errors, total - begun, System.nanoTime() - createdNanos,
+      latencyNanos.sum(), maxLatencyNanos.get(), buckets);
+  }
+
+  /** Shuts down the virtual-thread executor if this instance created one; a given pool is left running. */
+  @Override
+  public void close() {
+    if (owned != null) owned.shutdown();
+  }
+
+  /** Point-in-time counters of a {@link BatchQueryExecutor}. */
+  public static final class Stats {
+    public final long submitted;
+    public final long completed;
+    public final long failed;
+    /** Submitted and not yet finished. */
+    public final long inFlight;
+    /** Submitted and not yet started: the executor's queue depth. */
+    public final long queued;
+    public final long elapsedNanos;
+    public final long maxLatencyNanos;
+    private final long totalLatencyNanos;
+    private final long[] latencyBuckets;
+
+    Stats(long submitted, long completed, long failed, long inFlight, long queued, long elapsedNanos,
+          long totalLatencyNanos, long maxLatencyNanos, long[] latencyBuckets) {
+      this.submitted = submitted;
+      this.completed = completed;
+      this.failed = failed;
+      this.inFlight = inFlight;
+      this.queued = queued;
+      this.elapsedNanos = elapsedNanos;
+      this.totalLatencyNanos = totalLatencyNanos;
+      this.maxLatencyNanos = maxLatencyNanos;
+      this.latencyBuckets = latencyBuckets;
+    }
+
+    /** Completed trees per second since the executor was created. */
+    public double throughputPerSecond() {
+      return elapsedNanos == 0 ? 0 : completed * 1e9 / elapsedNanos;
+    }
+
+    public double meanLatencyNanos() {
+      final var finished = completed + failed;
+      return finished == 0 ? 0 : (double) totalLatencyNanos / finished;
+    }
+
+    /**
+     * Upper bound of the latency below which a fraction {@code p} of the trees finished, with power-of-two
+     * resolution; 0 before the first tree finishes.
+     */
+    public long latencyPercentileNanos(double p) {
+      if (p < 0 || p > 1) throw new IllegalArgumentException("p must be within [0, 1]: " + p);
+      long count = 0;
+      for (final var bucket : latencyBuckets) count += bucket;
+      if (count == 0) return 0;
+
+      final var rank = (long) Math.ceil(p * count);
+      long seen = 0;
+      for (int i = 0; i < latencyBuckets.length; i++) {
+        seen += latencyBuckets[i];
+        if (seen >= rank && latencyBuckets[i] > 0) return i >= 62 ? Long.MAX_VALUE : (2L << i) - 1;
+      }
+      return maxLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("submitted=%d completed=%d failed=%d inFlight=%d queued=%d throughput=%.0f/s "
+          + "meanLatency=%.0fns p99=%dns maxLatency=%dns", submitted, completed, failed, inFlight, queued,
+        throughputPerSecond(), meanLatencyNanos(), latencyPercentileNanos(0.99), maxLatencyNanos);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.amit.cs.trees;
+
+/**
+ * Per-thread pool of BFS queues, so that a steady stream of queries on the same thread reuses one
+ * {@link NodeQueue}, {@link IntQueue} and {@link LongQueue} instead of allocating and regrowing a deque
+ * per call.
+ *
+ * <p><strong>Usage:</strong> lease with {@link #nodeQueue()}, {@link #intQueue()} or {@link #longQueue()}
+ * and always hand the queue back in a {@code finally} block with the matching {@code release}. A queue
+ * must not escape the call that leased it.</p>
+ *
+ * <p><strong>Reentrancy:</strong> each thread owns one queue of each kind. If it is already leased,
+ * e.g. a {@link LevelVisitor} callback runs another query on the same thread, the nested call gets
+ * a fresh, unpooled queue, so correctness never depends on call nesting.</p>
+ *
+ * <p><strong>Retention:</strong> a released queue keeps its buffer, so once it has grown to the
+ * widest level seen the next queries allocate nothing. A buffer above {@link #MAX_RETAINED} slots is
+ * kept while consecutive queries need it and dropped after the first query that did not, so one huge
+ * tree does not pin a huge array to the thread and a run of huge trees does not regrow it every time.
+ * {@link #presize(Kind, int)} sizes one kind of queue up front when the maximum width is known, and
+ * raises that kind's limit for the calling thread until {@link #resetRetention()}.</p>
+ *
+ * <p><strong>Virtual threads:</strong> a virtual thread usually runs a single task, e.g. under
+ * {@link BatchQueryExecutor#create(int)}, so a per-thread pool would be created and thrown away with
+ * every task. On virtual threads every lease therefore returns a fresh, unpooled queue and
+ * the pool is bypassed; run the batch on {@link BatchQueryExecutor#forkJoin} to get pooled queues.</p>
+ */
+public final class BfsQueues {
+  static final int MAX_RETAINED = 1 << 16;
+
+  private static final ThreadLocal<BfsQueues> LOCAL = ThreadLocal.withInitial(BfsQueues::new);
+
+  private final NodeQueue nodes = new NodeQueue();
+  private final IntQueue ints = new IntQueue();
+  private final LongQueue longs = new LongQueue();
+  private boolean nodesLeased;
+  private boolean intsLeased;
+  private boolean longsLeased;
+  private int nodesRetained = MAX_RETAINED;
+  private int intsRetained = MAX_RETAINED;
+  private int longsRetained = MAX_RETAINED;
+
+  private BfsQueues() {
+  }
+
+  /** Pooled queue kinds, named after the node references they hold. */
+  public enum Kind {
+    /** {@code TreeNode} references: the queries over pointer trees. */
+    NODE,
+    /** {@code int} indexes: the {@code FlatTree} and {@code IndexedTree} queries. */
+    INT,
+    /** {@code long} indexes: the {@code OffHeapTree} queries. */
+    LONG
+  }
+
+  /**
+   * Grows the calling thread's pooled queue of {@code kind} so that a level-synchronous BFS over a tree
+   * whose widest level has {@code maxWidth} nodes never regrows it, and keeps it that large after
+   * release until {@link #resetRetention()}. The queue holds at most one and a half levels at a time:
+   * the rest of the current level plus the children of the nodes already polled. The other kinds are
+   * left alone, since one query only ever leases one kind. Does nothing on a virtual thread.
+   *
+   * @throws IllegalArgumentException if {@code maxWidth} is negative
+   */
+  public static void presize(Kind kind, int maxWidth) {
+    if (maxWidth < 0) throw new IllegalArgumentException("maxWidth " + maxWidth);
+    if (onVirtualThread()) return;
+    final var capacity = capacityFor((int) Math.min((long) maxWidth + (maxWidth >> 1), 1 << 30));
+    final var pool = LOCAL.get();
+    switch (kind) {
+      case NODE:
+        pool.nodes.ensureCapacity(capacity);
+        pool.nodesRetained = Math.max(pool.nodesRetained, capacity);
+        break;
+      case INT:
+        pool.ints.ensureCapacity(capacity);
+        pool.intsRetained = Math.max(pool.intsRetained, capacity);
+        break;
+      default:
+        pool.longs.ensureCapacity(capacity);
+        pool.longsRetained = Math.max(pool.longsRetained, capacity);
+    }
+  }
+
+  /**
+   * Undoes {@link #presize(Kind, int)} on the calling thread: every kind is back to the default limit,
+   * and buffers above it are dropped now, or on release for a queue that is leased.
+   */
+  public static void resetRetention() {
+    if (onVirtualThread()) return;
+    final var pool = LOCAL.get();
+    pool.nodesRetained = pool.intsRetained = pool.longsRetained = MAX_RETAINED;
+    if (!pool.nodesLeased) pool.nodes.clear(MAX_RETAINED);
+    if (!pool.intsLeased) pool.ints.clear(MAX_RETAINED);
+    if (!pool.longsLeased) pool.longs.clear(MAX_RETAINED);
+  }
+
+  static NodeQueue nodeQueue() {
+    if (onVirtualThread()) return new NodeQueue();
+    final var pool = LOCAL.get();
+    if (pool.nodesLeased) return new NodeQueue();
+    pool.nodesLeased = true;
+    return pool.nodes;
+  }
+
+  static IntQueue intQueue() {
+    if (onVirtualThread()) return new IntQueue();
+    final var pool = LOCAL.get();
+    if (pool.intsLeased) return new IntQueue();
+    pool.intsLeased = true;
+    return pool.ints;
+  }
+
+  static LongQueue longQueue() {
+    if (onVirtualThread()) return new LongQueue();
+    final var pool = LOCAL.get();
+    if (pool.longsLeased) return new LongQueue();
+    pool.longsLeased = true;
+    return pool.longs;
+  }
+
+  static void release(NodeQueue queue) {
+    if (onVirtualThread()) return;
+    final var pool = LOCAL.get();
+    if (queue != pool.nodes) return;
+    queue.clear(pool.nodesRetained);
+    pool.nodesLeased = false;
+  }
+
+  static void release(IntQueue queue) {
+    if (onVirtualThread()) return;
+    final var pool = LOCAL.get();
+    if (queue != pool.ints) return;
+    queue.clear(pool.intsRetained);
+    pool.intsLeased = false;
+  }
+
+  static void release(LongQueue queue) {
+    if (onVirtualThread()) return;
+    final var pool = LOCAL.get();
+    if (queue != pool.longs) return;
+    queue.clear(pool.longsRetained);
+    pool.longsLeased = false;
+  }
+
+  /** Smallest power of two that holds {@code capacity} elements, at least 2. */
+  static int capacityFor(int capacity) {
+    return capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  static boolean onVirtualThread() {
+    return Thread.currentThread().isVirtual();
+  }
+}
@@ -1,7 +1,13 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.OffHeapTree;
+import com.amit.cs.common.SubtreeDag;
 import com.amit.cs.common.TreeNode;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * This class calculates the diameter of a binary tree. The diameter is defined as the
  * length of the longest path between any two nodes in the tree. This path may or may
@@ -10,16 +16,17 @@ import com.amit.cs.common.TreeNode;
  * URL: https://leetcode.com/problems/diameter-of-binary-tree/description/
  *
  * Key details:
- * - A helper method `wrapper` recursively computes the height of each subtree and
- *   updates the maximum diameter encountered during the traversal.
+ * - A helper method recursively computes the height of each subtree together with
+ *   the maximum diameter encountered inside it, packed into a single `long`.
  * - The diameter of a binary tree is the sum of the left subtree height and the
  *   right subtree height for the node where the longest path occurs.
- * - The result is tracked using a class-level variable `MAX`.
+ * - No state is kept between calls, so one instance can be reused and shared
+ *   across threads. The legacy `wrapper` method still accumulates into the
+ *   instance field `MAX` and is deprecated for that reason.
  *
  * How it works:
- * - The `diameterOfBinaryTree` method initializes the recursive process by
- *   calling the `wrapper` method on the root node.
- * - The `wrapper` method performs a depth-first traversal of the tree,
+ * - The `diameterOfBinaryTree` method starts the recursive helper on the root node.
+ * - The helper performs a depth-first traversal of the tree,
  *   calculating the height of each subtree for every node.
  * - At each node, the sum of the heights of the left and right subtrees is
  *   compared to the current maximum diameter, and the maximum is updated
@@ -41,6 +48,13 @@ import com.amit.cs.common.TreeNode;
 public class DiameterOfBinaryTree {
   private int MAX = Integer.MIN_VALUE;
 
+  /**
+   * Height of {@code root}, folding every diameter it sees into the instance field {@code MAX}.
+   *
+   * @deprecated the field is never reset, so an instance that called this cannot be reused or shared;
+   * use {@link #diameterOfBinaryTree(TreeNode)}, which keeps its accumulator on the call stack.
+   */
+  @Deprecated
   public int wrapper(TreeNode root) {
     if (root == null) return 0;
 
@@ -52,9 +66,221 @@ public class DiameterOfBinaryTree {
     return 1 + Math.max(lh, rh);
   }
 
+  /**
+   * Stateless and reentrant: the running maximum travels up with the height instead of living in a
+   * field, so a single shared instance can serve concurrent callers without synchronization.
+   * An empty tree has diameter 0.
+   */
   public int diameterOfBinaryTree(TreeNode root) {
-    wrapper(root);
-    return MAX;
+    return (int) (diameterAndHeight(root) >>> 32);
+  }
+
+  /**
+   * Returns the best diameter inside {@code root} in the high 32 bits and the height of {@code root}
+   * in the low 32 bits. Packing both into a {@code long} keeps the recursion allocation-free.
+   */
+  private static long diameterAndHeight(TreeNode root) {
+    if (root == null) return 0L;
+
+    return combine(diameterAndHeight(root.left), diameterAndHeight(root.right));
+  }
+
+  /**
+   * Packed result of a node from the packed results of its two subtrees ({@code 0L} for a missing one).
+   */
+  private static long combine(long l, long r) {
+    final var lh = (int) l;
+    final var rh = (int) r;
+
+    final var max = Math.max(lh + rh, Math.max((int) (l >>> 32), (int) (r >>> 32)));
+
+    return (long) max << 32 | (1 + Math.max(lh, rh));
+  }
+
+  /**
+   * Same computation over a {@link FlatTree}. Children always have larger indices than their parent,
+   * so scanning the arrays backwards visits every subtree before its root: a bottom-up pass over an
+   * {@code int[]} of heights replaces the recursion and cannot overflow the thread stack.
+   * An empty tree has diameter 0.
+   */
+  public int diameterOfBinaryTree(FlatTree tree) {
+    final var height = new int[tree.size];
+    int max = 0;
+
+    for (int i = tree.size - 1; i >= 0; i--) {
+      final var lh = tree.left[i] == FlatTree.NIL ? 0 : height[tree.left[i]];
+      final var rh = tree.right[i] == FlatTree.NIL ? 0 : height[tree.right[i]];
+
+      max = Math.max(max, lh + rh);
+
+      height[i] = 1 + Math.max(lh, rh);
+    }
+    return max;
+  }
+
+  /**
+   * Diameter of an {@link OffHeapTree}, returned as a {@code long} since a chain of billions of nodes
+   * outgrows an {@code int}. A post-order on a {@link LongStack} of node indexes (a node is re-pushed as
+   * {@code ~node} once its children are scheduled) leaves each finished child's height on a second
+   * {@link LongStack}, so only <code>O(h)</code> longs live on the heap.
+   */
+  public long diameterOfBinaryTree(OffHeapTree tree) {
+    if (tree.isEmpty()) return 0;
+
+    final var pending = new LongStack();
+    final var heights = new LongStack();
+    long max = 0;
+    pending.push(tree.root());
+
+    while (!pending.isEmpty()) {
+      final var entry = pending.pop();
+      if (entry >= 0) {
+        pending.push(~entry);
+        if (tree.right(entry) != OffHeapTree.NIL) pending.push(tree.right(entry));
+        if (tree.left(entry) != OffHeapTree.NIL) pending.push(tree.left(entry));
+        continue;
+      }
+
+      final var node = ~entry;
+      final var rh = tree.right(node) == OffHeapTree.NIL ? 0 : heights.pop();
+      final var lh = tree.left(node) == OffHeapTree.NIL ? 0 : heights.pop();
+
+      max = Math.max(max, lh + rh);
+
+      heights.push(1 + Math.max(lh, rh));
+    }
+    return max;
+  }
+
+  /**
+   * Stack-safe version of {@link #diameterOfBinaryTree(TreeNode)} for deep or skewed trees.
+   *
+   * <p>Runs the same post-order as the recursive method on an explicit {@link NodeStack}: a node
+   * is finished once its right subtree is done (tracked through {@code last}), and at that point the
+   * heights of its non-null children are on top of an {@link IntStack}. The O(h) working set lives on
+   * the heap, so a 10^8-deep chain runs with the default thread stack. The recursive method remains
+   * the simpler choice for small trees. An empty tree has diameter 0.</p>
+   */
+  public int diameterOfBinaryTreeIterative(TreeNode root) {
+    final var probe = TraversalMetrics.probe(DiameterOfBinaryTree.class, "diameterOfBinaryTreeIterative");
+    try {
+      return (int) (diameterAndHeightIterative(root, probe) >>> 32);
+    } finally {
+      if (probe != null) probe.finish();
+    }
+  }
+
+  /**
+   * Iterative engine behind {@link #diameterOfBinaryTreeIterative(TreeNode)}, returning the same packed
+   * (diameter, height) pair as {@link #diameterAndHeight(TreeNode)}. {@code probe} is {@code null} unless
+   * {@link TraversalMetrics} or {@link TreeQueryEvent} is enabled; parallel leaf tasks always pass
+   * {@code null}.
+   */
+  private static long diameterAndHeightIterative(TreeNode root, TraversalMetrics.Probe probe) {
+    final var stack = new NodeStack();
+    final var heights = new IntStack();
+    int max = 0;
+
+    var node = root;
+    TreeNode last = null;
+    while (node != null || !stack.isEmpty()) {
+      if (node != null) {
+        stack.push(node);
+        if (probe != null) probe.depth(stack.size());
+        node = node.left;
+        continue;
+      }
+
+      final var top = stack.peek();
+      if (top.right != null && top.right != last) {
+        node = top.right;
+        continue;
+      }
+
+      stack.pop();
+      if (probe != null) probe.visited(1);
+      final var rh = top.right != null ? heights.pop() : 0;
+      final var lh = top.left != null ? heights.pop() : 0;
+
+      max = Math.max(max, lh + rh);
+
+      heights.push(1 + Math.max(lh, rh));
+      last = top;
+    }
+    return (long) max << 32 | (heights.isEmpty() ? 0 : heights.pop());
+  }
+
+  /**
+   * Diameter of a hash-consed {@link SubtreeDag}: the packed (diameter, height) of each distinct subtree
+   * is computed once by a forward scan, since children have smaller ids, and shared by all of its
+   * occurrences. <code>O(distinct subtrees)</code> time. An empty tree has diameter 0.
+   */
+  public int diameterOfBinaryTree(SubtreeDag dag) {
+    if (dag.isEmpty()) return 0;
+
+    final var result = new long[dag.root() + 1];
+    for (int id = 0; id <= dag.root(); id++) {
+      final var l = dag.left[id];
+      final var r = dag.right[id];
+      result[id] = combine(l == SubtreeDag.NIL ? 0L : result[l], r == SubtreeDag.NIL ? 0L : result[r]);
+    }
+    return (int) (result[dag.root()] >>> 32);
+  }
+
+  /**
+   * Fork-join version of {@link #diameterOfBinaryTree(TreeNode)} on the common pool.
+   */
+  public int diameterOfBinaryTreeParallel(TreeNode root) {
+    return diameterOfBinaryTreeParallel(root, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Fork-join version of {@link #diameterOfBinaryTree(TreeNode)}.
+   *
+   * <p>The two subtrees of a node are independent, so at every node with two children the left subtree
+   * is forked and the right one computed in place. After {@link ForkJoinSupport#splitDepth} nested forks
+   * a task finishes its subtree with the stack-safe iterative engine. Runs of single-child nodes are
+   * walked without forking and folded back afterwards, so a skewed tree degrades gracefully to one
+   * sequential, stack-safe pass instead of a cascade of tiny tasks.</p>
+   */
+  public int diameterOfBinaryTreeParallel(TreeNode root, ForkJoinPool pool) {
+    return (int) (pool.invoke(new DiameterTask(root, ForkJoinSupport.splitDepth(pool))) >>> 32);
+  }
+
+  private static final class DiameterTask extends RecursiveTask<Long> {
+    private final TreeNode root;
+    private final int splits;
+
+    DiameterTask(TreeNode root, int splits) {
+      this.root = root;
+      this.splits = splits;
+    }
+
+    @Override
+    protected Long compute() {
+      if (splits == 0) return diameterAndHeightIterative(root, null);
+
+      final var chain = new NodeStack();
+      var node = root;
+      while (node != null && (node.left == null || node.right == null)) {
+        chain.push(node);
+        node = node.left != null ? node.left : node.right;
+      }
+
+      var result = 0L;
+      if (node != null) {
+        final var left = new DiameterTask(node.left, splits - 1);
+        left.fork();
+        final var right = new DiameterTask(node.right, splits - 1).compute();
+        result = combine(left.join(), right);
+      }
+
+      while (!chain.isEmpty()) {
+        chain.pop();
+        result = combine(result, 0L);
+      }
+      return result;
+    }
   }
 
 }
@@ -1,9 +1,10 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.OffHeapTree;
 import com.amit.cs.common.TreeNode;
 
-import java.util.ArrayDeque;
-
 /**
  * Finds the leftmost value in the last row of a binary tree.
  *
@@ -24,17 +25,182 @@ public class FindBottomLeftValue {
 
   public int findBottomLeftValue(TreeNode root) {
     var num = root.val;
-    final var queue = new ArrayDeque<TreeNode>();
-    queue.offerFirst(root);
-    while (!queue.isEmpty()){
-      final var size = queue.size();
-      for (int i = 0; i < size; i++) {
-        final var node = queue.pollFirst();
-        if (node.left != null) queue.offerLast(node.left);
-        if (node.right != null) queue.offerLast(node.right);
-        if (i == 0) num = node.val;
+    final var probe = TraversalMetrics.probe(FindBottomLeftValue.class, "findBottomLeftValue");
+    final var queue = BfsQueues.nodeQueue();
+    try {
+      queue.offerFirst(root);
+      while (!queue.isEmpty()){
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          if (node.left != null) queue.offerLast(node.left);
+          if (node.right != null) queue.offerLast(node.right);
+          if (i == 0) num = node.val;
+        }
+      }
+      return num;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same search over a {@link FlatTree}; like the {@link TreeNode} version it expects a non-empty tree.
+   * The queue holds node indexes in the pooled {@link IntQueue}.
+   */
+  public int findBottomLeftValue(FlatTree tree) {
+    return findBottomLeftValue(tree, "findBottomLeftValueFlat");
+  }
+
+  /**
+   * Same search over any {@link IndexedTree}, e.g. a {@link com.amit.cs.common.MappedTree} queried in
+   * place; expects a non-empty tree.
+   */
+  public int findBottomLeftValue(IndexedTree tree) {
+    return findBottomLeftValue(tree, "findBottomLeftValueIndexed");
+  }
+
+  /**
+   * The index-based BFS behind the {@link FlatTree} and {@link IndexedTree} overloads, recorded under
+   * {@code method}. A call site that only sees one or two implementations is inlined by the JIT, so
+   * reading a {@link FlatTree} through the interface costs about as much as reading its arrays.
+   */
+  private static int findBottomLeftValue(IndexedTree tree, String method) {
+    var num = tree.val(tree.root());
+    final var probe = TraversalMetrics.probe(FindBottomLeftValue.class, method);
+    final var queue = BfsQueues.intQueue();
+    try {
+      queue.offerLast(tree.root());
+      while (!queue.isEmpty()) {
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != FlatTree.NIL) queue.offerLast(left);
+          if (right != FlatTree.NIL) queue.offerLast(right);
+          if (i == 0) num = tree.val(node);
+        }
+      }
+      return num;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same search over an {@link OffHeapTree}, on the pooled {@link LongQueue}; expects a non-empty tree.
+   * Its own loop, since {@code long} node indexes do not fit {@link IndexedTree}.
+   */
+  public int findBottomLeftValue(OffHeapTree tree) {
+    var num = tree.val(tree.root());
+    final var probe = TraversalMetrics.probe(FindBottomLeftValue.class, "findBottomLeftValueOffHeap");
+    final var queue = BfsQueues.longQueue();
+    try {
+      queue.offerLast(tree.root());
+      while (!queue.isEmpty()) {
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != OffHeapTree.NIL) queue.offerLast(left);
+          if (right != OffHeapTree.NIL) queue.offerLast(right);
+          if (i == 0) num = tree.val(node);
+        }
+      }
+      return num;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same search with <code>O(h)</code> memory instead of <code>O(w)</code>: an iterative pre-order that
+   * visits left children first, with each node's depth on a parallel {@link IntStack}. The first node
+   * reached at a new maximum depth is the leftmost one of that level, so the last such node is the
+   * answer. Expects a non-empty tree; see {@link TraversalPlanner} for when to prefer it.
+   */
+  public int findBottomLeftValueDfs(TreeNode root) {
+    var num = root.val;
+    int bottom = 0;
+    final var nodes = new NodeStack();
+    final var depths = new IntStack();
+    nodes.push(root);
+    depths.push(0);
+    while (!nodes.isEmpty()) {
+      final var node = nodes.pop();
+      final var depth = depths.pop();
+      if (depth > bottom) {
+        bottom = depth;
+        num = node.val;
+      }
+      if (node.right != null) {
+        nodes.push(node.right);
+        depths.push(depth + 1);
+      }
+      if (node.left != null) {
+        nodes.push(node.left);
+        depths.push(depth + 1);
+      }
+    }
+    return num;
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #findBottomLeftValueDfs(TreeNode)}, with node indexes and depths
+   * on two {@link IntStack}s; expects a non-empty tree.
+   */
+  public int findBottomLeftValueDfs(FlatTree tree) {
+    var num = tree.val[tree.root()];
+    int bottom = 0;
+    final var nodes = new IntStack();
+    final var depths = new IntStack();
+    nodes.push(tree.root());
+    depths.push(0);
+    while (!nodes.isEmpty()) {
+      final var node = nodes.pop();
+      final var depth = depths.pop();
+      if (depth > bottom) {
+        bottom = depth;
+        num = tree.val[node];
+      }
+      if (tree.right[node] != FlatTree.NIL) {
+        nodes.push(tree.right[node]);
+        depths.push(depth + 1);
+      }
+      if (tree.left[node] != FlatTree.NIL) {
+        nodes.push(tree.left[node]);
+        depths.push(depth + 1);
       }
     }
     return num;
   }
+
+  /** Bottom-left value using the given strategy; both give the same result. */
+  public int findBottomLeftValue(TreeNode root, TraversalPlanner.Strategy strategy) {
+    return strategy == TraversalPlanner.Strategy.DFS ? findBottomLeftValueDfs(root) : findBottomLeftValue(root);
+  }
+
+  public int findBottomLeftValue(FlatTree tree, TraversalPlanner.Strategy strategy) {
+    return strategy == TraversalPlanner.Strategy.DFS ? findBottomLeftValueDfs(tree) : findBottomLeftValue(tree);
+  }
+
+  /**
+   * Bottom-left value with the strategy {@link TraversalPlanner#plan(TreeNode)} picks from a sample of the
+   * tree.
+   */
+  public int findBottomLeftValueAdaptive(TreeNode root) {
+    return findBottomLeftValue(root, TraversalPlanner.plan(root));
+  }
+
+  public int findBottomLeftValueAdaptive(FlatTree tree) {
+    return findBottomLeftValue(tree, TraversalPlanner.plan(tree));
+  }
 }
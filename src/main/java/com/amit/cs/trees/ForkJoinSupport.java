@@ -0,0 +1,23 @@
+package com.amit.cs.trees;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Shared tuning for the fork-join variants of the subtree reductions in this package.
+ */
+final class ForkJoinSupport {
+
+  private ForkJoinSupport() {
+  }
+
+  /**
+   * How many nested forks a task may perform before finishing its subtree sequentially.
+   *
+   * <p>A balanced tree split {@code d} times yields {@code 2^d} leaf tasks; {@code log2(parallelism) + 3}
+   * gives about eight tasks per worker, enough for work stealing to even out ragged subtrees while
+   * keeping task overhead negligible next to the sequential work below the cut.</p>
+   */
+  static int splitDepth(ForkJoinPool pool) {
+    return 32 - Integer.numberOfLeadingZeros(pool.getParallelism()) + 3;
+  }
+}
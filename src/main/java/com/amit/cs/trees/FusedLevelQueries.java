@@ -0,0 +1,223 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.RaggedIntArray;
+import com.amit.cs.common.TreeNode;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Answers several level-based queries about the same tree in one breadth-first traversal.
+ *
+ * <p><strong>What it does:</strong> {@link MaxLevelSum}, {@link RightSideView},
+ * {@link FindBottomLeftValue}, {@link LevelOrderTraversal} and {@link ZigzagLevelOrderTraversal} all
+ * walk the tree level by level and differ only in what they keep from each level. This class runs the
+ * walk once and collects every requested {@link Query} from it, so asking for <code>k</code> answers
+ * costs one traversal instead of <code>k</code>.</p>
+ *
+ * <p><strong>How it works:</strong> the traversal is
+ * {@link LevelOrderTraversal#levelOrder(TreeNode, LevelVisitor)} (or its {@link FlatTree} /
+ * {@link IndexedTree} flavour) with a single {@link LevelVisitor} doing the per-level bookkeeping:</p>
+ * <ul>
+ *   <li>level sum, compared against the best so far: {@link Query#MAX_LEVEL_SUM};</li>
+ *   <li>first value of the level, kept from the last level: {@link Query#BOTTOM_LEFT_VALUE};</li>
+ *   <li>last value of the level: {@link Query#RIGHT_SIDE_VIEW};</li>
+ *   <li>all values, appended to a {@link RaggedIntArray} row: {@link Query#LEVEL_ORDER}, and again with
+ *   odd rows reversed in place: {@link Query#ZIGZAG_LEVEL_ORDER}.</li>
+ * </ul>
+ * <p>Queries that were not requested cost nothing beyond a flag test per value.</p>
+ *
+ * <p><strong>Results:</strong> every answer equals what the single-query class returns for the same
+ * tree, including for an empty tree; the only exception is {@link Result#bottomLeftValue()}, which
+ * throws {@link NoSuchElementException} for an empty tree where {@code FindBottomLeftValue} expects a
+ * non-empty one. Asking a {@link Result} for a query that was not requested throws
+ * {@link IllegalStateException}.</p>
+ *
+ * <p><strong>Complexity:</strong> Time <code>O(n)</code> for any set of queries; space
+ * <code>O(w)</code> for the frontier plus <code>O(n)</code> per requested level list and
+ * <code>O(h)</code> for the right side view.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * var result = FusedLevelQueries.run(root, EnumSet.of(Query.MAX_LEVEL_SUM, Query.RIGHT_SIDE_VIEW));
+ * int level = result.maxLevelSum();
+ * int[] view = result.rightSideView();
+ * }</pre>
+ */
+public final class FusedLevelQueries {
+
+  public enum Query {
+    MAX_LEVEL_SUM,
+    RIGHT_SIDE_VIEW,
+    BOTTOM_LEFT_VALUE,
+    LEVEL_ORDER,
+    ZIGZAG_LEVEL_ORDER
+  }
+
+  private FusedLevelQueries() {
+  }
+
+  public static Result run(TreeNode root, Set<Query> queries) {
+    final var collector = new Collector(queries, 16);
+    new LevelOrderTraversal().levelOrder(root, collector);
+    return collector.result();
+  }
+
+  /** {@link FlatTree} flavour; level lists are presized to the node count. */
+  public static Result run(FlatTree tree, Set<Query> queries) {
+    final var collector = new Collector(queries, tree.size);
+    new LevelOrderTraversal().levelOrder(tree, collector);
+    return collector.result();
+  }
+
+  /** Any {@link IndexedTree}, e.g. a {@link com.amit.cs.common.MappedTree} queried in place. */
+  public static Result run(IndexedTree tree, Set<Query> queries) {
+    final var collector = new Collector(queries, tree.size());
+    new LevelOrderTraversal().levelOrder(tree, collector);
+    return collector.result();
+  }
+
+  /**
+   * Answers of one fused traversal. Arrays and level lists are owned by the result and not copied by
+   * the accessors.
+   */
+  public static final class Result {
+    private final Set<Query> queries;
+    private final int levels;
+    private final int maxLevelSum;
+    private final int bottomLeftValue;
+    private final int[] rightSideView;
+    private final RaggedIntArray levelOrder;
+    private final RaggedIntArray zigzagLevelOrder;
+
+    private Result(Set<Query> queries, int levels, int maxLevelSum, int bottomLeftValue, int[] rightSideView,
+                   RaggedIntArray levelOrder, RaggedIntArray zigzagLevelOrder) {
+      this.queries = queries;
+      this.levels = levels;
+      this.maxLevelSum = maxLevelSum;
+      this.bottomLeftValue = bottomLeftValue;
+      this.rightSideView = rightSideView;
+      this.levelOrder = levelOrder;
+      this.zigzagLevelOrder = zigzagLevelOrder;
+    }
+
+    public Set<Query> queries() {
+      return queries;
+    }
+
+    /** Number of levels, i.e. the height of the tree; always available. */
+    public int levels() {
+      return levels;
+    }
+
+    /** 1-based level with the largest sum, the first one on ties; 0 for an empty tree. */
+    public int maxLevelSum() {
+      require(Query.MAX_LEVEL_SUM);
+      return maxLevelSum;
+    }
+
+    /** Rightmost value of every level, top to bottom. */
+    public int[] rightSideView() {
+      require(Query.RIGHT_SIDE_VIEW);
+      return rightSideView;
+    }
+
+    /**
+     * Leftmost value of the last level.
+     *
+     * @throws NoSuchElementException if the tree is empty
+     */
+    public int bottomLeftValue() {
+      require(Query.BOTTOM_LEFT_VALUE);
+      if (levels == 0) throw new NoSuchElementException("empty tree has no bottom-left value");
+      return bottomLeftValue;
+    }
+
+    public RaggedIntArray levelOrder() {
+      require(Query.LEVEL_ORDER);
+      return levelOrder;
+    }
+
+    public RaggedIntArray zigzagLevelOrder() {
+      require(Query.ZIGZAG_LEVEL_ORDER);
+      return zigzagLevelOrder;
+    }
+
+    private void require(Query query) {
+      if (!queries.contains(query)) throw new IllegalStateException(query + " was not requested");
+    }
+  }
+
+  /** The per-level bookkeeping of all five queries behind one visitor. */
+  private static final class Collector implements LevelVisitor {
+    private final Set<Query> queries;
+    private final boolean maxSum;
+    private final boolean rightSide;
+    private final RaggedIntArray.Builder levels;
+    private final RaggedIntArray.Builder zigzag;
+
+    private int depth;
+    private int first;
+    private int last;
+    private int position;
+    private int sum;
+    private int bestSum = Integer.MIN_VALUE;
+    private int bestLevel;
+    private int bottomLeft;
+    private int[] view = new int[16];
+
+    Collector(Set<Query> queries, int expectedValues) {
+      this.queries = queries.isEmpty() ? EnumSet.noneOf(Query.class) : EnumSet.copyOf(queries);
+      maxSum = this.queries.contains(Query.MAX_LEVEL_SUM);
+      rightSide = this.queries.contains(Query.RIGHT_SIDE_VIEW);
+      levels = this.queries.contains(Query.LEVEL_ORDER) ? new RaggedIntArray.Builder(expectedValues, 16) : null;
+      zigzag = this.queries.contains(Query.ZIGZAG_LEVEL_ORDER)
+        ? new RaggedIntArray.Builder(expectedValues, 16) : null;
+    }
+
+    @Override
+    public void beginLevel(int depth, int width) {
+      this.depth = depth + 1;
+      position = 0;
+      sum = 0;
+    }
+
+    @Override
+    public void value(int value) {
+      if (position++ == 0) first = value;
+      last = value;
+      sum += value;
+      if (levels != null) levels.add(value);
+      if (zigzag != null) zigzag.add(value);
+    }
+
+    @Override
+    public void endLevel() {
+      bottomLeft = first;
+      if (maxSum && sum > bestSum) {
+        bestSum = sum;
+        bestLevel = depth;
+      }
+      if (rightSide) {
+        if (depth > view.length) view = Arrays.copyOf(view, view.length << 1);
+        view[depth - 1] = last;
+      }
+      if (levels != null) levels.endRow();
+      if (zigzag != null) {
+        if ((depth & 1) == 0) zigzag.reverseCurrentRow();
+        zigzag.endRow();
+      }
+    }
+
+    Result result() {
+      return new Result(queries, depth, bestLevel, bottomLeft,
+        rightSide ? Arrays.copyOf(view, depth) : null,
+        levels == null ? null : levels.build(),
+        zigzag == null ? null : zigzag.build());
+    }
+  }
+}
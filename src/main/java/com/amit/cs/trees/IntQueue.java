@@ -0,0 +1,82 @@
+package com.amit.cs.trees;
+
+/**
+ * Ring-buffer deque of primitive {@code int}s: node indexes for the {@link com.amit.cs.common.FlatTree}
+ * traversals, or per-node side data (such as a horizontal distance) kept in step with a
+ * {@link NodeQueue}. Same power-of-two growth and thread confinement as {@link NodeQueue}.
+ */
+final class IntQueue {
+  private int[] values;
+  private int head;
+  private int size;
+  /** Largest size since the last {@link #clear(int)}. */
+  private int peak;
+
+  IntQueue() {
+    this(16);
+  }
+
+  IntQueue(int capacity) {
+    values = new int[BfsQueues.capacityFor(capacity)];
+  }
+
+  void ensureCapacity(int capacity) {
+    if (capacity > values.length) resize(BfsQueues.capacityFor(capacity));
+  }
+
+  void offerLast(int value) {
+    if (size == values.length) resize(size << 1);
+    values[(head + size) & (values.length - 1)] = value;
+    if (++size > peak) peak = size;
+  }
+
+  void offerFirst(int value) {
+    if (size == values.length) resize(size << 1);
+    head = (head - 1) & (values.length - 1);
+    values[head] = value;
+    if (++size > peak) peak = size;
+  }
+
+  int pollFirst() {
+    final var value = values[head];
+    head = (head + 1) & (values.length - 1);
+    size--;
+    return value;
+  }
+
+  int pollLast() {
+    size--;
+    return values[(head + size) & (values.length - 1)];
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return values.length;
+  }
+
+  /** Empties the queue; an oversized buffer is dropped lazily, as in {@link NodeQueue#clear(int)}. */
+  void clear(int maxCapacity) {
+    if (values.length > maxCapacity && peak <= maxCapacity) {
+      values = new int[BfsQueues.capacityFor(Math.max(peak, 16))];
+    }
+    head = 0;
+    size = 0;
+    peak = 0;
+  }
+
+  private void resize(int capacity) {
+    final var grown = new int[capacity];
+    final var firstRun = Math.min(size, values.length - head);
+    System.arraycopy(values, head, grown, 0, firstRun);
+    System.arraycopy(values, 0, grown, firstRun, size - firstRun);
+    values = grown;
+    head = 0;
+  }
+}
@@ -0,0 +1,45 @@
+package com.amit.cs.trees;
+
+import java.util.Arrays;
+
+/**
+ * Growable LIFO of primitive {@code int}s: partial results (heights, gains, path numbers) of the
+ * iterative traversals live here instead of in recursive stack frames, with no boxing.
+ */
+final class IntStack {
+  private int[] values;
+  private int size;
+
+  IntStack() {
+    this(64);
+  }
+
+  IntStack(int capacity) {
+    values = new int[Math.max(capacity, 1)];
+  }
+
+  void push(int value) {
+    if (size == values.length) values = Arrays.copyOf(values, size << 1);
+    values[size++] = value;
+  }
+
+  int pop() {
+    return values[--size];
+  }
+
+  int peek() {
+    return values[size - 1];
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    size = 0;
+  }
+}
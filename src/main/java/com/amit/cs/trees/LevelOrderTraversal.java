@@ -1,10 +1,14 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.OffHeapTree;
+import com.amit.cs.common.RaggedIntArray;
 import com.amit.cs.common.TreeNode;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Performs a breadth-first (level-order) traversal of a binary tree.
@@ -19,6 +23,13 @@ import java.util.List;
  * <p><strong>Return shape:</strong> A list of levels, where each inner list contains the values
  * of the nodes at that level in left-to-right order.</p>
  *
+ * <p><strong>Streaming:</strong> {@link #levelOrder(TreeNode, LevelVisitor)} pushes the same levels to a
+ * {@link LevelVisitor} as they are dequeued, so callers that consume one level at a time need only the
+ * queue in memory; the list-returning methods are collectors on top of it.</p>
+ *
+ * <p><strong>Queue:</strong> the BFS runs on a per-thread pooled ring buffer ({@code BfsQueues}), so once
+ * it has grown to the widest level seen, repeated traversals allocate nothing but their results.</p>
+ *
  * <p><strong>Complexity:</strong>
  * Time <code>O(n)</code> where <code>n</code> is the number of nodes;
  * Space <code>O(w)</code> where <code>w</code> is the maximum width of the tree (queue size).</p>
@@ -38,35 +49,50 @@ import java.util.List;
  * }</pre>
  *
  * @see #levelOrder(TreeNode)
- * @see java.util.ArrayDeque
  */
 public class LevelOrderTraversal {
 
   public List<List<Integer>> levelOrderUsingSizeVariable(TreeNode root) {
-    final var result = new ArrayList<List<Integer>>();
+    final var result = new ListCollector();
+    levelOrder(root, result);
+    return result.levels;
+  }
 
+  /**
+   * Push-based form of {@link #levelOrderUsingSizeVariable(TreeNode)}: the same size-variable BFS, but
+   * each level is streamed to {@code visitor} as it is dequeued instead of being collected. Only the
+   * BFS frontier is resident and values are passed as primitives, so consumers that write or aggregate
+   * level by level never hold the whole result.
+   */
+  public void levelOrder(TreeNode root, LevelVisitor visitor) {
     if (root == null) {
-      return result;
+      return;
     }
 
-    final var queue = new ArrayDeque<TreeNode>();
-    queue.add(root);
+    final var probe = TraversalMetrics.probe(LevelOrderTraversal.class, "levelOrder");
+    final var queue = BfsQueues.nodeQueue();
+    try {
+      queue.offerLast(root);
 
-    while (!queue.isEmpty()) {
-      final var level = new ArrayList<Integer>();
-      final var levelSize = queue.size();
+      int depth = 0;
+      while (!queue.isEmpty()) {
+        final var levelSize = queue.size();
+        if (probe != null) probe.level(levelSize);
+        visitor.beginLevel(depth++, levelSize);
 
-      for (int i = 0; i < levelSize; i++) {
-        final var node = queue.poll();
-        level.add(node.val);
+        for (int i = 0; i < levelSize; i++) {
+          final var node = queue.pollFirst();
+          visitor.value(node.val);
 
-        if (node.left != null) queue.offer(node.left);
-        if (node.right != null) queue.offer(node.right);
+          if (node.left != null) queue.offerLast(node.left);
+          if (node.right != null) queue.offerLast(node.right);
+        }
+        visitor.endLevel();
       }
-      result.add(level);
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
     }
-
-    return result;
   }
 
   public List<List<Integer>> levelOrder(TreeNode root) {
@@ -76,26 +102,242 @@ public class LevelOrderTraversal {
       return result;
     }
 
-    final var queue = new ArrayDeque<TreeNode>();
-    queue.add(root);
+    final var probe = TraversalMetrics.probe(LevelOrderTraversal.class, "levelOrderStream");
+    final var queue = BfsQueues.nodeQueue();
+    try {
+      queue.offerLast(root);
+
+      while (!queue.isEmpty()) {
+        if (probe != null) probe.level(queue.size());
+        final var level = new ArrayList<TreeNode>();
+        while (!queue.isEmpty()) {
+          final var node = queue.pollFirst();
+          level.add(node);
+        }
+
+        final var l = level.stream().peek(node -> {
+            if (node.left != null) queue.offerLast(node.left);
+            if (node.right != null) queue.offerLast(node.right);
+          })
+          .map(node -> node.val)
+          .toList();
+        result.add(l);
+      }
+
+      return result;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same traversal over a {@link FlatTree}; see {@link #levelOrder(FlatTree, LevelVisitor)}.
+   */
+  public List<List<Integer>> levelOrder(FlatTree tree) {
+    final var result = new ListCollector();
+    levelOrder(tree, result);
+    return result.levels;
+  }
+
+  /**
+   * Push-based traversal over a {@link FlatTree}, with node indexes in the pooled {@link IntQueue}.
+   */
+  public void levelOrder(FlatTree tree, LevelVisitor visitor) {
+    levelOrder(tree, visitor, "levelOrderFlat");
+  }
+
+  /**
+   * Level order returned as a {@link RaggedIntArray}: the size-variable BFS of
+   * {@link #levelOrder(TreeNode, LevelVisitor)}, writing values into one primitive buffer and closing
+   * a row per level instead of allocating an {@code ArrayList<Integer>} per level.
+   */
+  public RaggedIntArray levelOrderCompact(TreeNode root) {
+    final var result = new CompactCollector(new RaggedIntArray.Builder());
+    levelOrder(root, result);
+    return result.rows.build();
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #levelOrderCompact(TreeNode)}; the value buffer is presized
+   * to the node count, so it is handed over without a final copy.
+   */
+  public RaggedIntArray levelOrderCompact(FlatTree tree) {
+    final var result = new CompactCollector(new RaggedIntArray.Builder(tree.size, 16));
+    levelOrder(tree, result);
+    return result.rows.build();
+  }
+
+  /**
+   * Same traversal over any {@link IndexedTree}; see {@link #levelOrder(IndexedTree, LevelVisitor)}.
+   */
+  public List<List<Integer>> levelOrder(IndexedTree tree) {
+    final var result = new ListCollector();
+    levelOrder(tree, result);
+    return result.levels;
+  }
+
+  /**
+   * Push-based traversal over any {@link IndexedTree}, e.g. a {@link com.amit.cs.common.MappedTree}
+   * queried in place: nodes are read through the interface and only the frontier is on the heap.
+   */
+  public void levelOrder(IndexedTree tree, LevelVisitor visitor) {
+    levelOrder(tree, visitor, "levelOrderIndexed");
+  }
+
+  /**
+   * The index-based BFS behind the {@link FlatTree} and {@link IndexedTree} overloads, recorded under
+   * {@code method}. A call site that only sees one or two implementations is inlined by the JIT, so
+   * reading a {@link FlatTree} through the interface costs about as much as reading its arrays.
+   */
+  private static void levelOrder(IndexedTree tree, LevelVisitor visitor, String method) {
+    if (tree.isEmpty()) {
+      return;
+    }
+
+    final var probe = TraversalMetrics.probe(LevelOrderTraversal.class, method);
+    final var queue = BfsQueues.intQueue();
+    try {
+      queue.offerLast(tree.root());
+
+      int depth = 0;
+      while (!queue.isEmpty()) {
+        final var levelSize = queue.size();
+        if (probe != null) probe.level(levelSize);
+        visitor.beginLevel(depth++, levelSize);
+
+        for (int i = 0; i < levelSize; i++) {
+          final var node = queue.pollFirst();
+          visitor.value(tree.val(node));
+
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != FlatTree.NIL) queue.offerLast(left);
+          if (right != FlatTree.NIL) queue.offerLast(right);
+        }
+        visitor.endLevel();
+      }
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * {@link IndexedTree} flavour of {@link #levelOrderCompact(FlatTree)}.
+   */
+  public RaggedIntArray levelOrderCompact(IndexedTree tree) {
+    final var result = new CompactCollector(new RaggedIntArray.Builder(tree.size(), 16));
+    levelOrder(tree, result);
+    return result.rows.build();
+  }
+
+  /**
+   * Push-based traversal over an {@link OffHeapTree}. Trees of this size are meant to be streamed
+   * rather than collected, so there is no list-returning flavour; only the BFS frontier, in the pooled
+   * {@link LongQueue}, is on the heap. Its own loop, since {@code long} node indexes do not fit
+   * {@link IndexedTree}.
+   */
+  public void levelOrder(OffHeapTree tree, LevelVisitor visitor) {
+    if (tree.isEmpty()) {
+      return;
+    }
+
+    final var probe = TraversalMetrics.probe(LevelOrderTraversal.class, "levelOrderOffHeap");
+    final var queue = BfsQueues.longQueue();
+    try {
+      queue.offerLast(tree.root());
 
-    while (!queue.isEmpty()) {
-      final var level = new ArrayList<TreeNode>();
+      int depth = 0;
       while (!queue.isEmpty()) {
-        final var node = queue.poll();
-        level.add(node);
+        final var levelSize = queue.size();
+        if (probe != null) probe.level(levelSize);
+        visitor.beginLevel(depth++, levelSize);
+
+        for (int i = 0; i < levelSize; i++) {
+          final var node = queue.pollFirst();
+          visitor.value(tree.val(node));
+
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != OffHeapTree.NIL) queue.offerLast(left);
+          if (right != OffHeapTree.NIL) queue.offerLast(right);
+        }
+        visitor.endLevel();
       }
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Level order on the common pool; see {@link #levelOrderCompactParallel(TreeNode, ForkJoinPool)}.
+   */
+  public RaggedIntArray levelOrderCompactParallel(TreeNode root) {
+    return levelOrderCompactParallel(root, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Level-synchronous parallel BFS for wide trees: every level at least {@link ParallelLevelBfs#GRAIN}
+   * nodes wide is split across {@code pool}'s workers, which write values and the next frontier into
+   * disjoint, prefix-summed ranges. The result is identical to {@link #levelOrderCompact(TreeNode)}.
+   */
+  public RaggedIntArray levelOrderCompactParallel(TreeNode root, ForkJoinPool pool) {
+    return ParallelLevelBfs.run(new ParallelLevelBfs.NodeFrontier(root), true, false, 16, pool).rows;
+  }
 
-      final var l = level.stream().peek(node -> {
-          if (node.left != null) queue.offer(node.left);
-          if (node.right != null) queue.offer(node.right);
-        })
-        .map(node -> node.val)
-        .toList();
-      result.add(l);
+  /**
+   * {@link FlatTree} flavour of {@link #levelOrderCompactParallel(TreeNode)} on the common pool.
+   */
+  public RaggedIntArray levelOrderCompactParallel(FlatTree tree) {
+    return levelOrderCompactParallel(tree, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #levelOrderCompactParallel(TreeNode, ForkJoinPool)}; the value
+   * buffer is presized to the node count.
+   */
+  public RaggedIntArray levelOrderCompactParallel(FlatTree tree, ForkJoinPool pool) {
+    return ParallelLevelBfs.run(new ParallelLevelBfs.FlatFrontier(tree), true, false, tree.size, pool).rows;
+  }
+
+  private static final class ListCollector implements LevelVisitor {
+    final List<List<Integer>> levels = new ArrayList<>();
+    private List<Integer> level;
+
+    @Override
+    public void beginLevel(int depth, int width) {
+      level = new ArrayList<>(width);
+    }
+
+    @Override
+    public void value(int value) {
+      level.add(value);
+    }
+
+    @Override
+    public void endLevel() {
+      levels.add(level);
+    }
+  }
+
+  private static final class CompactCollector implements LevelVisitor {
+    final RaggedIntArray.Builder rows;
+
+    CompactCollector(RaggedIntArray.Builder rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public void value(int value) {
+      rows.add(value);
     }
 
-    return result;
+    @Override
+    public void endLevel() {
+      rows.endRow();
+    }
   }
 
 }
@@ -0,0 +1,32 @@
+package com.amit.cs.trees;
+
+/**
+ * Receives a level-order traversal as a stream of events instead of a materialized
+ * {@code List<List<Integer>>}.
+ *
+ * <p><strong>Event order:</strong> for every level, top to bottom,
+ * {@code beginLevel(depth, width)} is followed by exactly {@code width} calls to {@link #value(int)}
+ * in left-to-right order and then by {@link #endLevel()}. Depth starts at 0 for the root. An empty
+ * tree produces no events.</p>
+ *
+ * <p><strong>Example:</strong></p>
+ * <pre>{@code
+ * // Tree [1, 2, 3]:
+ * // beginLevel(0, 1) value(1) endLevel()
+ * // beginLevel(1, 2) value(2) value(3) endLevel()
+ * }</pre>
+ *
+ * @see LevelOrderTraversal#levelOrder(com.amit.cs.common.TreeNode, LevelVisitor)
+ */
+public interface LevelVisitor {
+
+  /** Called before the first value of a level; {@code width} is the number of values that follow. */
+  default void beginLevel(int depth, int width) {
+  }
+
+  void value(int value);
+
+  /** Called after the last value of a level. */
+  default void endLevel() {
+  }
+}
@@ -0,0 +1,82 @@
+package com.amit.cs.trees;
+
+/**
+ * Ring-buffer deque of primitive {@code long}s: node indexes for the
+ * {@link com.amit.cs.common.OffHeapTree} traversals. Same power-of-two growth and thread confinement as
+ * {@link NodeQueue}.
+ */
+final class LongQueue {
+  private long[] values;
+  private int head;
+  private int size;
+  /** Largest size since the last {@link #clear(int)}. */
+  private int peak;
+
+  LongQueue() {
+    this(16);
+  }
+
+  LongQueue(int capacity) {
+    values = new long[BfsQueues.capacityFor(capacity)];
+  }
+
+  void ensureCapacity(int capacity) {
+    if (capacity > values.length) resize(BfsQueues.capacityFor(capacity));
+  }
+
+  void offerLast(long value) {
+    if (size == values.length) resize(size << 1);
+    values[(head + size) & (values.length - 1)] = value;
+    if (++size > peak) peak = size;
+  }
+
+  void offerFirst(long value) {
+    if (size == values.length) resize(size << 1);
+    head = (head - 1) & (values.length - 1);
+    values[head] = value;
+    if (++size > peak) peak = size;
+  }
+
+  long pollFirst() {
+    final var value = values[head];
+    head = (head + 1) & (values.length - 1);
+    size--;
+    return value;
+  }
+
+  long pollLast() {
+    size--;
+    return values[(head + size) & (values.length - 1)];
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return values.length;
+  }
+
+  /** Empties the queue; an oversized buffer is dropped lazily, as in {@link NodeQueue#clear(int)}. */
+  void clear(int maxCapacity) {
+    if (values.length > maxCapacity && peak <= maxCapacity) {
+      values = new long[BfsQueues.capacityFor(Math.max(peak, 16))];
+    }
+    head = 0;
+    size = 0;
+    peak = 0;
+  }
+
+  private void resize(int capacity) {
+    final var grown = new long[capacity];
+    final var firstRun = Math.min(size, values.length - head);
+    System.arraycopy(values, head, grown, 0, firstRun);
+    System.arraycopy(values, 0, grown, firstRun, size - firstRun);
+    values = grown;
+    head = 0;
+  }
+}
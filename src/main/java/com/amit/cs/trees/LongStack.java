@@ -0,0 +1,45 @@
+package com.amit.cs.trees;
+
+import java.util.Arrays;
+
+/**
+ * Growable LIFO of primitive {@code long}s: node indexes of an {@link com.amit.cs.common.OffHeapTree}, or
+ * partial results too large for an {@code int}, with no boxing.
+ */
+final class LongStack {
+  private long[] values;
+  private int size;
+
+  LongStack() {
+    this(64);
+  }
+
+  LongStack(int capacity) {
+    values = new long[Math.max(capacity, 1)];
+  }
+
+  void push(long value) {
+    if (size == values.length) values = Arrays.copyOf(values, size << 1);
+    values[size++] = value;
+  }
+
+  long pop() {
+    return values[--size];
+  }
+
+  long peek() {
+    return values[size - 1];
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    size = 0;
+  }
+}
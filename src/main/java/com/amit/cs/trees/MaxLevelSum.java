@@ -1,8 +1,12 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.LevelLayout;
+import com.amit.cs.common.OffHeapTree;
 import com.amit.cs.common.TreeNode;
 
-import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Determines the level in a binary tree with the maximum sum of node values.
@@ -45,25 +49,195 @@ public class MaxLevelSum {
     int maxLevel = 0;
     int level = 0;
 
-    final var queue = new ArrayDeque<TreeNode>();
-    queue.add(root);
-
-    while (!queue.isEmpty()) {
-      level++;
-      final var size = queue.size();
-      int levelSum = 0;
-      for (int i = 0; i < size; i++) {
-        final var node = queue.pollFirst();
-        levelSum += node.val;
-        if (node.left != null) queue.add(node.left);
-        if (node.right != null) queue.add(node.right);
+    final var probe = TraversalMetrics.probe(MaxLevelSum.class, "maxLevelSum");
+    final var queue = BfsQueues.nodeQueue();
+    try {
+      queue.offerLast(root);
+
+      while (!queue.isEmpty()) {
+        level++;
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        int levelSum = 0;
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          levelSum += node.val;
+          if (node.left != null) queue.offerLast(node.left);
+          if (node.right != null) queue.offerLast(node.right);
+        }
+
+        if (levelSum > maxLevelSum) {
+          maxLevelSum = levelSum;
+          maxLevel = level;
+        }
       }
+      return maxLevel;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same computation over a {@link FlatTree}, using the pooled {@link IntQueue} of node indexes; runs
+   * the {@link IndexedTree} loop, see {@link #maxLevelSum(IndexedTree)}.
+   */
+  public int maxLevelSum(FlatTree tree) {
+    return maxLevelSum(tree, "maxLevelSumFlat");
+  }
 
+  /**
+   * Same computation over a {@link LevelLayout}: every level is one contiguous slice of values, so
+   * its sum is a single reduction by {@link SumKernels}, vectorized when the Vector API module is
+   * present. Ties keep the smallest level, as in the BFS versions.
+   */
+  public int maxLevelSum(LevelLayout layout) {
+    if (layout.isEmpty()) return 0;
+
+    final var kernels = SumKernels.INSTANCE;
+    int maxLevelSum = Integer.MIN_VALUE;
+    int maxLevel = 0;
+    for (int level = 0; level < layout.levels(); level++) {
+      final var levelSum = kernels.sum(layout.val, layout.levelOffsets[level], layout.levelOffsets[level + 1]);
       if (levelSum > maxLevelSum) {
         maxLevelSum = levelSum;
-        maxLevel = level;
+        maxLevel = level + 1;
       }
     }
     return maxLevel;
   }
+
+  /** Sum of every level of a {@link LevelLayout}, root level first. */
+  public int[] levelSums(LevelLayout layout) {
+    final var kernels = SumKernels.INSTANCE;
+    final var sums = new int[layout.levels()];
+    for (int level = 0; level < sums.length; level++) {
+      sums[level] = kernels.sum(layout.val, layout.levelOffsets[level], layout.levelOffsets[level + 1]);
+    }
+    return sums;
+  }
+
+  /**
+   * Same computation over any {@link IndexedTree}, e.g. a {@link com.amit.cs.common.MappedTree}
+   * queried in place; only the BFS frontier is held on the heap.
+   */
+  public int maxLevelSum(IndexedTree tree) {
+    return maxLevelSum(tree, "maxLevelSumIndexed");
+  }
+
+  /**
+   * The index-based BFS behind the {@link FlatTree} and {@link IndexedTree} overloads, recorded under
+   * {@code method}. A call site that only sees one or two implementations is inlined by the JIT, so
+   * reading a {@link FlatTree} through the interface costs about as much as reading its arrays.
+   */
+  private static int maxLevelSum(IndexedTree tree, String method) {
+    if (tree.isEmpty()) return 0;
+
+    int maxLevelSum = Integer.MIN_VALUE;
+    int maxLevel = 0;
+    int level = 0;
+
+    final var probe = TraversalMetrics.probe(MaxLevelSum.class, method);
+    final var queue = BfsQueues.intQueue();
+    try {
+      queue.offerLast(tree.root());
+
+      while (!queue.isEmpty()) {
+        level++;
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        int levelSum = 0;
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          levelSum += tree.val(node);
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != FlatTree.NIL) queue.offerLast(left);
+          if (right != FlatTree.NIL) queue.offerLast(right);
+        }
+
+        if (levelSum > maxLevelSum) {
+          maxLevelSum = levelSum;
+          maxLevel = level;
+        }
+      }
+      return maxLevel;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same computation over an {@link OffHeapTree}; node indexes go through the pooled {@link LongQueue},
+   * so the heap only holds the BFS frontier. Its own loop, since {@code long} node indexes do not fit
+   * {@link IndexedTree}.
+   */
+  public int maxLevelSum(OffHeapTree tree) {
+    if (tree.isEmpty()) return 0;
+
+    int maxLevelSum = Integer.MIN_VALUE;
+    int maxLevel = 0;
+    int level = 0;
+
+    final var probe = TraversalMetrics.probe(MaxLevelSum.class, "maxLevelSumOffHeap");
+    final var queue = BfsQueues.longQueue();
+    try {
+      queue.offerLast(tree.root());
+
+      while (!queue.isEmpty()) {
+        level++;
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        int levelSum = 0;
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          levelSum += tree.val(node);
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != OffHeapTree.NIL) queue.offerLast(left);
+          if (right != OffHeapTree.NIL) queue.offerLast(right);
+        }
+
+        if (levelSum > maxLevelSum) {
+          maxLevelSum = levelSum;
+          maxLevel = level;
+        }
+      }
+      return maxLevel;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Parallel version on the common pool; see {@link #maxLevelSumParallel(TreeNode, ForkJoinPool)}.
+   */
+  public int maxLevelSumParallel(TreeNode root) {
+    return maxLevelSumParallel(root, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Level-synchronous parallel BFS for wide trees: each wide level is split across {@code pool}'s
+   * workers, which return per-chunk sums that are added in chunk order, so the answer is the same as
+   * {@link #maxLevelSum(TreeNode)}, including {@code int} overflow. No values are collected.
+   */
+  public int maxLevelSumParallel(TreeNode root, ForkJoinPool pool) {
+    return ParallelLevelBfs.run(new ParallelLevelBfs.NodeFrontier(root), false, false, 0, pool).maxSumLevel();
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #maxLevelSumParallel(TreeNode)} on the common pool.
+   */
+  public int maxLevelSumParallel(FlatTree tree) {
+    return maxLevelSumParallel(tree, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #maxLevelSumParallel(TreeNode, ForkJoinPool)}.
+   */
+  public int maxLevelSumParallel(FlatTree tree, ForkJoinPool pool) {
+    return ParallelLevelBfs.run(new ParallelLevelBfs.FlatFrontier(tree), false, false, 0, pool).maxSumLevel();
+  }
 }
@@ -1,7 +1,14 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.OffHeapTree;
+import com.amit.cs.common.SubtreeDag;
 import com.amit.cs.common.TreeNode;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * This class provides methods to compute the maximum path sum in a binary tree.
  * The path can start and end at any node in the tree.
@@ -9,25 +16,24 @@ import com.amit.cs.common.TreeNode;
  * URL: https://leetcode.com/problems/binary-tree-maximum-path-sum/description/
  *
  * Key details:
- * - The class maintains an internal state (`MAX`) to keep track of the maximum path sum
- *   encountered during the traversal of the tree.
- * - A helper method `wrapper` is used to recursively calculate the maximum path sum for any
- *   given node by considering the contributions of its left and right subtrees.
+ * - A recursive helper returns, for every subtree, both the maximum path sum found inside it
+ *   and the best branch it can offer its parent, packed into a single `long`.
+ * - No state is kept between calls, so one instance can be reused and shared across threads.
+ *   The legacy `wrapper` method still accumulates into the instance field `MAX` and is
+ *   deprecated for that reason.
  *
  * How it works:
- * - The `maxPathSum` method initializes the process and delegates the computation to the
- *   helper method `wrapper`.
- * - The `wrapper` method computes the maximum sum branch that can be formed from the left
+ * - The `maxPathSum` method delegates the computation to the recursive helper.
+ * - The helper computes the maximum sum branch that can be formed from the left
  *   and right subtrees of a node while ensuring each subtree's contribution is non-negative.
  * - At each node, the method calculates the potential contribution of the node by summing
  *   its value with the contributions from its left and right subtrees. This value is
- *   compared against the globally tracked `MAX` to update if it's larger.
+ *   compared against the best sums returned by its subtrees.
  * - The method then returns the maximum contribution a node can give to its parent node,
  *   which is its value plus the maximum of its left and right subtree contributions.
  *
  * Edge cases:
- * - If the tree is null or empty, the method accounts for that internally when `wrapper`
- *   encounters a null node.
+ * - If the tree is null or empty, the method returns {@code Integer.MIN_VALUE}.
  * - If the tree contains only one node, the maximum path sum is the value of that single node.
  *
  * Return value:
@@ -43,6 +49,14 @@ import com.amit.cs.common.TreeNode;
 public class MaxPathSum {
   private int MAX = Integer.MIN_VALUE;
 
+  /**
+   * Best branch sum starting at {@code root}, folding every path sum it sees into the instance
+   * field {@code MAX}.
+   *
+   * @deprecated the field is never reset, so an instance that called this cannot be reused or shared;
+   * use {@link #maxPathSum(TreeNode)}, which keeps its accumulator on the call stack.
+   */
+  @Deprecated
   public int wrapper(TreeNode root) {
     if (root == null)
       return 0;
@@ -55,9 +69,257 @@ public class MaxPathSum {
     return root.val + Math.max(ls, rs);
   }
 
+  /**
+   * Stateless and reentrant: the running maximum travels up with each branch gain instead of living
+   * in a field, so a single shared instance can serve concurrent callers without synchronization.
+   */
   public int maxPathSum(TreeNode root) {
-    wrapper(root);
-    return MAX;
+    return (int) (maxAndGain(root) >> 32);
+  }
+
+  /**
+   * Returns the best path sum inside {@code root} in the high 32 bits and the best downward branch
+   * from {@code root} in the low 32 bits. Packing both into a {@code long} keeps the recursion
+   * allocation-free.
+   */
+  private static long maxAndGain(TreeNode root) {
+    if (root == null)
+      return EMPTY;
+
+    return combine(root.val, maxAndGain(root.left), maxAndGain(root.right));
+  }
+
+  /** Packed result of an empty subtree: no path inside it, and a branch gain of 0. */
+  private static final long EMPTY = (long) Integer.MIN_VALUE << 32;
+
+  /**
+   * Packed result of a node with value {@code val} from the packed results of its two subtrees.
+   */
+  private static long combine(int val, long l, long r) {
+    final var ls = Math.max((int) l, 0);
+    final var rs = Math.max((int) r, 0);
+
+    final var max = Math.max(ls + rs + val, Math.max((int) (l >> 32), (int) (r >> 32)));
+
+    return (long) max << 32 | ((val + Math.max(ls, rs)) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Same computation over a {@link FlatTree}. A backward scan over the arrays visits children before
+   * parents, so each node's best downward gain is read from an {@code int[]} instead of a recursive call.
+   */
+  public int maxPathSum(FlatTree tree) {
+    final var gain = new int[tree.size];
+    int max = Integer.MIN_VALUE;
+
+    for (int i = tree.size - 1; i >= 0; i--) {
+      final var ls = tree.left[i] == FlatTree.NIL ? 0 : Math.max(gain[tree.left[i]], 0);
+      final var rs = tree.right[i] == FlatTree.NIL ? 0 : Math.max(gain[tree.right[i]], 0);
+
+      max = Math.max(max, ls + rs + tree.val[i]);
+
+      gain[i] = tree.val[i] + Math.max(ls, rs);
+    }
+    return max;
+  }
+
+  /**
+   * Max path sum over any {@link IndexedTree}, e.g. a {@link com.amit.cs.common.MappedTree} queried in
+   * place. Unlike {@link #maxPathSum(FlatTree)} it keeps no per-node {@code gain[]}: a post-order on
+   * an {@link IntStack} of node indexes (a finished node is re-pushed as {@code ~node}) hands each
+   * child's gain to its parent through a second {@link IntStack}, so the heap holds <code>O(h)</code>
+   * ints however large the tree is.
+   */
+  public int maxPathSum(IndexedTree tree) {
+    if (tree.isEmpty()) return Integer.MIN_VALUE;
+
+    final var pending = new IntStack();
+    final var gains = new IntStack();
+    int max = Integer.MIN_VALUE;
+    pending.push(tree.root());
+
+    while (!pending.isEmpty()) {
+      final var entry = pending.pop();
+      if (entry >= 0) {
+        pending.push(~entry);
+        if (tree.right(entry) != FlatTree.NIL) pending.push(tree.right(entry));
+        if (tree.left(entry) != FlatTree.NIL) pending.push(tree.left(entry));
+        continue;
+      }
+
+      final var node = ~entry;
+      final var rs = tree.right(node) == FlatTree.NIL ? 0 : Math.max(gains.pop(), 0);
+      final var ls = tree.left(node) == FlatTree.NIL ? 0 : Math.max(gains.pop(), 0);
+      final var val = tree.val(node);
+
+      max = Math.max(max, ls + rs + val);
+
+      gains.push(val + Math.max(ls, rs));
+    }
+    return max;
+  }
+
+  /**
+   * {@link OffHeapTree} flavour of {@link #maxPathSum(IndexedTree)}: the same <code>O(h)</code>
+   * post-order, with node indexes on a {@link LongStack}.
+   */
+  public int maxPathSum(OffHeapTree tree) {
+    if (tree.isEmpty()) return Integer.MIN_VALUE;
+
+    final var pending = new LongStack();
+    final var gains = new IntStack();
+    int max = Integer.MIN_VALUE;
+    pending.push(tree.root());
+
+    while (!pending.isEmpty()) {
+      final var entry = pending.pop();
+      if (entry >= 0) {
+        pending.push(~entry);
+        if (tree.right(entry) != OffHeapTree.NIL) pending.push(tree.right(entry));
+        if (tree.left(entry) != OffHeapTree.NIL) pending.push(tree.left(entry));
+        continue;
+      }
+
+      final var node = ~entry;
+      final var rs = tree.right(node) == OffHeapTree.NIL ? 0 : Math.max(gains.pop(), 0);
+      final var ls = tree.left(node) == OffHeapTree.NIL ? 0 : Math.max(gains.pop(), 0);
+      final var val = tree.val(node);
+
+      max = Math.max(max, ls + rs + val);
+
+      gains.push(val + Math.max(ls, rs));
+    }
+    return max;
+  }
+
+  /**
+   * Stack-safe version of {@link #maxPathSum(TreeNode)} for deep or skewed trees.
+   *
+   * <p>Same post-order as the recursive method, driven by an explicit {@link NodeStack}; the
+   * best downward gain of each finished child waits on an {@link IntStack} until its parent is
+   * finished. Results match the recursive version exactly, including {@code Integer.MIN_VALUE} for
+   * an empty tree, while the thread stack stays constant regardless of height.</p>
+   */
+  public int maxPathSumIterative(TreeNode root) {
+    final var probe = TraversalMetrics.probe(MaxPathSum.class, "maxPathSumIterative");
+    try {
+      return (int) (maxAndGainIterative(root, probe) >> 32);
+    } finally {
+      if (probe != null) probe.finish();
+    }
+  }
+
+  /**
+   * Iterative engine behind {@link #maxPathSumIterative(TreeNode)}, returning the same packed
+   * (max, gain) pair as {@link #maxAndGain(TreeNode)}. {@code probe} is {@code null} unless
+   * {@link TraversalMetrics} or {@link TreeQueryEvent} is enabled; parallel leaf tasks always pass
+   * {@code null}.
+   */
+  private static long maxAndGainIterative(TreeNode root, TraversalMetrics.Probe probe) {
+    final var stack = new NodeStack();
+    final var gains = new IntStack();
+    int max = Integer.MIN_VALUE;
+
+    var node = root;
+    TreeNode last = null;
+    while (node != null || !stack.isEmpty()) {
+      if (node != null) {
+        stack.push(node);
+        if (probe != null) probe.depth(stack.size());
+        node = node.left;
+        continue;
+      }
+
+      final var top = stack.peek();
+      if (top.right != null && top.right != last) {
+        node = top.right;
+        continue;
+      }
+
+      stack.pop();
+      if (probe != null) probe.visited(1);
+      final var rs = top.right != null ? Math.max(gains.pop(), 0) : 0;
+      final var ls = top.left != null ? Math.max(gains.pop(), 0) : 0;
+
+      max = Math.max(max, ls + rs + top.val);
+
+      gains.push(top.val + Math.max(ls, rs));
+      last = top;
+    }
+    return (long) max << 32 | ((gains.isEmpty() ? 0 : gains.pop()) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Max path sum over a hash-consed {@link SubtreeDag}. Children have smaller ids than their parents,
+   * so a forward scan computes each distinct subtree's result once and every repeated occurrence reuses
+   * it: <code>O(distinct subtrees)</code> time however many nodes the expanded tree has.
+   */
+  public int maxPathSum(SubtreeDag dag) {
+    if (dag.isEmpty()) return Integer.MIN_VALUE;
+
+    final var result = new long[dag.root() + 1];
+    for (int id = 0; id <= dag.root(); id++) {
+      final var l = dag.left[id];
+      final var r = dag.right[id];
+      result[id] = combine(dag.val[id],
+        l == SubtreeDag.NIL ? EMPTY : result[l],
+        r == SubtreeDag.NIL ? EMPTY : result[r]);
+    }
+    return (int) (result[dag.root()] >> 32);
+  }
+
+  /**
+   * Fork-join version of {@link #maxPathSum(TreeNode)} on the common pool.
+   */
+  public int maxPathSumParallel(TreeNode root) {
+    return maxPathSumParallel(root, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Fork-join version of {@link #maxPathSum(TreeNode)}.
+   *
+   * <p>At every node with two children the left subtree is forked and the right one computed in place;
+   * after {@link ForkJoinSupport#splitDepth} nested forks a task finishes with the stack-safe iterative
+   * engine. Single-child runs are walked without forking and folded back afterwards, so skewed trees
+   * fall back to one sequential pass instead of spawning tiny tasks.</p>
+   */
+  public int maxPathSumParallel(TreeNode root, ForkJoinPool pool) {
+    return (int) (pool.invoke(new MaxPathSumTask(root, ForkJoinSupport.splitDepth(pool))) >> 32);
+  }
+
+  private static final class MaxPathSumTask extends RecursiveTask<Long> {
+    private final TreeNode root;
+    private final int splits;
+
+    MaxPathSumTask(TreeNode root, int splits) {
+      this.root = root;
+      this.splits = splits;
+    }
+
+    @Override
+    protected Long compute() {
+      if (splits == 0) return maxAndGainIterative(root, null);
+
+      final var chain = new NodeStack();
+      var node = root;
+      while (node != null && (node.left == null || node.right == null)) {
+        chain.push(node);
+        node = node.left != null ? node.left : node.right;
+      }
+
+      var result = EMPTY;
+      if (node != null) {
+        final var left = new MaxPathSumTask(node.left, splits - 1);
+        left.fork();
+        final var right = new MaxPathSumTask(node.right, splits - 1).compute();
+        result = combine(node.val, left.join(), right);
+      }
+
+      while (!chain.isEmpty()) {
+        result = combine(chain.pop().val, result, EMPTY);
+      }
+      return result;
+    }
   }
 
 }
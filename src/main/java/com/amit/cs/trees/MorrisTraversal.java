@@ -0,0 +1,189 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Inorder and preorder traversal of a {@link TreeNode} tree in <code>O(1)</code> extra space, with no
+ * stack, queue or recursion, by Morris threading.
+ *
+ * <p><strong>How it works:</strong> before descending into the left subtree of a node, the traversal
+ * finds the node's inorder predecessor (the rightmost node of that subtree) and points the
+ * predecessor's empty {@code right} field back at the node: a <em>thread</em>. Reaching the
+ * predecessor later, the walk follows the thread up instead of popping a stack; finding the thread a
+ * second time means the left subtree is done, so the thread is removed and the walk moves right. Every
+ * edge is walked at most three times, so the time stays <code>O(n)</code>.</p>
+ *
+ * <p><strong>Pointers are restored:</strong> every thread is removed before the traversal returns, so
+ * the tree is left exactly as it was, including when the visitor throws: the walk then finishes
+ * without visiting, and the exception is rethrown. An {@link #inorderIterator} holds threads between
+ * calls and restores them when it is exhausted or {@linkplain InorderIterator#close() closed}.</p>
+ *
+ * <p><strong>Single writer:</strong> while a traversal runs the tree is temporarily modified, and a
+ * threaded subtree contains cycles. The caller must own the tree for the duration: no other thread may
+ * read or write it, and neither may the visitor. Trees with shared subtrees, such as
+ * {@link com.amit.cs.common.SubtreeDag#toSharedTreeNode()}, are not trees in this sense and must not be
+ * walked this way. The stack-based traversals remain the choice for trees that are shared or read
+ * concurrently.</p>
+ */
+public final class MorrisTraversal {
+
+  private MorrisTraversal() {
+  }
+
+  /** Passes the values to {@code visitor} in inorder (left, node, right). */
+  public static void inorder(TreeNode root, IntConsumer visitor) {
+    var node = root;
+    try {
+      while (node != null) {
+        if (node.left == null) {
+          visitor.accept(node.val);
+          node = node.right;
+          continue;
+        }
+
+        final var pre = predecessor(node);
+        if (pre.right == null) {
+          pre.right = node;
+          node = node.left;
+        } else {
+          visitor.accept(node.val);
+          pre.right = null;
+          node = node.right;
+        }
+      }
+    } catch (RuntimeException | Error e) {
+      finish(node);
+      throw e;
+    }
+  }
+
+  /** Passes the values to {@code visitor} in preorder (node, left, right). */
+  public static void preorder(TreeNode root, IntConsumer visitor) {
+    var node = root;
+    try {
+      while (node != null) {
+        if (node.left == null) {
+          visitor.accept(node.val);
+          node = node.right;
+          continue;
+        }
+
+        final var pre = predecessor(node);
+        if (pre.right == null) {
+          visitor.accept(node.val);
+          pre.right = node;
+          node = node.left;
+        } else {
+          pre.right = null;
+          node = node.right;
+        }
+      }
+    } catch (RuntimeException | Error e) {
+      finish(node);
+      throw e;
+    }
+  }
+
+  /**
+   * Lazy inorder iteration in <code>O(1)</code> extra space. The tree stays threaded until the iterator
+   * is exhausted or closed; use it in try-with-resources when it may be abandoned early.
+   */
+  public static InorderIterator inorderIterator(TreeNode root) {
+    return new InorderIterator(root);
+  }
+
+  /**
+   * Rightmost node of {@code node.left}, stopping at a thread back to {@code node}; {@code node.left}
+   * must not be {@code null}.
+   */
+  static TreeNode predecessor(TreeNode node) {
+    var pre = node.left;
+    while (pre.right != null && pre.right != node) pre = pre.right;
+    return pre;
+  }
+
+  /**
+   * Completes a walk that was interrupted at {@code node} without visiting anything, removing every
+   * thread still in the tree. Walks built on this class visit or compute before they touch a pointer,
+   * so the node they were at when they failed is a consistent place to resume from.
+   */
+  static void finish(TreeNode node) {
+    while (node != null) {
+      if (node.left == null) {
+        node = node.right;
+        continue;
+      }
+
+      final var pre = predecessor(node);
+      if (pre.right == null) {
+        pre.right = node;
+        node = node.left;
+      } else {
+        pre.right = null;
+        node = node.right;
+      }
+    }
+  }
+
+  /**
+   * Inorder iterator over a Morris-threaded walk. Not thread-safe, and the tree must not be touched
+   * while the iterator is open.
+   */
+  public static final class InorderIterator implements PrimitiveIterator.OfInt, AutoCloseable {
+    private TreeNode node;
+    private TreeNode next;
+
+    private InorderIterator(TreeNode root) {
+      node = root;
+      next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public int nextInt() {
+      if (next == null) throw new NoSuchElementException();
+      final var value = next.val;
+      next = advance();
+      return value;
+    }
+
+    /** Finishes the walk without visiting, removing every thread still in the tree. Idempotent. */
+    @Override
+    public void close() {
+      finish(node);
+      node = null;
+      next = null;
+    }
+
+    /** Walks to the next inorder node, or returns {@code null} once the walk is complete. */
+    private TreeNode advance() {
+      while (node != null) {
+        if (node.left == null) {
+          final var visited = node;
+          node = node.right;
+          return visited;
+        }
+
+        final var pre = predecessor(node);
+        if (pre.right == null) {
+          pre.right = node;
+          node = node.left;
+        } else {
+          pre.right = null;
+          final var visited = node;
+          node = node.right;
+          return visited;
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+
+/**
+ * Ring-buffer deque of {@link TreeNode} references used as the BFS queue in this package.
+ *
+ * <p>The capacity is a power of two so wrapping is a mask, it grows by doubling, or up front through
+ * {@link #ensureCapacity(int)} when the maximum width is known, and polled slots are nulled
+ * so a pooled instance does not keep a finished tree reachable. Not thread-safe; instances are
+ * confined to one thread, see {@link BfsQueues}.</p>
+ */
+final class NodeQueue {
+  private TreeNode[] nodes;
+  private int head;
+  private int size;
+  /** Largest size since the last {@link #clear(int)}. */
+  private int peak;
+
+  NodeQueue() {
+    this(16);
+  }
+
+  NodeQueue(int capacity) {
+    nodes = new TreeNode[BfsQueues.capacityFor(capacity)];
+  }
+
+  void ensureCapacity(int capacity) {
+    if (capacity > nodes.length) resize(BfsQueues.capacityFor(capacity));
+  }
+
+  void offerLast(TreeNode node) {
+    if (size == nodes.length) resize(size << 1);
+    nodes[(head + size) & (nodes.length - 1)] = node;
+    if (++size > peak) peak = size;
+  }
+
+  void offerFirst(TreeNode node) {
+    if (size == nodes.length) resize(size << 1);
+    head = (head - 1) & (nodes.length - 1);
+    nodes[head] = node;
+    if (++size > peak) peak = size;
+  }
+
+  TreeNode pollFirst() {
+    final var node = nodes[head];
+    nodes[head] = null;
+    head = (head + 1) & (nodes.length - 1);
+    size--;
+    return node;
+  }
+
+  TreeNode pollLast() {
+    final var tail = (head + size - 1) & (nodes.length - 1);
+    final var node = nodes[tail];
+    nodes[tail] = null;
+    size--;
+    return node;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return nodes.length;
+  }
+
+  /**
+   * Drops any queued references. A buffer above {@code maxCapacity} is kept for as long as the
+   * queries using it need it, and only replaced by one sized for the last query once that query
+   * stayed within {@code maxCapacity}, so a run of wide queries does not regrow it every time.
+   */
+  void clear(int maxCapacity) {
+    if (nodes.length > maxCapacity && peak <= maxCapacity) {
+      nodes = new TreeNode[BfsQueues.capacityFor(Math.max(peak, 16))];
+    } else {
+      for (int i = 0; i < size; i++) nodes[(head + i) & (nodes.length - 1)] = null;
+    }
+    head = 0;
+    size = 0;
+    peak = 0;
+  }
+
+  /** Moves the contents to the front of a buffer of {@code capacity} slots, in queue order. */
+  private void resize(int capacity) {
+    final var grown = new TreeNode[capacity];
+    final var firstRun = Math.min(size, nodes.length - head);
+    System.arraycopy(nodes, head, grown, 0, firstRun);
+    System.arraycopy(nodes, 0, grown, firstRun, size - firstRun);
+    nodes = grown;
+    head = 0;
+  }
+
+}
@@ -0,0 +1,51 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+
+import java.util.Arrays;
+
+/**
+ * Array-backed LIFO of {@link TreeNode} references used by the iterative traversals in this package.
+ *
+ * <p>Unlike {@code ArrayDeque<TreeNode>} it has no head/tail wrap-around bookkeeping and does not
+ * null out popped slots one by one; {@link #clear()} drops the references in bulk. Depth is bounded
+ * only by the heap, so traversals built on it do not depend on {@code -Xss}.</p>
+ */
+final class NodeStack {
+  private TreeNode[] nodes;
+  private int size;
+
+  NodeStack() {
+    this(64);
+  }
+
+  NodeStack(int capacity) {
+    nodes = new TreeNode[Math.max(capacity, 1)];
+  }
+
+  void push(TreeNode node) {
+    if (size == nodes.length) nodes = Arrays.copyOf(nodes, size << 1);
+    nodes[size++] = node;
+  }
+
+  TreeNode pop() {
+    return nodes[--size];
+  }
+
+  TreeNode peek() {
+    return nodes[size - 1];
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    Arrays.fill(nodes, 0, size, null);
+    size = 0;
+  }
+}
@@ -0,0 +1,246 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.RaggedIntArray;
+import com.amit.cs.common.TreeNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Level-synchronous BFS whose wide levels are expanded by several fork-join workers at once.
+ *
+ * <p><strong>How a level is processed:</strong> the frontier (the nodes of one level, in order) is cut
+ * into contiguous chunks. In the first phase every chunk, in parallel, reads its nodes' values and
+ * writes its children into a private region of a scratch buffer (chunk starting at frontier index
+ * {@code i} owns scratch slots {@code [2i, 2(to))}, enough for two children per node), returning its
+ * child count and value sum. A prefix sum over the counts, taken in chunk order, gives every chunk its
+ * offset in the next frontier, and the second phase copies the regions there in parallel. Values are
+ * written straight to their final position in the output, mirrored on odd levels for zigzag order.</p>
+ *
+ * <p><strong>Determinism:</strong> the next frontier and the output are exactly the sequential BFS
+ * order whatever the scheduling, and level sums add the chunk sums in chunk order, so results are
+ * identical to the single-threaded traversals.</p>
+ *
+ * <p><strong>When it helps:</strong> only levels at least {@link #GRAIN} nodes wide are split; narrower
+ * levels run on the calling worker, so deep narrow trees pay one extra copy per level and nothing else.
+ * The win is on wide, shallow trees, where a single thread draining one queue is the bottleneck.</p>
+ */
+final class ParallelLevelBfs {
+
+  /** Minimum number of frontier nodes per chunk. */
+  static final int GRAIN = 1 << 12;
+
+  private ParallelLevelBfs() {
+  }
+
+  /**
+   * Runs the BFS on {@code pool}.
+   *
+   * @param values whether to collect every level's values
+   * @param zigzag whether odd levels are collected right to left
+   * @param expected expected node count, to presize the value buffer
+   */
+  static Levels run(Frontier frontier, boolean values, boolean zigzag, int expected, ForkJoinPool pool) {
+    final var chunkLimit = Math.max(1, pool.getParallelism() * 4);
+    return pool.invoke(ForkJoinTask.adapt(() -> drive(frontier, values, zigzag, expected, chunkLimit)));
+  }
+
+  private static Levels drive(Frontier frontier, boolean collect, boolean zigzag, int expected, int chunkLimit) {
+    var values = collect ? new int[Math.max(expected, 1)] : null;
+    var offsets = new int[17];
+    var sums = new int[16];
+    int depth = 0;
+    int total = 0;
+
+    while (frontier.width > 0) {
+      final var width = frontier.width;
+      if (collect && total + width > values.length) {
+        values = Arrays.copyOf(values, Math.max(values.length << 1, total + width));
+      }
+      final var out = values;
+      final var reverse = zigzag && (depth & 1) == 1;
+      final var base = reverse ? total + width - 1 : total;
+      final var step = reverse ? -1 : 1;
+
+      final var chunks = Math.min(chunkLimit, width / GRAIN);
+      int sum = 0;
+      int children = 0;
+      if (chunks <= 1) {
+        final var packed = frontier.expand(0, width, out, base, step);
+        children = (int) (packed >>> 32);
+        sum = (int) packed;
+        frontier.compact(0, children, 0);
+      } else {
+        final var bounds = new int[chunks + 1];
+        for (int c = 0; c <= chunks; c++) bounds[c] = (int) ((long) width * c / chunks);
+
+        final var packed = new long[chunks];
+        final var expand = new ArrayList<ForkJoinTask<?>>(chunks);
+        for (int c = 0; c < chunks; c++) {
+          final var chunk = c;
+          expand.add(ForkJoinTask.adapt(() -> {
+            packed[chunk] = frontier.expand(bounds[chunk], bounds[chunk + 1], out, base, step);
+          }));
+        }
+        ForkJoinTask.invokeAll(expand);
+
+        final var positions = new int[chunks];
+        for (int c = 0; c < chunks; c++) {
+          positions[c] = children;
+          children += (int) (packed[c] >>> 32);
+          sum += (int) packed[c];
+        }
+
+        final var compact = new ArrayList<ForkJoinTask<?>>(chunks);
+        for (int c = 0; c < chunks; c++) {
+          final var chunk = c;
+          compact.add(ForkJoinTask.adapt(() ->
+            frontier.compact(bounds[chunk], (int) (packed[chunk] >>> 32), positions[chunk])));
+        }
+        ForkJoinTask.invokeAll(compact);
+      }
+
+      if (depth == sums.length) {
+        sums = Arrays.copyOf(sums, depth << 1);
+        offsets = Arrays.copyOf(offsets, (depth << 1) + 1);
+      }
+      sums[depth] = sum;
+      total += width;
+      offsets[++depth] = total;
+      frontier.advance(children);
+    }
+
+    return new Levels(depth, Arrays.copyOf(sums, depth),
+      collect ? new RaggedIntArray(values, Arrays.copyOf(offsets, depth + 1)) : null);
+  }
+
+  /** Per-level results of one run. */
+  static final class Levels {
+    final int depth;
+    final int[] sums;
+    /** Level values, or {@code null} when they were not collected. */
+    final RaggedIntArray rows;
+
+    Levels(int depth, int[] sums, RaggedIntArray rows) {
+      this.depth = depth;
+      this.sums = sums;
+      this.rows = rows;
+    }
+
+    /** 1-based level with the largest sum, first on ties; 0 when there are no levels. */
+    int maxSumLevel() {
+      int best = 0;
+      for (int level = 1; level < depth; level++) {
+        if (sums[level] > sums[best]) best = level;
+      }
+      return depth == 0 ? 0 : best + 1;
+    }
+  }
+
+  /**
+   * Current level of the BFS plus the buffers for the next one. {@link #expand} and {@link #compact}
+   * are called concurrently on disjoint chunks and must only touch their own ranges.
+   */
+  abstract static class Frontier {
+    int width;
+
+    /**
+     * Writes the children of frontier nodes {@code [from, to)} to scratch slots from {@code 2 * from}
+     * and their values to {@code values[base + step * i]} when {@code values} is not {@code null}.
+     *
+     * @return child count in the high 32 bits, value sum in the low 32 bits
+     */
+    abstract long expand(int from, int to, int[] values, int base, int step);
+
+    /** Copies the {@code count} children written by the chunk starting at {@code from} to {@code to}. */
+    abstract void compact(int from, int count, int to);
+
+    /** Makes the compacted children the current level and sizes the buffers for expanding it. */
+    abstract void advance(int width);
+  }
+
+  static final class FlatFrontier extends Frontier {
+    private final FlatTree tree;
+    private int[] current = {0};
+    private int[] scratch = new int[2];
+    private int[] next = new int[2];
+
+    FlatFrontier(FlatTree tree) {
+      this.tree = tree;
+      width = tree.isEmpty() ? 0 : 1;
+    }
+
+    @Override
+    long expand(int from, int to, int[] values, int base, int step) {
+      var out = 2 * from;
+      int sum = 0;
+      for (int i = from; i < to; i++) {
+        final var node = current[i];
+        final var value = tree.val[node];
+        sum += value;
+        if (values != null) values[base + step * i] = value;
+        if (tree.left[node] != FlatTree.NIL) scratch[out++] = tree.left[node];
+        if (tree.right[node] != FlatTree.NIL) scratch[out++] = tree.right[node];
+      }
+      return (long) (out - 2 * from) << 32 | sum & 0xFFFFFFFFL;
+    }
+
+    @Override
+    void compact(int from, int count, int to) {
+      System.arraycopy(scratch, 2 * from, next, to, count);
+    }
+
+    @Override
+    void advance(int width) {
+      final var previous = current;
+      current = next;
+      next = previous;
+      this.width = width;
+      if (scratch.length < 2 * width) scratch = new int[2 * width];
+      if (next.length < 2 * width) next = new int[2 * width];
+    }
+  }
+
+  static final class NodeFrontier extends Frontier {
+    private TreeNode[] current;
+    private TreeNode[] scratch = new TreeNode[2];
+    private TreeNode[] next = new TreeNode[2];
+
+    NodeFrontier(TreeNode root) {
+      current = new TreeNode[]{root};
+      width = root == null ? 0 : 1;
+    }
+
+    @Override
+    long expand(int from, int to, int[] values, int base, int step) {
+      var out = 2 * from;
+      int sum = 0;
+      for (int i = from; i < to; i++) {
+        final var node = current[i];
+        sum += node.val;
+        if (values != null) values[base + step * i] = node.val;
+        if (node.left != null) scratch[out++] = node.left;
+        if (node.right != null) scratch[out++] = node.right;
+      }
+      return (long) (out - 2 * from) << 32 | sum & 0xFFFFFFFFL;
+    }
+
+    @Override
+    void compact(int from, int count, int to) {
+      System.arraycopy(scratch, 2 * from, next, to, count);
+    }
+
+    @Override
+    void advance(int width) {
+      final var previous = current;
+      current = next;
+      next = previous;
+      this.width = width;
+      if (scratch.length < 2 * width) scratch = new TreeNode[2 * width];
+      if (next.length < 2 * width) next = new TreeNode[2 * width];
+    }
+  }
+}
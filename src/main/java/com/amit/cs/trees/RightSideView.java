@@ -1,8 +1,10 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.OffHeapTree;
 import com.amit.cs.common.TreeNode;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,18 +48,185 @@ public class RightSideView {
     if (root == null) return List.of();
 
     final var result = new ArrayList<Integer>();
-    final var queue = new ArrayDeque<TreeNode>();
-    queue.offer(root);
-
-    while (!queue.isEmpty()) {
-      final var size = queue.size();
-      for (int i = 0; i < size; i++) {
-        final var s = queue.pollFirst();
-        if (s.right != null) queue.offerLast(s.right);
-        if (s.left != null) queue.offerLast(s.left);
-        if (i == 0) result.add(s.val);
+    final var probe = TraversalMetrics.probe(RightSideView.class, "rightSideView");
+    final var queue = BfsQueues.nodeQueue();
+    try {
+      queue.offerLast(root);
+
+      while (!queue.isEmpty()) {
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        for (int i = 0; i < size; i++) {
+          final var s = queue.pollFirst();
+          if (s.right != null) queue.offerLast(s.right);
+          if (s.left != null) queue.offerLast(s.left);
+          if (i == 0) result.add(s.val);
+        }
+      }
+      return result;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same view over a {@link FlatTree}, on the pooled {@link IntQueue}. Children are enqueued
+   * left-to-right, so the visible node is the last one polled from each level.
+   */
+  public List<Integer> rightSideView(FlatTree tree) {
+    return rightSideView(tree, "rightSideViewFlat");
+  }
+
+  /**
+   * Same view over any {@link IndexedTree}, e.g. a {@link com.amit.cs.common.MappedTree} queried in
+   * place; only the BFS frontier is held on the heap.
+   */
+  public List<Integer> rightSideView(IndexedTree tree) {
+    return rightSideView(tree, "rightSideViewIndexed");
+  }
+
+  /**
+   * The index-based BFS behind the {@link FlatTree} and {@link IndexedTree} overloads, recorded under
+   * {@code method}. A call site that only sees one or two implementations is inlined by the JIT, so
+   * reading a {@link FlatTree} through the interface costs about as much as reading its arrays.
+   */
+  private static List<Integer> rightSideView(IndexedTree tree, String method) {
+    if (tree.isEmpty()) return List.of();
+
+    final var result = new ArrayList<Integer>();
+    final var probe = TraversalMetrics.probe(RightSideView.class, method);
+    final var queue = BfsQueues.intQueue();
+    try {
+      queue.offerLast(tree.root());
+
+      while (!queue.isEmpty()) {
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != FlatTree.NIL) queue.offerLast(left);
+          if (right != FlatTree.NIL) queue.offerLast(right);
+          if (i == size - 1) result.add(tree.val(node));
+        }
+      }
+      return result;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same view over an {@link OffHeapTree}, on the pooled {@link LongQueue}; its own loop, since
+   * {@code long} node indexes do not fit {@link IndexedTree}.
+   */
+  public List<Integer> rightSideView(OffHeapTree tree) {
+    if (tree.isEmpty()) return List.of();
+
+    final var result = new ArrayList<Integer>();
+    final var probe = TraversalMetrics.probe(RightSideView.class, "rightSideViewOffHeap");
+    final var queue = BfsQueues.longQueue();
+    try {
+      queue.offerLast(tree.root());
+
+      while (!queue.isEmpty()) {
+        final var size = queue.size();
+        if (probe != null) probe.level(size);
+        for (int i = 0; i < size; i++) {
+          final var node = queue.pollFirst();
+          final var left = tree.left(node);
+          final var right = tree.right(node);
+          if (left != OffHeapTree.NIL) queue.offerLast(left);
+          if (right != OffHeapTree.NIL) queue.offerLast(right);
+          if (i == size - 1) result.add(tree.val(node));
+        }
+      }
+      return result;
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * Same view with <code>O(h)</code> memory instead of <code>O(w)</code>: an iterative pre-order that
+   * visits right children first, with each node's depth on a parallel {@link IntStack}. The first node
+   * reached at a new depth is the rightmost one of that level. Pays off on wide, shallow trees, whose
+   * last level would otherwise fill the BFS queue; see {@link TraversalPlanner}.
+   */
+  public List<Integer> rightSideViewDfs(TreeNode root) {
+    if (root == null) return List.of();
+
+    final var result = new ArrayList<Integer>();
+    final var nodes = new NodeStack();
+    final var depths = new IntStack();
+    nodes.push(root);
+    depths.push(0);
+    while (!nodes.isEmpty()) {
+      final var node = nodes.pop();
+      final var depth = depths.pop();
+      if (depth == result.size()) result.add(node.val);
+      if (node.left != null) {
+        nodes.push(node.left);
+        depths.push(depth + 1);
+      }
+      if (node.right != null) {
+        nodes.push(node.right);
+        depths.push(depth + 1);
       }
     }
     return result;
   }
+
+  /**
+   * {@link FlatTree} flavour of {@link #rightSideViewDfs(TreeNode)}, with node indexes and depths on two
+   * {@link IntStack}s.
+   */
+  public List<Integer> rightSideViewDfs(FlatTree tree) {
+    if (tree.isEmpty()) return List.of();
+
+    final var result = new ArrayList<Integer>();
+    final var nodes = new IntStack();
+    final var depths = new IntStack();
+    nodes.push(tree.root());
+    depths.push(0);
+    while (!nodes.isEmpty()) {
+      final var node = nodes.pop();
+      final var depth = depths.pop();
+      if (depth == result.size()) result.add(tree.val[node]);
+      if (tree.left[node] != FlatTree.NIL) {
+        nodes.push(tree.left[node]);
+        depths.push(depth + 1);
+      }
+      if (tree.right[node] != FlatTree.NIL) {
+        nodes.push(tree.right[node]);
+        depths.push(depth + 1);
+      }
+    }
+    return result;
+  }
+
+  /** Right side view using the given strategy; both give the same result. */
+  public List<Integer> rightSideView(TreeNode root, TraversalPlanner.Strategy strategy) {
+    return strategy == TraversalPlanner.Strategy.DFS ? rightSideViewDfs(root) : rightSideView(root);
+  }
+
+  public List<Integer> rightSideView(FlatTree tree, TraversalPlanner.Strategy strategy) {
+    return strategy == TraversalPlanner.Strategy.DFS ? rightSideViewDfs(tree) : rightSideView(tree);
+  }
+
+  /**
+   * Right side view with the strategy {@link TraversalPlanner#plan(TreeNode)} picks from a sample of the
+   * tree.
+   */
+  public List<Integer> rightSideViewAdaptive(TreeNode root) {
+    return rightSideView(root, TraversalPlanner.plan(root));
+  }
+
+  public List<Integer> rightSideViewAdaptive(FlatTree tree) {
+    return rightSideView(tree, TraversalPlanner.plan(tree));
+  }
 }
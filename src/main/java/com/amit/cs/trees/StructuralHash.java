@@ -0,0 +1,198 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Merkle-style structural hash of a binary tree: two trees get the same {@link Digest} when they have
+ * the same shape and the same values in the same places.
+ *
+ * <p><strong>How it works:</strong> a node's hash is a mix of its value and its two children's
+ * hashes, with a fixed constant standing for a missing child, so it is computed bottom-up like
+ * {@link MaxPathSum}. Left and right enter the mix through different operations, which keeps mirrored
+ * trees apart. Two independent 64-bit lanes (different seeds and mixing order) form a 128-bit digest,
+ * together with the node count.</p>
+ *
+ * <p><strong>Collisions:</strong> the mixing is the SplitMix64 finalizer, which is fast and
+ * well-distributed but not cryptographic. Accidental collisions are negligible at 128 bits; a digest
+ * must not be trusted for trees chosen by an adversary.</p>
+ *
+ * <p><strong>Cost:</strong> <code>O(n)</code>, the same order as the queries a digest is meant to
+ * cache, so compute it once per tree and reuse it for every query (see {@link TreeQueryCache}). For
+ * large trees {@link #ofParallel(TreeNode, ForkJoinPool)} splits the work like the other fork-join
+ * reductions in this package.</p>
+ */
+public final class StructuralHash {
+
+  private static final long SEED_HI = 0x243F6A8885A308D3L;
+  private static final long SEED_LO = 0x13198A2E03707344L;
+  private static final long NIL_HI = 0x9E3779B97F4A7C15L;
+  private static final long NIL_LO = 0xC2B2AE3D27D4EB4FL;
+
+  private static final Digest EMPTY = new Digest(NIL_HI, NIL_LO, 0);
+
+  private StructuralHash() {
+  }
+
+  /** Digest of a pointer tree; an iterative post-order, so deep trees are safe. */
+  public static Digest of(TreeNode root) {
+    if (root == null) return EMPTY;
+
+    final var stack = new NodeStack();
+    final var his = new LongStack();
+    final var los = new LongStack();
+    long size = 0;
+    TreeNode node = root;
+    TreeNode last = null;
+    while (node != null || !stack.isEmpty()) {
+      if (node != null) {
+        stack.push(node);
+        node = node.left;
+        continue;
+      }
+
+      final var top = stack.peek();
+      if (top.right != null && top.right != last) {
+        node = top.right;
+        continue;
+      }
+
+      stack.pop();
+      final var rLo = top.right != null ? los.pop() : NIL_LO;
+      final var rHi = top.right != null ? his.pop() : NIL_HI;
+      final var lLo = top.left != null ? los.pop() : NIL_LO;
+      final var lHi = top.left != null ? his.pop() : NIL_HI;
+      his.push(hi(top.val, lHi, rHi));
+      los.push(lo(top.val, lLo, rLo));
+      size++;
+      last = top;
+    }
+    return new Digest(his.pop(), los.pop(), size);
+  }
+
+  /**
+   * Digest of a {@link FlatTree}, equal to the digest of the same tree as {@link TreeNode}s. A backward
+   * scan finishes every child before its parent, so the lanes live in two {@code long[]}s.
+   */
+  public static Digest of(FlatTree tree) {
+    if (tree.isEmpty()) return EMPTY;
+
+    final var his = new long[tree.size];
+    final var los = new long[tree.size];
+    for (int i = tree.size - 1; i >= 0; i--) {
+      final var l = tree.left[i];
+      final var r = tree.right[i];
+      his[i] = hi(tree.val[i], l == FlatTree.NIL ? NIL_HI : his[l], r == FlatTree.NIL ? NIL_HI : his[r]);
+      los[i] = lo(tree.val[i], l == FlatTree.NIL ? NIL_LO : los[l], r == FlatTree.NIL ? NIL_LO : los[r]);
+    }
+    return new Digest(his[0], los[0], tree.size);
+  }
+
+  /**
+   * Fork-join version of {@link #of(TreeNode)} on the common pool.
+   */
+  public static Digest ofParallel(TreeNode root) {
+    return ofParallel(root, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Fork-join version of {@link #of(TreeNode)}, split like {@link MaxPathSum#maxPathSumParallel}: the
+   * left subtree of every two-child node is forked until {@link ForkJoinSupport#splitDepth} is reached,
+   * and single-child runs are folded back sequentially.
+   */
+  public static Digest ofParallel(TreeNode root, ForkJoinPool pool) {
+    return pool.invoke(new HashTask(root, ForkJoinSupport.splitDepth(pool)));
+  }
+
+  private static long hi(int val, long left, long right) {
+    return mix(mix(mix(val ^ SEED_HI) + left) ^ Long.rotateLeft(right, 17));
+  }
+
+  private static long lo(int val, long left, long right) {
+    return mix(mix(mix(val + SEED_LO) ^ Long.rotateLeft(left, 29)) + right);
+  }
+
+  /** SplitMix64 finalizer. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static Digest combine(int val, Digest left, Digest right) {
+    return new Digest(hi(val, left.hi, right.hi), lo(val, left.lo, right.lo), 1 + left.size + right.size);
+  }
+
+  /**
+   * 128-bit structural hash plus node count. Equal trees have equal digests; see the class comment for
+   * the converse.
+   */
+  public static final class Digest {
+    public final long hi;
+    public final long lo;
+    public final long size;
+
+    public Digest(long hi, long lo, long size) {
+      this.hi = hi;
+      this.lo = lo;
+      this.size = size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Digest)) return false;
+      final var other = (Digest) o;
+      return hi == other.hi && lo == other.lo && size == other.size;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (hi ^ hi >>> 32);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%016x%016x/%d", hi, lo, size);
+    }
+  }
+
+  private static final class HashTask extends RecursiveTask<Digest> {
+    private final TreeNode root;
+    private final int splits;
+
+    HashTask(TreeNode root, int splits) {
+      this.root = root;
+      this.splits = splits;
+    }
+
+    @Override
+    protected Digest compute() {
+      if (splits == 0) return of(root);
+
+      final var chain = new NodeStack();
+      var node = root;
+      while (node != null && (node.left == null || node.right == null)) {
+        chain.push(node);
+        node = node.left != null ? node.left : node.right;
+      }
+
+      var result = EMPTY;
+      if (node != null) {
+        final var left = new HashTask(node.left, splits - 1);
+        left.fork();
+        final var right = new HashTask(node.right, splits - 1).compute();
+        result = combine(node.val, left.join(), right);
+      }
+
+      while (!chain.isEmpty()) {
+        final var top = chain.pop();
+        result = top.left != null ? combine(top.val, result, EMPTY) : combine(top.val, EMPTY, result);
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.amit.cs.trees;
+
+/**
+ * Sum reductions over slices of an {@code int[]}, used by the {@link com.amit.cs.common.LevelLayout}
+ * queries.
+ *
+ * <p><strong>Implementations:</strong> {@link #INSTANCE} is {@code VectorSumKernels}, written against
+ * the {@code jdk.incubator.vector} API, when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; otherwise it is the scalar {@link Scalar} kernels, whose
+ * plain loops HotSpot's auto-vectorizer handles as well as it can. The vector class is only loaded
+ * after the module check, so code running without the module never links against it. Setting
+ * {@code -Dcom.amit.cs.trees.scalarKernels=true} forces the scalar kernels.</p>
+ *
+ * <p><strong>Results:</strong> both implementations wrap on {@code int} overflow exactly like a
+ * sequential loop, since wrapping addition does not depend on the order of the terms.</p>
+ */
+abstract class SumKernels {
+
+  static final SumKernels INSTANCE = load();
+
+  /** Sum of {@code values[from, to)}. */
+  abstract int sum(int[] values, int from, int to);
+
+  /** Sum of the {@code values[i]} in {@code [from, to)} with {@code mask[i]} set. */
+  abstract int maskedSum(int[] values, boolean[] mask, int from, int to);
+
+  /** Whether {@link #INSTANCE} uses the Vector API. */
+  abstract boolean vectorized();
+
+  private static SumKernels load() {
+    if (Boolean.getBoolean("com.amit.cs.trees.scalarKernels")) return new Scalar();
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return new Scalar();
+    try {
+      final var type = Class.forName("com.amit.cs.trees.VectorSumKernels");
+      return (SumKernels) type.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return new Scalar();
+    }
+  }
+
+  static final class Scalar extends SumKernels {
+
+    @Override
+    int sum(int[] values, int from, int to) {
+      int sum = 0;
+      for (int i = from; i < to; i++) sum += values[i];
+      return sum;
+    }
+
+    /** Branch-free: the mask becomes an all-ones or all-zeros word, so the loop stays vectorizable. */
+    @Override
+    int maskedSum(int[] values, boolean[] mask, int from, int to) {
+      int sum = 0;
+      for (int i = from; i < to; i++) sum += values[i] & -(mask[i] ? 1 : 0);
+      return sum;
+    }
+
+    @Override
+    boolean vectorized() {
+      return false;
+    }
+  }
+}
@@ -1,7 +1,12 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.OffHeapTree;
 import com.amit.cs.common.TreeNode;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 
 /**
  * This class provides a method to calculate the total sum of all root-to-leaf numbers
@@ -11,17 +16,20 @@ import com.amit.cs.common.TreeNode;
  * URL: https://leetcode.com/problems/sum-root-to-leaf-numbers/description/
  *
  * Key details:
- * - A helper method `wrapper` is used recursively to traverse the tree and compute the
- *   sum for each root-to-leaf path.
+ * - A recursive helper traverses the tree and returns the sum of the root-to-leaf numbers
+ *   below each node, so no state is kept between calls and one instance can be shared
+ *   across threads. The legacy `wrapper` method accumulates into the instance field `SUM`
+ *   and is deprecated for that reason.
  * - At each node, the method keeps track of the current number being formed by
  *   multiplying the existing number by 10 and adding the current node's value.
- * - When a leaf node is reached, the current number is added to the cumulative sum.
+ * - When a leaf node is reached, the current number is returned to the caller.
  *
  * How it works:
- * - The `sumNumbers` method initializes the recursive process with a starting sum of 0.
- * - The `wrapper` method performs a depth-first traversal, updating the current number
+ * - The `sumNumbers` method initializes the recursive process with a starting number of 0.
+ * - The helper performs a depth-first traversal, updating the current number
  *   along the path.
- * - Upon reaching a leaf node, the number formed by the path is added to the total sum.
+ * - Upon reaching a leaf node, the number formed by the path is returned and summed
+ *   by its ancestors.
  *
  * Edge cases:
  * - If the tree is null or empty, the method returns 0.
@@ -38,6 +46,13 @@ import com.amit.cs.common.TreeNode;
 public class SumNumbers {
   private int SUM = 0;
 
+  /**
+   * Adds every root-to-leaf number below {@code root} to the instance field {@code SUM}.
+   *
+   * @deprecated the field is never reset, so an instance that called this cannot be reused or shared;
+   * use {@link #sumNumbers(TreeNode)}, which returns the sum instead of accumulating it.
+   */
+  @Deprecated
   public void wrapper(TreeNode root, int currentNumber) {
     if (root == null) return;
     if (root.left == null && root.right == null) {
@@ -47,8 +62,241 @@ public class SumNumbers {
     wrapper(root.right, currentNumber * 10 + root.val);
   }
 
+  /**
+   * Stateless and reentrant: a single shared instance can serve concurrent callers without
+   * synchronization.
+   */
   public int sumNumbers(TreeNode root) {
-    wrapper(root, 0);
-    return SUM;
+    return sum(root, 0);
+  }
+
+  private static int sum(TreeNode root, int currentNumber) {
+    if (root == null) return 0;
+
+    final var number = currentNumber * 10 + root.val;
+    if (root.left == null && root.right == null) return number;
+
+    return sum(root.left, number) + sum(root.right, number);
+  }
+
+  /**
+   * Same computation over a {@link FlatTree}. A forward scan over the arrays visits parents before
+   * children, so each node's path number is pushed down into an {@code int[]} and leaves add theirs
+   * to the sum.
+   */
+  public int sumNumbers(FlatTree tree) {
+    if (tree.isEmpty()) return 0;
+
+    final var number = new int[tree.size];
+    number[tree.root()] = tree.val[tree.root()];
+    int sum = 0;
+
+    for (int i = 0; i < tree.size; i++) {
+      final var l = tree.left[i];
+      final var r = tree.right[i];
+      if (l == FlatTree.NIL && r == FlatTree.NIL) {
+        sum = sum + number[i];
+      }
+      if (l != FlatTree.NIL) number[l] = number[i] * 10 + tree.val[l];
+      if (r != FlatTree.NIL) number[r] = number[i] * 10 + tree.val[r];
+    }
+    return sum;
+  }
+
+  /**
+   * Same computation over an {@link OffHeapTree}: pre-order on a {@link LongStack} of node indexes with
+   * a parallel {@link IntStack} of path numbers, so the heap holds <code>O(h)</code> entries rather than
+   * a number per node.
+   */
+  public int sumNumbers(OffHeapTree tree) {
+    if (tree.isEmpty()) return 0;
+
+    final var nodes = new LongStack();
+    final var numbers = new IntStack();
+    nodes.push(tree.root());
+    numbers.push(tree.val(tree.root()));
+    int sum = 0;
+
+    while (!nodes.isEmpty()) {
+      final var node = nodes.pop();
+      final var number = numbers.pop();
+      final var l = tree.left(node);
+      final var r = tree.right(node);
+      if (l == OffHeapTree.NIL && r == OffHeapTree.NIL) {
+        sum = sum + number;
+        continue;
+      }
+      if (r != OffHeapTree.NIL) {
+        nodes.push(r);
+        numbers.push(number * 10 + tree.val(r));
+      }
+      if (l != OffHeapTree.NIL) {
+        nodes.push(l);
+        numbers.push(number * 10 + tree.val(l));
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Stack-safe version of {@link #sumNumbers(TreeNode)} for deep or skewed trees.
+   *
+   * <p>Pre-order on a {@link NodeStack} with a parallel {@link IntStack} carrying the number formed
+   * on the way down to each pending node, i.e. the {@code currentNumber} argument of the
+   * recursive helper. Integer arithmetic wraps exactly as in the recursive version,
+   * so the results are identical; the thread stack stays constant regardless of height.</p>
+   */
+  public int sumNumbersIterative(TreeNode root) {
+    return sumIterative(root, 0);
+  }
+
+  private static int sumIterative(TreeNode root, int currentNumber) {
+    if (root == null) return 0;
+
+    final var stack = new NodeStack();
+    final var numbers = new IntStack();
+    stack.push(root);
+    numbers.push(currentNumber);
+
+    int sum = 0;
+    while (!stack.isEmpty()) {
+      final var node = stack.pop();
+      final var number = numbers.pop() * 10 + node.val;
+      if (node.left == null && node.right == null) {
+        sum = sum + number;
+      }
+      if (node.right != null) {
+        stack.push(node.right);
+        numbers.push(number);
+      }
+      if (node.left != null) {
+        stack.push(node.left);
+        numbers.push(number);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * <code>O(1)</code>-space version of {@link #sumNumbers(TreeNode)} on a Morris preorder walk
+   * ({@link MorrisTraversal}), for memory-constrained workers and trees of any depth.
+   *
+   * <p><strong>Path number:</strong> the walk has no stack to remember the number formed above a node,
+   * so it carries one running number and, when a thread leads from the predecessor back to a node,
+   * takes the digits of the {@code k} nodes between them off again:
+   * {@code number = (number - digits) / 10^k}, with {@code digits} collected while searching for the
+   * predecessor. A leaf is counted on its first visit if it has no thread, and otherwise when its thread
+   * is removed.</p>
+   *
+   * <p><strong>Range:</strong> taking digits off is only exact while nothing has wrapped, so the number
+   * is carried in a {@code long} with overflow checks. Whenever every path number fits in a
+   * {@code long} the result is identical to the other versions, including the wrapping {@code int}
+   * sum. Otherwise the walk still finishes and removes every thread, and then throws
+   * {@link ArithmeticException}. The caller must own the tree while this runs, see
+   * {@link MorrisTraversal}.</p>
+   */
+  public int sumNumbersMorris(TreeNode root) {
+    int sum = 0;
+    long number = 0;
+    var node = root;
+    try {
+      while (node != null) {
+        if (node.left == null) {
+          number = Math.addExact(Math.multiplyExact(number, 10), node.val);
+          if (node.right == null) sum += (int) number;
+          node = node.right;
+          continue;
+        }
+
+        var pre = node.left;
+        int k = 1;
+        long digits = pre.val;
+        while (pre.right != null && pre.right != node) {
+          pre = pre.right;
+          k++;
+          digits = Math.addExact(Math.multiplyExact(digits, 10), pre.val);
+        }
+
+        if (pre.right == null) {
+          number = Math.addExact(Math.multiplyExact(number, 10), node.val);
+          pre.right = node;
+          node = node.left;
+        } else {
+          if (pre.left == null) sum += (int) number;
+          final var above = Math.subtractExact(number, digits);
+          number = above == 0 ? 0 : above / pow10(k);
+          pre.right = null;
+          node = node.right;
+        }
+      }
+      return sum;
+    } catch (ArithmeticException e) {
+      MorrisTraversal.finish(node);
+      final var overflow = new ArithmeticException("a root-to-leaf number does not fit in a long");
+      overflow.initCause(e);
+      throw overflow;
+    }
+  }
+
+  /**
+   * {@code 10^k}. Only called when a non-zero multiple of it fits in a {@code long}, so {@code k} is at
+   * most 18 and the power does not wrap.
+   */
+  private static long pow10(int k) {
+    long p = 1;
+    for (int i = 0; i < k; i++) p *= 10;
+    return p;
+  }
+
+  /**
+   * Fork-join version of {@link #sumNumbers(TreeNode)} on the common pool.
+   */
+  public int sumNumbersParallel(TreeNode root) {
+    return sumNumbersParallel(root, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Fork-join version of {@link #sumNumbers(TreeNode)}.
+   *
+   * <p>Each task carries the number formed above its subtree. At a node with two children the left
+   * subtree is forked and the right one computed in place; single-child runs are walked in a loop
+   * without forking, and after {@link ForkJoinSupport#splitDepth} nested forks a task finishes with
+   * the stack-safe iterative engine. Wrapping integer addition is associative, so the result is
+   * identical to the sequential one.</p>
+   */
+  public int sumNumbersParallel(TreeNode root, ForkJoinPool pool) {
+    return pool.invoke(new SumNumbersTask(root, 0, ForkJoinSupport.splitDepth(pool)));
+  }
+
+  private static final class SumNumbersTask extends RecursiveTask<Integer> {
+    private final TreeNode root;
+    private final int currentNumber;
+    private final int splits;
+
+    SumNumbersTask(TreeNode root, int currentNumber, int splits) {
+      this.root = root;
+      this.currentNumber = currentNumber;
+      this.splits = splits;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (splits == 0) return sumIterative(root, currentNumber);
+
+      var node = root;
+      var number = currentNumber;
+      while (node != null) {
+        number = number * 10 + node.val;
+        if (node.left == null && node.right == null) return number;
+        if (node.left != null && node.right != null) break;
+        node = node.left != null ? node.left : node.right;
+      }
+      if (node == null) return 0;
+
+      final var left = new SumNumbersTask(node.left, number, splits - 1);
+      left.fork();
+      final var right = new SumNumbersTask(node.right, number, splits - 1).compute();
+      return left.join() + right;
+    }
   }
 }
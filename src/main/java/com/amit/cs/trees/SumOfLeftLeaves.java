@@ -1,7 +1,14 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.LevelLayout;
+import com.amit.cs.common.OffHeapTree;
+import com.amit.cs.common.SubtreeDag;
 import com.amit.cs.common.TreeNode;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * Computes the sum of all left leaf nodes in a binary tree.
  *
@@ -43,4 +50,184 @@ public class SumOfLeftLeaves {
     final var right = sumOfLeftLeaves(root.right, false);
     return left + right;
   }
+
+  /**
+   * Same sum over a {@link FlatTree}. Whether a node is a left leaf only depends on its parent's
+   * {@code left} slot, so a single scan over the arrays is enough: no recursion and no extra memory.
+   */
+  public int sumOfLeftLeaves(FlatTree tree) {
+    int sum = 0;
+    for (int i = 0; i < tree.size; i++) {
+      final var l = tree.left[i];
+      if (l != FlatTree.NIL && tree.isLeaf(l)) sum += tree.val[l];
+    }
+    return sum;
+  }
+
+  /**
+   * Same sum over a {@link LevelLayout}: the left leaves are already marked, so the answer is one
+   * masked reduction over the values by {@link SumKernels}, vectorized when the Vector API module is
+   * present.
+   */
+  public int sumOfLeftLeaves(LevelLayout layout) {
+    return SumKernels.INSTANCE.maskedSum(layout.val, layout.leftLeaf, 0, layout.size);
+  }
+
+  /**
+   * Same sum over an {@link OffHeapTree}: one sequential scan of the columns, as for {@link FlatTree}.
+   */
+  public int sumOfLeftLeaves(OffHeapTree tree) {
+    int sum = 0;
+    for (long i = 0; i < tree.size(); i++) {
+      final var l = tree.left(i);
+      if (l != OffHeapTree.NIL && tree.isLeaf(l)) sum += tree.val(l);
+    }
+    return sum;
+  }
+
+  /**
+   * Sum over a hash-consed {@link SubtreeDag}. Whether a node counts depends on it being a left child,
+   * so the per-subtree answer is "left leaves strictly below this node": a left child contributes its
+   * value when it is a leaf and its own answer otherwise. A forward scan computes that once per distinct
+   * subtree; <code>O(distinct subtrees)</code> time. The root alone is never a left leaf.
+   */
+  public int sumOfLeftLeaves(SubtreeDag dag) {
+    if (dag.isEmpty()) return 0;
+
+    final var below = new int[dag.root() + 1];
+    for (int id = 0; id <= dag.root(); id++) {
+      final var l = dag.left[id];
+      final var r = dag.right[id];
+      var sum = 0;
+      if (l != SubtreeDag.NIL) sum += dag.isLeaf(l) ? dag.val[l] : below[l];
+      if (r != SubtreeDag.NIL) sum += below[r];
+      below[id] = sum;
+    }
+    return below[dag.root()];
+  }
+
+  /**
+   * Stack-safe version of {@link #sumOfLeftLeaves(TreeNode, boolean)} for deep or skewed trees.
+   *
+   * <p>A node's left child is checked from the parent, so leaves are never pushed at all: the
+   * {@link NodeStack} only holds internal nodes and no per-node flag is needed. The thread stack
+   * stays constant regardless of height.</p>
+   */
+  public int sumOfLeftLeavesIterative(TreeNode root, boolean isLeft) {
+    return leftLeavesIterative(root, isLeft);
+  }
+
+  private static int leftLeavesIterative(TreeNode root, boolean isLeft) {
+    if (root == null) return 0;
+    if (root.left == null && root.right == null) {
+      if (isLeft) return root.val;
+      else return 0;
+    }
+
+    final var stack = new NodeStack();
+    stack.push(root);
+
+    int sum = 0;
+    while (!stack.isEmpty()) {
+      final var node = stack.pop();
+      final var left = node.left;
+      final var right = node.right;
+      if (left != null) {
+        if (left.left == null && left.right == null) sum += left.val;
+        else stack.push(left);
+      }
+      if (right != null && (right.left != null || right.right != null)) {
+        stack.push(right);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * <code>O(1)</code>-space version of {@link #sumOfLeftLeaves(TreeNode, boolean)} on a Morris
+   * preorder walk ({@link MorrisTraversal}), for memory-constrained workers and trees of any depth.
+   *
+   * <p>The left child of a node is checked on the node's first visit, before the walk threads the
+   * left subtree, so every {@code right} field it looks at is a real child. All threads are removed
+   * again before returning; the caller must own the tree while this runs, see
+   * {@link MorrisTraversal}.</p>
+   */
+  public int sumOfLeftLeavesMorris(TreeNode root, boolean isLeft) {
+    if (root == null) return 0;
+    if (root.left == null && root.right == null) {
+      if (isLeft) return root.val;
+      else return 0;
+    }
+
+    int sum = 0;
+    var node = root;
+    while (node != null) {
+      if (node.left == null) {
+        node = node.right;
+        continue;
+      }
+
+      final var pre = MorrisTraversal.predecessor(node);
+      if (pre.right == null) {
+        final var left = node.left;
+        if (left.left == null && left.right == null) sum += left.val;
+        pre.right = node;
+        node = node.left;
+      } else {
+        pre.right = null;
+        node = node.right;
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Fork-join version of {@link #sumOfLeftLeaves(TreeNode, boolean)} on the common pool.
+   */
+  public int sumOfLeftLeavesParallel(TreeNode root, boolean isLeft) {
+    return sumOfLeftLeavesParallel(root, isLeft, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Fork-join version of {@link #sumOfLeftLeaves(TreeNode, boolean)}.
+   *
+   * <p>At a node with two children the left subtree is forked and the right one computed in place;
+   * single-child runs are walked in a loop without forking, and after {@link ForkJoinSupport#splitDepth}
+   * nested forks a task finishes with the stack-safe iterative engine.</p>
+   */
+  public int sumOfLeftLeavesParallel(TreeNode root, boolean isLeft, ForkJoinPool pool) {
+    return pool.invoke(new LeftLeavesTask(root, isLeft, ForkJoinSupport.splitDepth(pool)));
+  }
+
+  private static final class LeftLeavesTask extends RecursiveTask<Integer> {
+    private final TreeNode root;
+    private final boolean isLeft;
+    private final int splits;
+
+    LeftLeavesTask(TreeNode root, boolean isLeft, int splits) {
+      this.root = root;
+      this.isLeft = isLeft;
+      this.splits = splits;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (splits == 0) return leftLeavesIterative(root, isLeft);
+
+      var node = root;
+      var left = isLeft;
+      while (node != null) {
+        if (node.left == null && node.right == null) return left ? node.val : 0;
+        if (node.left != null && node.right != null) break;
+        left = node.left != null;
+        node = left ? node.left : node.right;
+      }
+      if (node == null) return 0;
+
+      final var leftTask = new LeftLeavesTask(node.left, true, splits - 1);
+      leftTask.fork();
+      final var right = new LeftLeavesTask(node.right, false, splits - 1).compute();
+      return leftTask.join() + right;
+    }
+  }
 }
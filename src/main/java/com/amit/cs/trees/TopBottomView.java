@@ -1,9 +1,11 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
 import com.amit.cs.common.TreeNode;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.TreeMap;
 
@@ -25,7 +27,15 @@ import java.util.TreeMap;
  * - Nodes are grouped by their horizontal distances (vertical levels) from the root node.
  * - For the top view, the first encountered node at each vertical level is selected.
  * - For the bottom view, the last encountered node at each vertical level is selected.
- * - A {@code TreeMap} is used to order the vertical levels from leftmost to rightmost.
+ * - Horizontal distances of a tree always form a dense range (a child is one column away from
+ *   its parent), so the answers are written into {@code int[]} buffers indexed by column offset
+ *   that grow on whichever end a new column appears. Only a node that extends the range can be
+ *   the first one seen in its column, which is all the top view needs to check.
+ * - The BFS queue keeps nodes and their horizontal distances in parallel arrays, so no
+ *   {@code Tuple} or boxed {@code Integer} is allocated per node.
+ * - {@code topAndBottomView} computes both views in a single BFS pass.
+ * - The original {@code TreeMap} formulations are kept as {@code topViewUsingTreeMap} and
+ *   {@code bottomViewUsingTreeMap} for reference.
  *
  * <strong>Parameters:</strong>
  * - {@code root}: The root of the binary tree as a {@code Tuple} object.
@@ -40,8 +50,8 @@ import java.util.TreeMap;
  * <strong>Complexity:</strong>
  * - Time complexity: O(n), where n is the number of nodes in the binary tree,
  *   as each node is visited exactly once during the BFS traversal.
- * - Space complexity: O(w), where w is the maximum width of the tree,
- *   due to the queue used for BFS.
+ * - Space complexity: O(w + c), where w is the maximum width of the tree (the BFS
+ *   queue) and c is the number of columns (the answer buffers).
  *
  * <strong>Edge cases:</strong>
  * - For an empty tree (null root), returns an empty list.
@@ -63,7 +73,41 @@ public class TopBottomView {
     }
   }
 
+  /**
+   * Top and bottom view of the same tree, each from the leftmost column to the rightmost.
+   */
+  public static final class Views {
+    public final int[] top;
+    public final int[] bottom;
+
+    Views(int[] top, int[] bottom) {
+      this.top = top;
+      this.bottom = bottom;
+    }
+  }
+
   public List<Integer> topView(Tuple root) {
+    if (root == null) return List.of();
+    return toList(views(root.node, true, false).top);
+  }
+
+  public List<Integer> bottomView(Tuple root) {
+    if (root == null) return List.of();
+    return toList(views(root.node, false, true).bottom);
+  }
+
+  /**
+   * Both views from one BFS pass; an empty tree yields two empty arrays.
+   */
+  public Views topAndBottomView(Tuple root) {
+    if (root == null) return new Views(new int[0], new int[0]);
+    return views(root.node, true, true);
+  }
+
+  /**
+   * Reference implementation: a {@code TreeMap} keyed by vertical, fed by a queue of {@code Tuple}s.
+   */
+  public List<Integer> topViewUsingTreeMap(Tuple root) {
 
     if (root == null) return List.of();
 
@@ -95,7 +139,10 @@ public class TopBottomView {
     return result;
   }
 
-  public List<Integer> bottomView(Tuple root) {
+  /**
+   * Reference implementation: a {@code TreeMap} keyed by vertical, fed by a queue of {@code Tuple}s.
+   */
+  public List<Integer> bottomViewUsingTreeMap(Tuple root) {
 
     if (root == null) return List.of();
 
@@ -124,4 +171,146 @@ public class TopBottomView {
     }
     return result;
   }
+
+  /**
+   * BFS engine for the pointer-based views. Nodes and their horizontal distances travel through the
+   * pooled {@link NodeQueue} and {@link IntQueue} in lockstep. The
+   * answers go into {@code int[]} buffers where column {@code hd} lives at {@code origin + hd}; a
+   * column left of slot 0 doubles the buffers and shifts them right, a column past the end doubles
+   * them in place. Unrequested views are left {@code null}.
+   */
+  private Views views(TreeNode root, boolean top, boolean bottom) {
+    var topCols = top ? new int[16] : null;
+    var bottomCols = bottom ? new int[16] : null;
+    int capacity = 16;
+    int origin = 8;
+    int lo = 0;
+    int hi = 0;
+    if (top) topCols[origin] = root.val;
+
+    final var nodes = BfsQueues.nodeQueue();
+    final var hds = BfsQueues.intQueue();
+    try {
+      nodes.offerLast(root);
+      hds.offerLast(0);
+      while (!nodes.isEmpty()) {
+        final var node = nodes.pollFirst();
+        final var hd = hds.pollFirst();
+
+        if (bottom) bottomCols[origin + hd] = node.val;
+
+        for (int side = 0; side < 2; side++) {
+          final var child = side == 0 ? node.left : node.right;
+          if (child == null) continue;
+          final var childHd = side == 0 ? hd - 1 : hd + 1;
+
+          if (childHd < lo || childHd > hi) {
+            if (origin + childHd < 0) {
+              if (top) topCols = growLeft(topCols, capacity);
+              if (bottom) bottomCols = growLeft(bottomCols, capacity);
+              origin += capacity;
+              capacity <<= 1;
+            } else if (origin + childHd == capacity) {
+              if (top) topCols = Arrays.copyOf(topCols, capacity << 1);
+              if (bottom) bottomCols = Arrays.copyOf(bottomCols, capacity << 1);
+              capacity <<= 1;
+            }
+            if (top) topCols[origin + childHd] = child.val;
+            lo = Math.min(lo, childHd);
+            hi = Math.max(hi, childHd);
+          }
+
+          nodes.offerLast(child);
+          hds.offerLast(childHd);
+        }
+      }
+    } finally {
+      BfsQueues.release(nodes);
+      BfsQueues.release(hds);
+    }
+
+    return new Views(
+      top ? Arrays.copyOfRange(topCols, origin + lo, origin + hi + 1) : null,
+      bottom ? Arrays.copyOfRange(bottomCols, origin + lo, origin + hi + 1) : null);
+  }
+
+  private static int[] growLeft(int[] columns, int capacity) {
+    final var grown = new int[capacity << 1];
+    System.arraycopy(columns, 0, grown, capacity, capacity);
+    return grown;
+  }
+
+  /**
+   * Top view of a {@link FlatTree}; see {@link #views(FlatTree, boolean, boolean)}.
+   */
+  public List<Integer> topView(FlatTree tree) {
+    if (tree.isEmpty()) return List.of();
+    return toList(views(tree, true, false).top);
+  }
+
+  /**
+   * Bottom view of a {@link FlatTree}; see {@link #views(FlatTree, boolean, boolean)}.
+   */
+  public List<Integer> bottomView(FlatTree tree) {
+    if (tree.isEmpty()) return List.of();
+    return toList(views(tree, false, true).bottom);
+  }
+
+  /**
+   * Both views of a {@link FlatTree} from one BFS pass.
+   */
+  public Views topAndBottomView(FlatTree tree) {
+    if (tree.isEmpty()) return new Views(new int[0], new int[0]);
+    return views(tree, true, true);
+  }
+
+  /**
+   * Shared BFS for the {@link FlatTree} views. The queue and the vertical of each queued node live in
+   * two parallel {@code int[size]} arrays, and since verticals form a dense range the answer is written
+   * into an {@code int[]} indexed by {@code vertical - min} instead of a {@code TreeMap}.
+   * Replaying the BFS order forwards keeps the last node per vertical (bottom view); replaying it
+   * backwards keeps the first one (top view).
+   */
+  private Views views(FlatTree tree, boolean top, boolean bottom) {
+    final var queue = new int[tree.size];
+    final var vertical = new int[tree.size];
+    int tail = 0;
+    queue[tail++] = tree.root();
+
+    int min = 0;
+    int max = 0;
+    for (int head = 0; head < tail; head++) {
+      final var node = queue[head];
+      if (tree.left[node] != FlatTree.NIL) {
+        vertical[tail] = vertical[head] - 1;
+        min = Math.min(min, vertical[tail]);
+        queue[tail++] = tree.left[node];
+      }
+      if (tree.right[node] != FlatTree.NIL) {
+        vertical[tail] = vertical[head] + 1;
+        max = Math.max(max, vertical[tail]);
+        queue[tail++] = tree.right[node];
+      }
+    }
+
+    int[] topCols = null;
+    int[] bottomCols = null;
+    if (top) {
+      topCols = new int[max - min + 1];
+      for (int i = tail - 1; i >= 0; i--) topCols[vertical[i] - min] = tree.val[queue[i]];
+    }
+    if (bottom) {
+      bottomCols = new int[max - min + 1];
+      for (int i = 0; i < tail; i++) bottomCols[vertical[i] - min] = tree.val[queue[i]];
+    }
+    return new Views(topCols, bottomCols);
+  }
+
+  private static List<Integer> toList(int[] columns) {
+    final var result = new ArrayList<Integer>(columns.length);
+    for (final var value : columns) {
+      result.add(value);
+    }
+    return result;
+  }
 }
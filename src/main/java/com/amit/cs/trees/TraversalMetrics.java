@@ -0,0 +1,254 @@
+package com.amit.cs.trees;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in metrics for the traversals in this package, exported in the Prometheus text format, and the
+ * probes that also feed {@link TreeQueryEvent} to Java Flight Recorder.
+ *
+ * <p><strong>Switch:</strong> metrics are compiled in but only active when the JVM starts with
+ * {@code -Dcom.amit.cs.trees.metrics=true}. {@link #ENABLED} is a {@code static final} constant, and
+ * every call site is written as</p>
+ * <pre>{@code
+ * final var probe = TraversalMetrics.probe(MaxLevelSum.class, "maxLevelSum");
+ * ...
+ * if (probe != null) probe.level(size);
+ * }</pre>
+ * <p>{@link #probe} returns {@code null} unless metrics are on or a flight recording has
+ * {@link TreeQueryEvent} enabled. With both off a query pays one read of the event's enabled flag and
+ * a well-predicted {@code null} test per level or node; no probe is allocated and no counter is
+ * touched.</p>
+ *
+ * <p><strong>What is recorded</strong>, per instrumented method; each series carries a {@code class}
+ * label with the owner's binary name and a {@code method} label, so equal method names in two classes
+ * stay apart:</p>
+ * <ul>
+ *   <li>calls and nodes visited;</li>
+ *   <li>largest BFS frontier (queue size) and greatest depth (explicit DFS stack or tree level) seen
+ *   in one call;</li>
+ *   <li>bytes allocated by the calling thread during the call, when the JVM supports
+ *   {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes} (HotSpot does). This includes
+ *   everything the thread allocated, e.g. result lists;</li>
+ *   <li>latency as a histogram with decade buckets from 1 µs to 10 s.</li>
+ * </ul>
+ * <p>Instrumented: the sequential {@code TreeNode}, {@code FlatTree}, {@code IndexedTree} and
+ * {@code OffHeapTree} BFS methods of {@link LevelOrderTraversal} (the visitor form, which also backs
+ * the list and compact forms, and the stream form of {@link LevelOrderTraversal#levelOrder(TreeNode)},
+ * labelled {@code levelOrderStream}), {@link MaxLevelSum}, {@link RightSideView},
+ * {@link FindBottomLeftValue}, {@link ZigzagLevelOrderTraversal} (the compact forms, which back the list
+ * forms) and {@link VerticalOrderTraversal}, plus {@link MaxPathSum#maxPathSumIterative} and
+ * {@link DiameterOfBinaryTree#diameterOfBinaryTreeIterative}. {@code FlatTree}, {@code IndexedTree} and
+ * {@code OffHeapTree} overloads carry a {@code Flat}, {@code Indexed} or {@code OffHeap} suffix in the
+ * {@code method} label. Not instrumented: the parallel forms, the {@code Dfs} forms, the
+ * {@code LevelLayout} sums and the recursive variants, since tracking recursion depth would cost a
+ * counter per call frame.</p>
+ *
+ * <p><strong>Export:</strong> {@link #prometheusText()} renders the current values;
+ * {@link #serve(InetSocketAddress)} serves them at {@code /metrics} from the JDK's built-in
+ * {@link HttpServer}.</p>
+ */
+public final class TraversalMetrics {
+
+  /** Whether instrumentation is active; fixed at class initialization. */
+  public static final boolean ENABLED = Boolean.getBoolean("com.amit.cs.trees.metrics");
+
+  /** Upper bounds of the latency buckets, in nanoseconds. */
+  private static final long[] LATENCY_BOUNDS = {
+    1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L
+  };
+
+  /** Owner, then method name. */
+  private static final Map<Class<?>, Map<String, MethodMetrics>> METHODS = new ConcurrentHashMap<>();
+  private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+  private TraversalMetrics() {
+  }
+
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    final var bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+    final var threads = (com.sun.management.ThreadMXBean) bean;
+    return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled() ? threads : null;
+  }
+
+  /**
+   * Starts measuring one call of {@code owner.method}, or returns {@code null} when neither metrics nor
+   * {@link TreeQueryEvent} are enabled.
+   */
+  public static Probe probe(Class<?> owner, String method) {
+    final var event = TreeQueryEvent.beginIfEnabled();
+    if (!ENABLED && event == null) return null;
+    return new Probe(owner, method, ENABLED ? metrics(owner, method) : null, event);
+  }
+
+  private static MethodMetrics metrics(Class<?> owner, String method) {
+    return METHODS.computeIfAbsent(owner, k -> new ConcurrentHashMap<>())
+      .computeIfAbsent(method, k -> new MethodMetrics());
+  }
+
+  /** Forgets everything recorded so far. */
+  public static void reset() {
+    METHODS.clear();
+  }
+
+  /** Current values of every instrumented method in the Prometheus text exposition format (0.0.4). */
+  public static String prometheusText() {
+    final var out = new StringBuilder(1024);
+    // Label sets, sorted by class and then method.
+    final var methods = new TreeMap<String, MethodMetrics>();
+    METHODS.forEach((owner, byName) -> byName.forEach((method, m) ->
+      methods.put("class=\"" + owner.getName() + "\",method=\"" + method + "\"", m)));
+
+    header(out, "tree_query_calls_total", "counter", "Instrumented traversal calls.");
+    methods.forEach((labels, m) -> sample(out, "tree_query_calls_total", labels, m.calls.sum()));
+    header(out, "tree_query_nodes_visited_total", "counter", "Nodes visited by instrumented traversals.");
+    methods.forEach((labels, m) -> sample(out, "tree_query_nodes_visited_total", labels, m.nodes.sum()));
+    header(out, "tree_query_allocated_bytes_total", "counter", "Bytes allocated by the calling thread.");
+    methods.forEach((labels, m) -> sample(out, "tree_query_allocated_bytes_total", labels, m.allocated.sum()));
+    header(out, "tree_query_max_frontier", "gauge", "Largest BFS frontier seen in one call.");
+    methods.forEach((labels, m) -> sample(out, "tree_query_max_frontier", labels, m.maxFrontier.get()));
+    header(out, "tree_query_max_depth", "gauge", "Greatest depth in nodes reached in one call.");
+    methods.forEach((labels, m) -> sample(out, "tree_query_max_depth", labels, m.maxDepth.get()));
+
+    header(out, "tree_query_latency_seconds", "histogram", "Latency of instrumented traversal calls.");
+    methods.forEach((labels, m) -> {
+      long cumulative = 0;
+      for (int i = 0; i < LATENCY_BOUNDS.length; i++) {
+        cumulative += m.buckets[i].sum();
+        out.append("tree_query_latency_seconds_bucket{").append(labels).append(",le=\"")
+          .append(seconds(LATENCY_BOUNDS[i])).append("\"} ").append(cumulative).append('\n');
+      }
+      cumulative += m.buckets[LATENCY_BOUNDS.length].sum();
+      out.append("tree_query_latency_seconds_bucket{").append(labels).append(",le=\"+Inf\"} ")
+        .append(cumulative).append('\n');
+      out.append("tree_query_latency_seconds_sum{").append(labels).append("} ")
+        .append(seconds(m.latencyNanos.sum())).append('\n');
+      out.append("tree_query_latency_seconds_count{").append(labels).append("} ")
+        .append(cumulative).append('\n');
+    });
+    return out.toString();
+  }
+
+  /**
+   * Starts an {@link HttpServer} answering {@code GET /metrics} with {@link #prometheusText()}. The
+   * caller owns the server and stops it with {@link HttpServer#stop(int)}.
+   */
+  public static HttpServer serve(InetSocketAddress address) throws IOException {
+    final var server = HttpServer.create(address, 0);
+    server.createContext("/metrics", exchange -> {
+      try (exchange) {
+        final var body = prometheusText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+      }
+    });
+    server.start();
+    return server;
+  }
+
+  private static void header(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(StringBuilder out, String name, String labels, long value) {
+    out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+  }
+
+  private static String seconds(long nanos) {
+    return String.format(Locale.ROOT, "%.9g", nanos / 1e9);
+  }
+
+  /**
+   * Measurements of one call. Not thread-safe: a probe belongs to the call that started it and is
+   * published to the shared counters and to the flight recorder by {@link #finish()}.
+   */
+  public static final class Probe {
+    private final Class<?> owner;
+    private final String method;
+    private final MethodMetrics metrics;
+    private final TreeQueryEvent event;
+    private final long startNanos;
+    private final long startAllocated;
+    private long nodes;
+    private int levels;
+    private int maxFrontier;
+    private int maxDepth;
+
+    private Probe(Class<?> owner, String method, MethodMetrics metrics, TreeQueryEvent event) {
+      this.owner = owner;
+      this.method = method;
+      this.metrics = metrics;
+      this.event = event;
+      startAllocated = THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+    /** Records one BFS level of {@code width} nodes: all of them are visited and all were queued. */
+    public void level(int width) {
+      nodes += width;
+      levels++;
+      if (width > maxFrontier) maxFrontier = width;
+    }
+
+    public void visited(int count) {
+      nodes += count;
+    }
+
+    public void frontier(int size) {
+      if (size > maxFrontier) maxFrontier = size;
+    }
+
+    public void depth(int depth) {
+      if (depth > maxDepth) maxDepth = depth;
+    }
+
+    /** Height in nodes: the BFS level count or the deepest DFS stack, whichever was recorded. */
+    public int height() {
+      return Math.max(levels, maxDepth);
+    }
+
+    public void finish() {
+      final var elapsed = System.nanoTime() - startNanos;
+      final var allocated = THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes() - startAllocated;
+      if (event != null) event.finish(owner, method, nodes, height(), allocated);
+      if (metrics == null) return;
+
+      metrics.calls.increment();
+      metrics.nodes.add(nodes);
+      metrics.allocated.add(allocated);
+      metrics.maxFrontier.accumulate(maxFrontier);
+      metrics.maxDepth.accumulate(maxDepth);
+      metrics.latencyNanos.add(elapsed);
+      int bucket = 0;
+      while (bucket < LATENCY_BOUNDS.length && elapsed > LATENCY_BOUNDS[bucket]) bucket++;
+      metrics.buckets[bucket].increment();
+    }
+  }
+
+  private static final class MethodMetrics {
+    final LongAdder calls = new LongAdder();
+    final LongAdder nodes = new LongAdder();
+    final LongAdder allocated = new LongAdder();
+    final LongAccumulator maxFrontier = new LongAccumulator(Math::max, 0);
+    final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    final LongAdder latencyNanos = new LongAdder();
+    final LongAdder[] buckets = new LongAdder[LATENCY_BOUNDS.length + 1];
+
+    MethodMetrics() {
+      for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses between a BFS and a depth-tracking DFS for per-level queries ({@link RightSideView},
+ * {@link FindBottomLeftValue}) from the shape of the tree.
+ *
+ * <p><strong>Why it matters:</strong> both strategies visit every node once, but the BFS queue holds
+ * the widest level, <code>O(w)</code>, while the DFS stack holds one pending sibling per level,
+ * <code>O(h)</code>. A complete tree of <code>2<sup>26</sup></code> nodes has a last level of over 33
+ * million nodes but only 26 levels; a chain has width 1 and height <code>n</code>. The cheaper
+ * strategy is the one whose working set is smaller: DFS when {@code height < maxWidth}.</p>
+ *
+ * <p><strong>Known shape:</strong> {@link #plan(long, long)} decides from a width and height the caller
+ * already knows, e.g. from how the tree was generated.</p>
+ *
+ * <p><strong>Sampled shape:</strong> {@link #sample(TreeNode)} estimates the shape with {@value #PROBES}
+ * random root-to-leaf descents. Along a descent, the product of the branching factors seen above
+ * depth {@code d} is an unbiased estimate of the number of nodes at depth {@code d} (Knuth's estimator),
+ * so averaging over the probes gives a width profile whose maximum estimates {@code maxWidth}, and the
+ * deepest probe is a lower bound on the height. Each probe stops after {@value #MAX_PROBE_DEPTH} steps,
+ * so sampling costs at most <code>O(probes &middot; min(h, 2<sup>12</sup>))</code> pointer reads and a
+ * width profile of that length. A first descent that meets no node with two children has no choice to
+ * make, so every other descent would repeat it; sampling then stops after that one, which keeps a
+ * chain at a single pass. The random source is seeded, so the same tree always gets the same plan.</p>
+ *
+ * <p><strong>Accuracy:</strong> the estimate is exact for perfect trees and chains and good for
+ * random trees; a tree whose wide part hangs off a single deep path can be misjudged. Either plan gives
+ * the same results, so a wrong guess only costs memory.</p>
+ */
+public final class TraversalPlanner {
+
+  public enum Strategy {
+    /** Level by level on a queue: memory proportional to the widest level. */
+    BFS,
+    /** Depth-first on a stack, tracking each node's depth: memory proportional to the height. */
+    DFS
+  }
+
+  /** Random descents per sample. */
+  static final int PROBES = 32;
+  /** Steps after which a descent stops; deeper than this, the plan is BFS unless the tree is wider. */
+  static final int MAX_PROBE_DEPTH = 1 << 12;
+
+  private static final long SEED = 0x5DEECE66DL;
+
+  private TraversalPlanner() {
+  }
+
+  /** DFS when the tree is shallower than it is wide; BFS otherwise, including the empty tree. */
+  public static Strategy plan(long maxWidth, long height) {
+    return height < maxWidth ? Strategy.DFS : Strategy.BFS;
+  }
+
+  public static Strategy plan(Shape shape) {
+    return plan(Math.round(shape.maxWidth), shape.height);
+  }
+
+  public static Strategy plan(TreeNode root) {
+    return plan(sample(root));
+  }
+
+  public static Strategy plan(FlatTree tree) {
+    return plan(sample(tree));
+  }
+
+  /** Estimated shape of a pointer tree from random descents; see the class comment. */
+  public static Shape sample(TreeNode root) {
+    final var profile = new Profile();
+    if (root == null) return profile.shape(1);
+
+    final var random = new SplittableRandom(SEED);
+    int probes = 0;
+    while (probes < PROBES) {
+      var node = root;
+      double weight = 1;
+      var branched = false;
+      for (int depth = 0; node != null && depth < MAX_PROBE_DEPTH; depth++) {
+        profile.add(depth, weight);
+        final var children = (node.left != null ? 1 : 0) + (node.right != null ? 1 : 0);
+        weight *= children;
+        branched |= children == 2;
+        if (children == 2) node = random.nextBoolean() ? node.left : node.right;
+        else node = node.left != null ? node.left : node.right;
+      }
+      probes++;
+      if (!branched) break;
+    }
+    return profile.shape(probes);
+  }
+
+  /** Estimated shape of a {@link FlatTree}; the same descents over child indexes. */
+  public static Shape sample(FlatTree tree) {
+    final var profile = new Profile();
+    if (tree.isEmpty()) return profile.shape(1);
+
+    final var random = new SplittableRandom(SEED);
+    int probes = 0;
+    while (probes < PROBES) {
+      var node = tree.root();
+      double weight = 1;
+      var branched = false;
+      for (int depth = 0; node != FlatTree.NIL && depth < MAX_PROBE_DEPTH; depth++) {
+        profile.add(depth, weight);
+        final var left = tree.left[node];
+        final var right = tree.right[node];
+        final var children = (left != FlatTree.NIL ? 1 : 0) + (right != FlatTree.NIL ? 1 : 0);
+        weight *= children;
+        branched |= children == 2;
+        if (children == 2) node = random.nextBoolean() ? left : right;
+        else node = left != FlatTree.NIL ? left : right;
+      }
+      probes++;
+      if (!branched) break;
+    }
+    return profile.shape(probes);
+  }
+
+  /** Estimated or known tree shape. */
+  public static final class Shape {
+    /** Estimated number of nodes on the widest level. */
+    public final double maxWidth;
+    /** Height in levels; a lower bound when sampled. */
+    public final int height;
+
+    public Shape(double maxWidth, int height) {
+      this.maxWidth = maxWidth;
+      this.height = height;
+    }
+
+    @Override
+    public String toString() {
+      return "maxWidth~" + Math.round(maxWidth) + " height>=" + height;
+    }
+  }
+
+  /** Sum over probes of the width estimate at each depth. */
+  private static final class Profile {
+    private double[] widths = new double[64];
+    private int height;
+
+    void add(int depth, double weight) {
+      if (depth == widths.length) widths = Arrays.copyOf(widths, depth << 1);
+      widths[depth] += weight;
+      if (depth + 1 > height) height = depth + 1;
+    }
+
+    /** Shape averaged over the {@code probes} descents that were added. */
+    Shape shape(int probes) {
+      double max = 0;
+      for (int d = 0; d < height; d++) max = Math.max(max, widths[d]);
+      return new Shape(max / probes, height);
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.RaggedIntArray;
+import com.amit.cs.common.TreeNode;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of query results keyed by the {@link StructuralHash} of the tree, so structurally
+ * identical trees are answered once.
+ *
+ * <p><strong>What it caches:</strong> {@link MaxPathSum}, {@link DiameterOfBinaryTree},
+ * {@link VerticalOrderTraversal}, {@link LevelOrderTraversal} and {@link ZigzagLevelOrderTraversal}.
+ * Every query has an overload taking a precomputed {@link StructuralHash.Digest}: hashing is as
+ * expensive as the cheaper queries, so a caller asking several questions about one tree should hash
+ * it once (in parallel for large trees) and pass the digest to each call. The overloads without a
+ * digest hash sequentially on every call.</p>
+ *
+ * <p><strong>Eviction:</strong> least recently used, bounded by total weight rather than entry count.
+ * A scalar answer weighs 1, a list answer {@code 1 + rows + values}, so a few huge traversals cannot
+ * crowd out thousands of small answers unnoticed. Results heavier than the whole budget are returned
+ * without being cached. Plain LRU keeps the bookkeeping to a single {@link LinkedHashMap}; an
+ * admission policy such as W-TinyLFU would pay off only for scan-heavy traffic.</p>
+ *
+ * <p><strong>Sharing:</strong> safe for concurrent use. Lookups and insertions hold the cache lock only
+ * for the map operation; a miss computes outside the lock, so two threads missing on the same key may
+ * both compute it. Cached {@link RaggedIntArray} results are shared between callers and must not be
+ * modified through their backing arrays.</p>
+ */
+public final class TreeQueryCache {
+
+  public enum Query {
+    MAX_PATH_SUM,
+    DIAMETER,
+    VERTICAL_ORDER,
+    LEVEL_ORDER,
+    ZIGZAG_LEVEL_ORDER
+  }
+
+  private final long maxWeight;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long weight;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param maxWeight total weight the cache may hold, see the class comment
+   */
+  public TreeQueryCache(long maxWeight) {
+    if (maxWeight <= 0) throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+    this.maxWeight = maxWeight;
+  }
+
+  public int maxPathSum(TreeNode root) {
+    return maxPathSum(StructuralHash.of(root), root);
+  }
+
+  public int maxPathSum(StructuralHash.Digest digest, TreeNode root) {
+    return (Integer) get(digest, Query.MAX_PATH_SUM, () -> new MaxPathSum().maxPathSum(root));
+  }
+
+  public int diameterOfBinaryTree(TreeNode root) {
+    return diameterOfBinaryTree(StructuralHash.of(root), root);
+  }
+
+  public int diameterOfBinaryTree(StructuralHash.Digest digest, TreeNode root) {
+    return (Integer) get(digest, Query.DIAMETER, () -> new DiameterOfBinaryTree().diameterOfBinaryTree(root));
+  }
+
+  /** Vertical order with the root at row 0, column 0, as {@link VerticalOrderTraversal#verticalTraversalCompact}. */
+  public RaggedIntArray verticalTraversal(TreeNode root) {
+    return verticalTraversal(StructuralHash.of(root), root);
+  }
+
+  public RaggedIntArray verticalTraversal(StructuralHash.Digest digest, TreeNode root) {
+    return (RaggedIntArray) get(digest, Query.VERTICAL_ORDER,
+      () -> new VerticalOrderTraversal().verticalTraversalCompact(new VerticalOrderTraversal.Tuple(root, 0, 0)));
+  }
+
+  public RaggedIntArray levelOrder(TreeNode root) {
+    return levelOrder(StructuralHash.of(root), root);
+  }
+
+  public RaggedIntArray levelOrder(StructuralHash.Digest digest, TreeNode root) {
+    return (RaggedIntArray) get(digest, Query.LEVEL_ORDER, () -> new LevelOrderTraversal().levelOrderCompact(root));
+  }
+
+  public RaggedIntArray zigzagLevelOrder(TreeNode root) {
+    return zigzagLevelOrder(StructuralHash.of(root), root);
+  }
+
+  public RaggedIntArray zigzagLevelOrder(StructuralHash.Digest digest, TreeNode root) {
+    return (RaggedIntArray) get(digest, Query.ZIGZAG_LEVEL_ORDER,
+      () -> new ZigzagLevelOrderTraversal().zigzagLevelOrderCompact(root));
+  }
+
+  private Object get(StructuralHash.Digest digest, Query query, Supplier<Object> compute) {
+    final var key = new Key(digest, query);
+    synchronized (entries) {
+      final var cached = entries.get(key);
+      if (cached != null) {
+        hits.increment();
+        return cached.value;
+      }
+    }
+    misses.increment();
+
+    final var value = compute.get();
+    final var entry = new Entry(value, weigh(value));
+    if (entry.weight <= maxWeight) put(key, entry);
+    return value;
+  }
+
+  private void put(Key key, Entry entry) {
+    synchronized (entries) {
+      final var previous = entries.put(key, entry);
+      weight += entry.weight - (previous == null ? 0 : previous.weight);
+      final var eldest = entries.values().iterator();
+      while (weight > maxWeight) {
+        weight -= eldest.next().weight;
+        eldest.remove();
+        evictions.increment();
+      }
+    }
+  }
+
+  private static long weigh(Object value) {
+    if (value instanceof RaggedIntArray) {
+      final var rows = (RaggedIntArray) value;
+      return 1L + rows.rows() + rows.size();
+    }
+    return 1;
+  }
+
+  /** Drops every entry; the counters keep running. */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+      weight = 0;
+    }
+  }
+
+  public Stats stats() {
+    synchronized (entries) {
+      return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight);
+    }
+  }
+
+  /** Point-in-time counters of a {@link TreeQueryCache}. */
+  public static final class Stats {
+    public final long hits;
+    public final long misses;
+    public final long evictions;
+    public final int entries;
+    public final long weight;
+
+    Stats(long hits, long misses, long evictions, int entries, long weight) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.entries = entries;
+      this.weight = weight;
+    }
+
+    /** Fraction of lookups answered from the cache; 0 before the first lookup. */
+    public double hitRate() {
+      final var lookups = hits + misses;
+      return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+      return "hits=" + hits + " misses=" + misses + " evictions=" + evictions + " entries=" + entries
+        + " weight=" + weight;
+    }
+  }
+
+  private static final class Key {
+    private final StructuralHash.Digest digest;
+    private final Query query;
+
+    Key(StructuralHash.Digest digest, Query query) {
+      this.digest = digest;
+      this.query = query;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      final var other = (Key) o;
+      return query == other.query && digest.equals(other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * digest.hashCode() + query.hashCode();
+    }
+  }
+
+  private static final class Entry {
+    private final Object value;
+    private final long weight;
+
+    Entry(Object value, long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.amit.cs.trees;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event for one query of an instrumented traversal, so slow requests can be matched
+ * with the shape of the tree they walked directly in JMC.
+ *
+ * <p><strong>What is recorded:</strong> the query class and method, the nodes visited, the tree height
+ * (BFS levels or deepest DFS stack), the bytes the calling thread allocated during the query, and the
+ * duration, start time and thread that every JFR event carries. The instrumented methods are those
+ * listed in {@link TraversalMetrics}; probes are shared, so the event works whether or not the
+ * Prometheus metrics are switched on.</p>
+ *
+ * <p><strong>Enabling:</strong> the event is named {@value #NAME}, enabled by default with a
+ * {@code 1 ms} threshold, so a recording only keeps the slow queries. Override either in the
+ * {@code .jfc} settings file passed to {@code -XX:StartFlightRecording:settings=...}, or
+ * programmatically:</p>
+ * <pre>{@code
+ * recording.enable(TreeQueryEvent.NAME).withThreshold(Duration.ofMillis(5));
+ * }</pre>
+ * <p>When no recording has the event enabled, {@link TraversalMetrics#probe} allocates nothing.</p>
+ */
+@Name(TreeQueryEvent.NAME)
+@Label("Tree Query")
+@Category({"DSA Playbook", "Trees"})
+@Description("One query of an instrumented binary tree traversal")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class TreeQueryEvent extends Event {
+
+  public static final String NAME = "com.amit.cs.trees.TreeQuery";
+
+  private static final EventType TYPE = EventType.getEventType(TreeQueryEvent.class);
+
+  @Label("Query Class")
+  Class<?> queryClass;
+
+  @Label("Method")
+  String method;
+
+  @Label("Node Count")
+  @Description("Nodes visited by the query")
+  long nodeCount;
+
+  @Label("Height")
+  @Description("Levels of the BFS, or deepest explicit stack of the DFS, in nodes")
+  int height;
+
+  @Label("Bytes Allocated")
+  @Description("Bytes allocated by the calling thread during the query, when the JVM reports them")
+  @DataAmount
+  long bytesAllocated;
+
+  /** A started event, or {@code null} when no recording has this event enabled. */
+  static TreeQueryEvent beginIfEnabled() {
+    if (!TYPE.isEnabled()) return null;
+    final var event = new TreeQueryEvent();
+    event.begin();
+    return event;
+  }
+
+  /** Ends the event and commits it when it passes the recording's threshold. */
+  void finish(Class<?> owner, String method, long nodes, int height, long allocated) {
+    end();
+    if (!shouldCommit()) return;
+    queryClass = owner;
+    this.method = method;
+    nodeCount = nodes;
+    this.height = height;
+    bytesAllocated = allocated;
+    commit();
+  }
+}
@@ -0,0 +1,50 @@
+package com.amit.cs.trees;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link SumKernels} on the {@code jdk.incubator.vector} API, at the widest integer vector the CPU
+ * supports. Lanes accumulate in one vector register and are reduced once per call; the tail shorter
+ * than a vector is summed by a scalar loop. Only loaded by {@link SumKernels} when the module is
+ * present.
+ */
+final class VectorSumKernels extends SumKernels {
+
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  @Override
+  int sum(int[] values, int from, int to) {
+    var acc = IntVector.zero(SPECIES);
+    final var bound = from + SPECIES.loopBound(to - from);
+    int i = from;
+    for (; i < bound; i += SPECIES.length()) {
+      acc = acc.add(IntVector.fromArray(SPECIES, values, i));
+    }
+    int sum = acc.reduceLanes(VectorOperators.ADD);
+    for (; i < to; i++) sum += values[i];
+    return sum;
+  }
+
+  @Override
+  int maskedSum(int[] values, boolean[] mask, int from, int to) {
+    var acc = IntVector.zero(SPECIES);
+    final var bound = from + SPECIES.loopBound(to - from);
+    int i = from;
+    for (; i < bound; i += SPECIES.length()) {
+      acc = acc.add(IntVector.fromArray(SPECIES, values, i), VectorMask.fromArray(SPECIES, mask, i));
+    }
+    int sum = acc.reduceLanes(VectorOperators.ADD);
+    for (; i < to; i++) {
+      if (mask[i]) sum += values[i];
+    }
+    return sum;
+  }
+
+  @Override
+  boolean vectorized() {
+    return true;
+  }
+}
@@ -1,5 +1,7 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.RaggedIntArray;
 import com.amit.cs.common.TreeNode;
 
 import java.util.*;
@@ -15,18 +17,18 @@ import java.util.*;
  * by their value.
  *
  * How it works:
- * - A level-order traversal using a queue is performed to process the tree nodes.
- * - Each node is associated with its vertical and level positions, encapsulated in a `Tuple`.
- * - A nested data structure (TreeMap of TreeMap with PriorityQueue) is used
- *   to store nodes:
- *   - The outer TreeMap organizes nodes by vertical columns.
- *   - Each vertical column contains another TreeMap that groups nodes by their
- *     level depth.
- *   - The PriorityQueue ensures nodes at the same vertical column and level depth
- *     are sorted by their values.
- * - After traversing the entire tree, the stored nodes are extracted from the
- *   data structure and flattened into a list of lists, ordered by vertical columns
- *   from leftmost to rightmost.
+ * - A first pass walks the tree depth-first on explicit primitive stacks and records, for every
+ *   node, its vertical column plus a `long` key packing (level, value), while tracking the
+ *   leftmost and rightmost column.
+ * - Nodes are then bucketed by column offset (`vertical - min`) with a counting sort, so each
+ *   column becomes one contiguous slice of a single `long[]`.
+ * - Sorting a column slice orders it by level first and by value second, because the level sits
+ *   in the high 32 bits of the key and the value, sign-flipped, in the low 32 bits.
+ * - Unpacking the values yields the columns from leftmost to rightmost as a `RaggedIntArray`;
+ *   `verticalTraversal` copies it into modifiable `ArrayList`s, `verticalTraversalCompact` returns
+ *   it as is.
+ * - The original TreeMap / PriorityQueue formulation is kept as `verticalTraversalUsingTreeMap`
+ *   for reference.
  *
  * Edge cases:
  * - If the tree is empty (null root), an empty list is returned.
@@ -35,10 +37,10 @@ import java.util.*;
  *   - If nodes have the same vertical and level positions, values are sorted in ascending order.
  *
  * Complexity:
- * - Time complexity: O(n * log(n)), where n is the number of nodes in the tree.
- *   The TreeMap and PriorityQueue operations introduce additional logarithmic complexity.
- * - Space complexity: O(n), due to the storage of nodes in the TreeMap and
- *   the queue used during traversal.
+ * - Time complexity: O(n + sum of k log k) where k is the size of each column, with no
+ *   per-node objects, boxing or map lookups.
+ * - Space complexity: O(n) in primitive arrays plus O(h) for the traversal stacks, so deep
+ *   or skewed trees do not overflow the call stack.
  *
  * @param root A `Tuple` representing the root of the binary tree with its associated
  *             vertical and level positions. The `node` property of the `Tuple` should
@@ -60,7 +62,19 @@ public class VerticalOrderTraversal {
     }
   }
 
+  /**
+   * Vertical order traversal as a modifiable list of columns, copied from
+   * {@link #verticalTraversalCompact(Tuple)}.
+   */
   public List<List<Integer>> verticalTraversal(Tuple root) {
+    return verticalTraversalCompact(root).toLists();
+  }
+
+  /**
+   * Reference implementation built on {@code TreeMap<Integer, TreeMap<Integer, PriorityQueue<Integer>>>};
+   * allocates a {@code Tuple} and boxed keys per node.
+   */
+  public List<List<Integer>> verticalTraversalUsingTreeMap(Tuple root) {
 
     if (root == null) return List.of();
 
@@ -110,4 +124,147 @@ public class VerticalOrderTraversal {
     }
     return result;
   }
+
+  /**
+   * Same traversal over a {@link FlatTree}, copied from {@link #verticalTraversalCompact(FlatTree)}
+   * into a modifiable list.
+   */
+  public List<List<Integer>> verticalTraversal(FlatTree tree) {
+    return verticalTraversalCompact(tree).toLists();
+  }
+
+  /**
+   * Vertical order traversal returned as a {@link RaggedIntArray}: one row per vertical column, from
+   * leftmost to rightmost. The tree is walked depth-first on explicit stacks and the columns are
+   * built by {@link #byVertical(int, long[], int[], int, int)}.
+   */
+  public RaggedIntArray verticalTraversalCompact(Tuple root) {
+    if (root == null) return RaggedIntArray.empty();
+
+    final var probe = TraversalMetrics.probe(VerticalOrderTraversal.class, "verticalTraversalCompact");
+    try {
+      final var stack = new NodeStack();
+      final var verticals = new IntStack();
+      final var levels = new IntStack();
+      stack.push(root.node);
+      verticals.push(root.vertical);
+      levels.push(root.level);
+
+      var key = new long[64];
+      var vertical = new int[64];
+      int n = 0;
+      int min = root.vertical;
+      int max = root.vertical;
+      while (!stack.isEmpty()) {
+        final var node = stack.pop();
+        final var v = verticals.pop();
+        final var l = levels.pop();
+        if (n == key.length) {
+          key = Arrays.copyOf(key, n << 1);
+          vertical = Arrays.copyOf(vertical, n << 1);
+        }
+        key[n] = pack(l, node.val);
+        vertical[n++] = v;
+        if (probe != null) probe.depth(l - root.level + 1);
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+        if (node.right != null) {
+          stack.push(node.right);
+          verticals.push(v + 1);
+          levels.push(l + 1);
+        }
+        if (node.left != null) {
+          stack.push(node.left);
+          verticals.push(v - 1);
+          levels.push(l + 1);
+        }
+      }
+      if (probe != null) probe.visited(n);
+      return byVertical(n, key, vertical, min, max);
+    } finally {
+      if (probe != null) probe.finish();
+    }
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #verticalTraversalCompact(Tuple)}; the root sits at vertical 0,
+   * level 0. Parents precede their children, so one forward scan assigns every column and level
+   * without a queue or stack.
+   */
+  public RaggedIntArray verticalTraversalCompact(FlatTree tree) {
+    if (tree.isEmpty()) return RaggedIntArray.empty();
+
+    final var probe = TraversalMetrics.probe(VerticalOrderTraversal.class, "verticalTraversalCompactFlat");
+    try {
+      final var n = tree.size;
+      final var key = new long[n];
+      final var vertical = new int[n];
+      int min = 0;
+      int max = 0;
+      for (int i = 0; i < n; i++) {
+        final var v = vertical[i];
+        final var l = (int) (key[i] >> 32);
+        key[i] = pack(l, tree.val[i]);
+        if (probe != null) probe.depth(l + 1);
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+        if (tree.left[i] != FlatTree.NIL) {
+          vertical[tree.left[i]] = v - 1;
+          key[tree.left[i]] = pack(l + 1, 0);
+        }
+        if (tree.right[i] != FlatTree.NIL) {
+          vertical[tree.right[i]] = v + 1;
+          key[tree.right[i]] = pack(l + 1, 0);
+        }
+      }
+      if (probe != null) probe.visited(n);
+      return byVertical(n, key, vertical, min, max);
+    } finally {
+      if (probe != null) probe.finish();
+    }
+  }
+
+  /**
+   * Sort key whose signed {@code long} order is (level, value) order: the level in the high half and
+   * the value with its sign bit flipped, so that it compares unsigned, in the low half.
+   */
+  private static long pack(int level, int value) {
+    return (long) level << 32 | (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+  }
+
+  private static int unpackValue(long key) {
+    return (int) key ^ Integer.MIN_VALUE;
+  }
+
+  /**
+   * Groups {@code n} nodes, given in any order as parallel key/vertical arrays, into columns.
+   *
+   * <p>A counting sort on {@code vertical - min} buckets the keys so that each column is one slice of
+   * a single {@code long[]}, with the column boundaries doubling as CSR offsets. Sorting a slice then
+   * orders the column by level and breaks ties by value.</p>
+   *
+   * <p>Time <code>O(n + &Sigma; k log k)</code> over column sizes <code>k</code>; space <code>O(n)</code>
+   * in primitive arrays.</p>
+   */
+  private static RaggedIntArray byVertical(int n, long[] key, int[] vertical, int min, int max) {
+    final var columns = max - min + 1;
+    final var offsets = new int[columns + 1];
+    for (int i = 0; i < n; i++) offsets[vertical[i] - min + 1]++;
+    for (int c = 0; c < columns; c++) offsets[c + 1] += offsets[c];
+
+    final var next = Arrays.copyOf(offsets, columns);
+    final var bucket = new long[n];
+    for (int i = 0; i < n; i++) {
+      bucket[next[vertical[i] - min]++] = key[i];
+    }
+
+    for (int c = 0; c < columns; c++) {
+      Arrays.sort(bucket, offsets[c], offsets[c + 1]);
+    }
+    final var values = new int[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = unpackValue(bucket[i]);
+    }
+    return new RaggedIntArray(values, offsets);
+  }
 }
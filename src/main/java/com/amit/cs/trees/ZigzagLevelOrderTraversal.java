@@ -1,10 +1,12 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.RaggedIntArray;
 import com.amit.cs.common.TreeNode;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Performs a breadth-first (level-order) traversal of a binary tree with
@@ -53,37 +55,158 @@ import java.util.List;
  */
 public class ZigzagLevelOrderTraversal {
 
+  /**
+   * Zigzag level order as {@code ArrayList}s, copied from {@link #zigzagLevelOrderCompact(TreeNode)}
+   * like the other overloads.
+   */
   public List<List<Integer>> zigzagLevelOrder(TreeNode root) {
-    final var result = new ArrayList<List<Integer>>();
-    if (root == null) return result;
+    return zigzagLevelOrderCompact(root).toLists();
+  }
+
+  /**
+   * Same traversal over a {@link FlatTree}, copied into {@code ArrayList}s from
+   * {@link #zigzagLevelOrderCompact(FlatTree)}.
+   */
+  public List<List<Integer>> zigzagLevelOrder(FlatTree tree) {
+    return zigzagLevelOrderCompact(tree).toLists();
+  }
 
-    final var queue = new ArrayDeque<TreeNode>();
-    queue.offer(root);
+  /**
+   * Zigzag level order returned as a {@link RaggedIntArray}, from a double-ended BFS: values already
+   * come out in zigzag order, so they are appended to one primitive buffer and a row is closed per
+   * level.
+   */
+  public RaggedIntArray zigzagLevelOrderCompact(TreeNode root) {
+    if (root == null) return RaggedIntArray.empty();
 
-    var left = true;
+    final var result = new RaggedIntArray.Builder();
+    final var probe = TraversalMetrics.probe(ZigzagLevelOrderTraversal.class, "zigzagLevelOrderCompact");
+    final var queue = BfsQueues.nodeQueue();
+    try {
+      queue.offerLast(root);
 
-    while (!queue.isEmpty()) {
-      final var queueSize = queue.size();
-      final var level = new ArrayList<Integer>(queueSize);
+      var left = true;
 
-      if (left) {
-        for (int i = 0; i < queueSize; i++) {
-          final var node = queue.pollFirst();
-          level.add(node.val);
-          if (node.left != null) queue.offerLast(node.left);
-          if (node.right != null) queue.offerLast(node.right);
+      while (!queue.isEmpty()) {
+        final var queueSize = queue.size();
+        if (probe != null) probe.level(queueSize);
+
+        if (left) {
+          for (int i = 0; i < queueSize; i++) {
+            final var node = queue.pollFirst();
+            result.add(node.val);
+            if (node.left != null) queue.offerLast(node.left);
+            if (node.right != null) queue.offerLast(node.right);
+          }
+        } else {
+          for (int i = 0; i < queueSize; i++) {
+            final var node = queue.pollLast();
+            result.add(node.val);
+            if (node.right != null) queue.offerFirst(node.right);
+            if (node.left != null) queue.offerFirst(node.left);
+          }
         }
-      } else {
-        for (int i = 0; i < queueSize; i++) {
-          final var node = queue.pollLast();
-          level.add(node.val);
-          if (node.right != null) queue.offerFirst(node.right);
-          if (node.left != null) queue.offerFirst(node.left);
+        result.endRow();
+        left = !left;
+      }
+      return result.build();
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
+    }
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #zigzagLevelOrderCompact(TreeNode)}: each level is appended
+   * left-to-right and reversed in place inside the buffer on right-to-left levels.
+   */
+  public RaggedIntArray zigzagLevelOrderCompact(FlatTree tree) {
+    return zigzagLevelOrderCompact(tree, "zigzagLevelOrderCompactFlat");
+  }
+
+  /**
+   * Same traversal over any {@link IndexedTree}, e.g. a {@link com.amit.cs.common.MappedTree} queried in
+   * place, copied into {@code ArrayList}s like the other overloads; see
+   * {@link #zigzagLevelOrderCompact(IndexedTree)}.
+   */
+  public List<List<Integer>> zigzagLevelOrder(IndexedTree tree) {
+    return zigzagLevelOrderCompact(tree).toLists();
+  }
+
+  /**
+   * {@link IndexedTree} flavour of {@link #zigzagLevelOrderCompact(FlatTree)}.
+   */
+  public RaggedIntArray zigzagLevelOrderCompact(IndexedTree tree) {
+    return zigzagLevelOrderCompact(tree, "zigzagLevelOrderCompactIndexed");
+  }
+
+  /**
+   * The index-based BFS behind the {@link FlatTree} and {@link IndexedTree} overloads, recorded under
+   * {@code method}. A call site that only sees one or two implementations is inlined by the JIT, so
+   * reading a {@link FlatTree} through the interface costs about as much as reading its arrays.
+   */
+  private static RaggedIntArray zigzagLevelOrderCompact(IndexedTree tree, String method) {
+    if (tree.isEmpty()) return RaggedIntArray.empty();
+
+    final var result = new RaggedIntArray.Builder(tree.size(), 16);
+    final var probe = TraversalMetrics.probe(ZigzagLevelOrderTraversal.class, method);
+    final var queue = BfsQueues.intQueue();
+    try {
+      queue.offerLast(tree.root());
+
+      var left = true;
+
+      while (!queue.isEmpty()) {
+        final var levelSize = queue.size();
+        if (probe != null) probe.level(levelSize);
+
+        for (int i = 0; i < levelSize; i++) {
+          final var node = queue.pollFirst();
+          result.add(tree.val(node));
+          final var l = tree.left(node);
+          final var r = tree.right(node);
+          if (l != FlatTree.NIL) queue.offerLast(l);
+          if (r != FlatTree.NIL) queue.offerLast(r);
         }
+
+        if (!left) result.reverseCurrentRow();
+        result.endRow();
+        left = !left;
       }
-      result.add(level);
-      left = !left;
+      return result.build();
+    } finally {
+      if (probe != null) probe.finish();
+      BfsQueues.release(queue);
     }
-    return result;
+  }
+
+  /**
+   * Zigzag order on the common pool; see {@link #zigzagLevelOrderCompactParallel(TreeNode, ForkJoinPool)}.
+   */
+  public RaggedIntArray zigzagLevelOrderCompactParallel(TreeNode root) {
+    return zigzagLevelOrderCompactParallel(root, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Parallel version of {@link #zigzagLevelOrderCompact(TreeNode)} for wide trees. The frontier is
+   * always expanded left to right, so wide levels can be split across {@code pool}'s workers; odd
+   * levels are written to mirrored positions of their row instead of being walked backwards.
+   */
+  public RaggedIntArray zigzagLevelOrderCompactParallel(TreeNode root, ForkJoinPool pool) {
+    return ParallelLevelBfs.run(new ParallelLevelBfs.NodeFrontier(root), true, true, 16, pool).rows;
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #zigzagLevelOrderCompactParallel(TreeNode)} on the common pool.
+   */
+  public RaggedIntArray zigzagLevelOrderCompactParallel(FlatTree tree) {
+    return zigzagLevelOrderCompactParallel(tree, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * {@link FlatTree} flavour of {@link #zigzagLevelOrderCompactParallel(TreeNode, ForkJoinPool)}.
+   */
+  public RaggedIntArray zigzagLevelOrderCompactParallel(FlatTree tree, ForkJoinPool pool) {
+    return ParallelLevelBfs.run(new ParallelLevelBfs.FlatFrontier(tree), true, true, tree.size, pool).rows;
   }
 }
@@ -0,0 +1,93 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatTreeTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static List<TreeNode> sampleTrees() {
+    TreeNode leftChain = new TreeNode(1);
+    leftChain.left = new TreeNode(2);
+    leftChain.left.left = new TreeNode(3);
+    leftChain.left.left.left = new TreeNode(4);
+
+    return List.of(
+      new TreeNode(7),
+      levelOrder(1, 2, 3, 4, 5, 6, 7),
+      levelOrder(1, 2, 3, 4, 5, 6, 7, null, null, 8, 9),
+      levelOrder(1, 2, 3, null, 4, 5, 6),
+      levelOrder(-10, 9, 20, null, null, 15, 7),
+      levelOrder(0, -1, 1, -2, null, null, 2),
+      levelOrder(4, 9, 0, 5, 1),
+      leftChain
+    );
+  }
+
+  private static void assertSameShape(TreeNode expected, TreeNode actual) {
+    if (expected == null) {
+      assertNull(actual);
+      return;
+    }
+    assertNotNull(actual);
+    assertEquals(expected.val, actual.val);
+    assertSameShape(expected.left, actual.left);
+    assertSameShape(expected.right, actual.right);
+  }
+
+  // --- Conversion -------------------------------------------------------------
+
+  @Test
+  void emptyTree_hasNoRoot() {
+    FlatTree tree = FlatTree.of(null);
+
+    assertTrue(tree.isEmpty());
+    assertEquals(FlatTree.NIL, tree.root());
+    assertNull(tree.toTreeNode());
+  }
+
+  @Test
+  void of_numbersNodesInLevelOrder() {
+    //     1
+    //    / \
+    //   2   3
+    //      /
+    //     4
+    FlatTree tree = FlatTree.of(levelOrder(1, 2, 3, null, null, 4));
+
+    assertEquals(4, tree.size);
+    assertArrayEquals(new int[]{1, 2, 3, 4}, tree.val);
+    assertArrayEquals(new int[]{1, -1, 3, -1}, tree.left);
+    assertArrayEquals(new int[]{2, -1, -1, -1}, tree.right);
+  }
+
+  @Test
+  void roundTrip_preservesStructure() {
+    for (TreeNode root : sampleTrees()) {
+      assertSameShape(root, FlatTree.of(root).toTreeNode());
+    }
+  }
+
+  @Test
+  void constructor_rejectsChildBeforeParent() {
+    assertThrows(IllegalArgumentException.class,
+      () -> new FlatTree(new int[]{1, 2}, new int[]{-1, 0}, new int[]{-1, -1}, 2));
+    assertThrows(IllegalArgumentException.class,
+      () -> new FlatTree(new int[]{1}, new int[]{1}, new int[]{-1}, 1));
+  }
+
+  @Test
+  void constructor_rejectsOrphanAndSharedNodes() {
+    assertThrows(IllegalArgumentException.class,
+      () -> new FlatTree(new int[]{5, 7}, new int[]{-1, -1}, new int[]{-1, -1}, 2));
+    assertThrows(IllegalArgumentException.class,
+      () -> new FlatTree(new int[]{1, 2}, new int[]{1, -1}, new int[]{1, -1}, 2));
+    assertThrows(IllegalArgumentException.class,
+      () -> new FlatTree(new int[]{1, 2, 3}, new int[]{1, 2, -1}, new int[]{2, -1, -1}, 3));
+  }
+}
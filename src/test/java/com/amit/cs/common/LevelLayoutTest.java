@@ -0,0 +1,147 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelLayoutTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static TreeNode randomTree(int size, long seed) {
+    Random random = new Random(seed);
+    TreeNode root = new TreeNode(random.nextInt(100));
+    for (int i = 1; i < size; i++) {
+      TreeNode node = root;
+      while (true) {
+        if (random.nextBoolean()) {
+          if (node.left == null) {
+            node.left = new TreeNode(random.nextInt(100));
+            break;
+          }
+          node = node.left;
+        } else {
+          if (node.right == null) {
+            node.right = new TreeNode(random.nextInt(100));
+            break;
+          }
+          node = node.right;
+        }
+      }
+    }
+    return root;
+  }
+
+  /** Walks {@code root} level by level and checks every value, left-leaf flag and offset. */
+  private static void assertMatchesTree(TreeNode root, LevelLayout layout) {
+    Deque<TreeNode> queue = new ArrayDeque<>();
+    Deque<Boolean> isLeft = new ArrayDeque<>();
+    if (root != null) {
+      queue.add(root);
+      isLeft.add(false);
+    }
+    int index = 0;
+    int level = 0;
+    while (!queue.isEmpty()) {
+      assertEquals(index, layout.levelOffsets[level]);
+      for (int k = queue.size(); k > 0; k--) {
+        TreeNode node = queue.poll();
+        boolean left = isLeft.poll();
+        assertEquals(node.val, layout.val[index]);
+        assertEquals(left && node.left == null && node.right == null, layout.leftLeaf[index]);
+        if (node.left != null) {
+          queue.add(node.left);
+          isLeft.add(true);
+        }
+        if (node.right != null) {
+          queue.add(node.right);
+          isLeft.add(false);
+        }
+        index++;
+      }
+      level++;
+    }
+    assertEquals(level, layout.levels());
+    assertEquals(index, layout.size);
+    assertEquals(index, layout.levelOffsets[level]);
+  }
+
+  // --- Tests ------------------------------------------------------------------
+
+  @Test
+  void of_exampleTree() {
+    TreeNode root = new TreeNode(3, new TreeNode(9), new TreeNode(20, new TreeNode(15), new TreeNode(7)));
+    LevelLayout layout = LevelLayout.of(root);
+
+    assertArrayEquals(new int[]{3, 9, 20, 15, 7}, layout.val);
+    assertArrayEquals(new int[]{0, 1, 3, 5}, layout.levelOffsets);
+    assertArrayEquals(new boolean[]{false, true, false, true, false}, layout.leftLeaf);
+    assertEquals(3, layout.levels());
+    assertEquals(5, layout.size);
+  }
+
+  @Test
+  void of_emptyAndSingleNode() {
+    LevelLayout empty = LevelLayout.of((TreeNode) null);
+    assertTrue(empty.isEmpty());
+    assertEquals(0, empty.levels());
+    assertArrayEquals(new int[]{0}, empty.levelOffsets);
+
+    LevelLayout single = LevelLayout.of(new TreeNode(7));
+    assertArrayEquals(new int[]{7}, single.val);
+    assertArrayEquals(new int[]{0, 1}, single.levelOffsets);
+    assertArrayEquals(new boolean[]{false}, single.leftLeaf, "the root is not a left leaf");
+  }
+
+  @Test
+  void of_flatTreeInPreorderGivesBreadthFirstLayout() {
+    // Nodes stored in preorder, so index order is not level order:
+    //        1
+    //       / \
+    //      2   5
+    //     / \
+    //    3   4
+    int nil = FlatTree.NIL;
+    FlatTree preorder = new FlatTree(
+        new int[]{1, 2, 3, 4, 5},
+        new int[]{1, 2, nil, nil, nil},
+        new int[]{4, 3, nil, nil, nil},
+        5);
+    LevelLayout layout = LevelLayout.of(preorder);
+
+    assertArrayEquals(new int[]{1, 2, 5, 3, 4}, layout.val);
+    assertArrayEquals(new int[]{0, 1, 3, 5}, layout.levelOffsets);
+    assertArrayEquals(new boolean[]{false, false, false, true, false}, layout.leftLeaf);
+  }
+
+  @Test
+  void of_rejectsArraysChangedAfterConstruction() {
+    //    1
+    //   / \
+    //  2   3
+    int nil = FlatTree.NIL;
+    FlatTree orphan = new FlatTree(new int[]{1, 2, 3}, new int[]{1, nil, nil}, new int[]{2, nil, nil}, 3);
+    orphan.right[0] = nil;
+    assertThrows(IllegalArgumentException.class, () -> LevelLayout.of(orphan));
+
+    FlatTree shared = new FlatTree(new int[]{1, 2, 3}, new int[]{1, nil, nil}, new int[]{2, nil, nil}, 3);
+    shared.left[2] = 1;
+    assertThrows(IllegalArgumentException.class, () -> LevelLayout.of(shared));
+
+    FlatTree cycle = new FlatTree(new int[]{1, 2, 3}, new int[]{1, nil, nil}, new int[]{2, nil, nil}, 3);
+    cycle.left[1] = 0;
+    assertThrows(IllegalArgumentException.class, () -> LevelLayout.of(cycle));
+  }
+
+  @Test
+  void of_matchesBreadthFirstOrderOnRandomTrees() {
+    for (long seed = 1; seed <= 20; seed++) {
+      TreeNode root = randomTree(1 + (int) (seed * 97), seed);
+      assertMatchesTree(root, LevelLayout.of(root));
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.amit.cs.common;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * LeetCode-style level-order input for the tests of both packages, e.g.
+ * {@code levelOrder(1, 2, 3, null, 4)}. It is the plain boxed, queue-based builder, kept independent
+ * of {@link TreeBuilders} so that {@code TreeBuildersTest} can use it as the reference.
+ */
+public final class LevelOrderTrees {
+
+  private LevelOrderTrees() {
+  }
+
+  /** Tree of the given level-order slots, {@code null} standing for a missing child. */
+  public static TreeNode levelOrder(Integer... vals) {
+    if (vals == null || vals.length == 0 || vals[0] == null) return null;
+    TreeNode root = new TreeNode(vals[0]);
+    Deque<TreeNode> q = new ArrayDeque<>();
+    q.offer(root);
+    int i = 1;
+    while (!q.isEmpty() && i < vals.length) {
+      TreeNode cur = q.poll();
+      if (i < vals.length && vals[i] != null) {
+        cur.left = new TreeNode(vals[i]);
+        q.offer(cur.left);
+      }
+      i++;
+      if (i < vals.length && vals[i] != null) {
+        cur.right = new TreeNode(vals[i]);
+        q.offer(cur.right);
+      }
+      i++;
+    }
+    return root;
+  }
+}
@@ -0,0 +1,116 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedTreeTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  /** Complete tree in level order: node i has children 2i + 1 and 2i + 2. */
+  private static FlatTree completeTree(int size) {
+    int[] val = new int[size];
+    int[] left = new int[size];
+    int[] right = new int[size];
+    for (int i = 0; i < size; i++) {
+      val[i] = i % 19 - 9;
+      left[i] = 2 * i + 1 < size ? 2 * i + 1 : FlatTree.NIL;
+      right[i] = 2 * i + 2 < size ? 2 * i + 2 : FlatTree.NIL;
+    }
+    return new FlatTree(val, left, right, size);
+  }
+
+  // --- Round trip -------------------------------------------------------------
+
+  @Test
+  void writeThenOpen_readsColumnsInPlace(@TempDir Path dir) throws IOException {
+    FlatTree expected = completeTree(100_000);
+    Path file = dir.resolve("tree.bin");
+    MappedTree.write(expected, file);
+
+    MappedTree tree = MappedTree.open(file).verify();
+
+    assertEquals(16 + 12L * 100_000, Files.size(file));
+    assertEquals(expected.size, tree.size());
+    for (int i = 0; i < expected.size; i += 997) {
+      assertEquals(expected.val[i], tree.val(i));
+      assertEquals(expected.left[i], tree.left(i));
+      assertEquals(expected.right[i], tree.right(i));
+    }
+    FlatTree copy = tree.toFlatTree();
+    assertArrayEquals(expected.val, copy.val);
+    assertArrayEquals(expected.left, copy.left);
+    assertArrayEquals(expected.right, copy.right);
+  }
+
+  @Test
+  void emptyTree_roundTrips(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("empty.bin");
+    MappedTree.write((TreeNode) null, file);
+
+    MappedTree tree = MappedTree.open(file);
+    assertTrue(tree.isEmpty());
+    assertEquals(FlatTree.NIL, tree.root());
+  }
+
+  // --- Validation -------------------------------------------------------------
+
+  @Test
+  void open_rejectsForeignOrTruncatedFiles(@TempDir Path dir) throws IOException {
+    Path foreign = dir.resolve("foreign.bin");
+    Files.write(foreign, new byte[32]);
+    assertThrows(StreamCorruptedException.class, () -> MappedTree.open(foreign));
+
+    Path truncated = dir.resolve("truncated.bin");
+    MappedTree.write(completeTree(10), truncated);
+    byte[] bytes = Files.readAllBytes(truncated);
+    Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+    assertThrows(StreamCorruptedException.class, () -> MappedTree.open(truncated));
+  }
+
+  @Test
+  void verify_rejectsChildBeforeParent(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("cycle.bin");
+    ByteBuffer bytes = ByteBuffer.allocate(16 + 12 * 2).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(MappedTree.MAGIC).putInt(MappedTree.VERSION).putInt(2).putInt(0);
+    bytes.putInt(1).putInt(2);     // val
+    bytes.putInt(1).putInt(0);     // left: node 1 points back at the root
+    bytes.putInt(-1).putInt(-1);   // right
+    Files.write(file, bytes.array());
+
+    MappedTree tree = MappedTree.open(file);
+    assertThrows(IllegalStateException.class, tree::verify);
+  }
+
+  @Test
+  void verify_rejectsSharedChildrenAndOrphans(@TempDir Path dir) throws IOException {
+    // Every node's left and right child is the next node: 2^n paths through n nodes.
+    Path shared = dir.resolve("shared.bin");
+    ByteBuffer bytes = ByteBuffer.allocate(16 + 12 * 3).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(MappedTree.MAGIC).putInt(MappedTree.VERSION).putInt(3).putInt(0);
+    bytes.putInt(1).putInt(2).putInt(3);     // val
+    bytes.putInt(1).putInt(2).putInt(-1);    // left
+    bytes.putInt(1).putInt(2).putInt(-1);    // right
+    Files.write(shared, bytes.array());
+    assertThrows(IllegalStateException.class, MappedTree.open(shared)::verify);
+
+    Path orphan = dir.resolve("orphan.bin");
+    bytes = ByteBuffer.allocate(16 + 12 * 3).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(MappedTree.MAGIC).putInt(MappedTree.VERSION).putInt(3).putInt(0);
+    bytes.putInt(1).putInt(2).putInt(3);     // val
+    bytes.putInt(1).putInt(-1).putInt(-1);   // left: node 2 has no parent
+    bytes.putInt(-1).putInt(-1).putInt(-1);  // right
+    Files.write(orphan, bytes.array());
+    assertThrows(IllegalStateException.class, MappedTree.open(orphan)::verify);
+  }
+}
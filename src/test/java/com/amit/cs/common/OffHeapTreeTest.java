@@ -0,0 +1,118 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.util.concurrent.CountDownLatch;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTreeTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static void assertSameColumns(FlatTree expected, OffHeapTree actual) {
+    assertEquals(expected.size, actual.size());
+    for (int i = 0; i < expected.size; i++) {
+      assertEquals(expected.val[i], actual.val(i), "val " + i);
+      assertEquals(expected.left[i], actual.left(i), "left " + i);
+      assertEquals(expected.right[i], actual.right(i), "right " + i);
+    }
+  }
+
+  // --- Building ---------------------------------------------------------------
+
+  @Test
+  void of_numbersNodesLikeFlatTree() {
+    TreeNode root = levelOrder(1, 2, 3, null, 4, 5, 6, 7);
+    try (OffHeapTree tree = OffHeapTree.of(root)) {
+      assertSameColumns(FlatTree.of(root), tree);
+    }
+    try (OffHeapTree tree = OffHeapTree.of(FlatTree.of(root))) {
+      assertSameColumns(FlatTree.of(root), tree);
+    }
+  }
+
+  @Test
+  void emptyTree_hasNoRoot() {
+    try (OffHeapTree tree = OffHeapTree.of((TreeNode) null)) {
+      assertTrue(tree.isEmpty());
+      assertEquals(OffHeapTree.NIL, tree.root());
+    }
+  }
+
+  @Test
+  void builder_spansSeveralChunks() {
+    long size = (3L << OffHeapTree.CHUNK_SHIFT) + 5;
+    OffHeapTree.Builder builder = new OffHeapTree.Builder(size);
+    for (long i = 0; i < size; i++) {
+      builder.add((int) (i % 7), 2 * i + 1 < size, 2 * i + 2 < size);
+    }
+    try (OffHeapTree tree = builder.build()) {
+      long last = size - 1;
+      assertEquals(last, tree.right((last - 2) / 2));
+      assertEquals((int) (last % 7), tree.val(last));
+      assertTrue(tree.isLeaf(last));
+    }
+  }
+
+  @Test
+  void builder_rejectsInconsistentStructure() {
+    assertThrows(IllegalStateException.class, () -> new OffHeapTree.Builder(2).add(1, false, false).build());
+    assertThrows(IllegalStateException.class, () -> new OffHeapTree.Builder(1).add(1, true, false));
+    assertThrows(IllegalStateException.class,
+      () -> new OffHeapTree.Builder(3).add(1, true, false).add(2, false, false).add(3, false, false));
+  }
+
+  @Test
+  void close_rejectsFurtherAccess() {
+    OffHeapTree tree = OffHeapTree.of(new TreeNode(1));
+    tree.close();
+    tree.close();
+
+    assertThrows(IllegalStateException.class, () -> tree.val(0));
+  }
+
+  @Test
+  void close_whileReading_givesReadersAnException() throws InterruptedException {
+    OffHeapTree tree = OffHeapTree.of(levelOrder(1, 2, 3, 4, 5, 6, 7));
+    CountDownLatch reading = new CountDownLatch(1);
+    Throwable[] failure = new Throwable[1];
+    Thread reader = new Thread(() -> {
+      try {
+        while (true) {
+          assertEquals(4, tree.val(3));
+          reading.countDown();
+        }
+      } catch (Throwable e) {
+        failure[0] = e;
+      }
+    });
+    reader.start();
+    reading.await();
+    tree.close();
+    reader.join();
+
+    assertInstanceOf(IllegalStateException.class, failure[0]);
+  }
+
+  // --- Codec ------------------------------------------------------------------
+
+  @Test
+  void readOffHeapTree_decodesWithoutFlatTree() throws IOException {
+    TreeNode root = levelOrder(-10, 9, 20, null, null, 15, 7);
+    byte[] bytes = TreeCodec.encode(root);
+
+    try (OffHeapTree tree = new TreeCodec().readOffHeapTree(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+      assertSameColumns(FlatTree.of(root), tree);
+    }
+
+    byte[] corrupt = {1, 2, 0, 2, 4};
+    assertThrows(StreamCorruptedException.class,
+      () -> new TreeCodec().readOffHeapTree(Channels.newChannel(new ByteArrayInputStream(corrupt))));
+  }
+}
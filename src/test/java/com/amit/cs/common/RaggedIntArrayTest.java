@@ -0,0 +1,90 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RaggedIntArrayTest {
+
+  @Test
+  void builder_closesRowsAndTrimsBuffers() {
+    RaggedIntArray rows = new RaggedIntArray.Builder(2, 1)
+      .add(1).endRow()
+      .add(2).add(3).endRow()
+      .endRow()
+      .add(4).add(5).add(6).endRow()
+      .build();
+
+    assertEquals(4, rows.rows());
+    assertEquals(6, rows.size());
+    assertEquals(0, rows.rowLength(2));
+    assertEquals(5, rows.get(3, 1));
+    assertArrayEquals(new int[]{2, 3}, rows.row(1));
+    assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, rows.values());
+    assertArrayEquals(new int[]{0, 1, 3, 3, 6}, rows.offsets());
+  }
+
+  @Test
+  void reverseCurrentRow_onlyTouchesOpenRow() {
+    RaggedIntArray rows = new RaggedIntArray.Builder()
+      .add(1).add(2).endRow()
+      .add(3).add(4).add(5).reverseCurrentRow().endRow()
+      .build();
+
+    assertEquals(List.of(List.of(1, 2), List.of(5, 4, 3)), rows.asList());
+  }
+
+  @Test
+  void asList_equalsBoxedLists() {
+    RaggedIntArray rows = new RaggedIntArray(new int[]{7, 8, 9}, new int[]{0, 2, 3});
+    List<List<Integer>> expected = List.of(List.of(7, 8), List.of(9));
+
+    assertEquals(expected, rows.asList());
+    assertEquals(expected.hashCode(), rows.asList().hashCode());
+    assertEquals("[[7, 8], [9]]", rows.toString());
+    assertThrows(UnsupportedOperationException.class, () -> rows.asList().get(0).set(0, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> rows.get(1, 1));
+  }
+
+  @Test
+  void equality_ignoresSpareCapacity() {
+    RaggedIntArray exact = new RaggedIntArray(new int[]{1, 2}, new int[]{0, 1, 2});
+    RaggedIntArray padded = new RaggedIntArray(new int[]{1, 2, 99}, new int[]{0, 1, 2});
+
+    assertEquals(exact, padded);
+    assertEquals(exact.hashCode(), padded.hashCode());
+    assertNotEquals(exact, new RaggedIntArray(new int[]{1, 2}, new int[]{0, 2}));
+  }
+
+  @Test
+  void constructor_rejectsInvalidOffsets() {
+    assertThrows(IllegalArgumentException.class, () -> new RaggedIntArray(new int[]{1}, new int[]{1, 1}));
+    assertThrows(IllegalArgumentException.class, () -> new RaggedIntArray(new int[]{1}, new int[]{0, 2}));
+    assertThrows(IllegalArgumentException.class, () -> new RaggedIntArray(new int[]{1, 2}, new int[]{0, 2, 1}));
+    assertEquals(0, RaggedIntArray.empty().rows());
+  }
+
+  @Test
+  void accessors_returnCopies() {
+    RaggedIntArray rows = new RaggedIntArray.Builder().add(1).add(2).endRow().build();
+    rows.values()[0] = 9;
+    rows.offsets()[1] = 0;
+    RaggedIntArray.empty().offsets()[0] = 7;
+
+    assertEquals(List.of(List.of(1, 2)), rows.asList());
+    assertArrayEquals(new int[]{0}, RaggedIntArray.empty().offsets());
+  }
+
+  @Test
+  void toLists_returnsModifiableCopy() {
+    RaggedIntArray rows = new RaggedIntArray.Builder().add(1).add(2).endRow().endRow().build();
+    List<List<Integer>> lists = rows.toLists();
+
+    assertEquals(rows.asList(), lists);
+    lists.get(0).set(0, 9);
+    lists.get(1).add(3);
+    assertEquals(List.of(List.of(1, 2), List.of()), rows.asList());
+  }
+}
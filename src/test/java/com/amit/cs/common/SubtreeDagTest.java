@@ -0,0 +1,109 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubtreeDagTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static void assertSameShape(TreeNode expected, TreeNode actual) {
+    if (expected == null) {
+      assertNull(actual);
+      return;
+    }
+    assertNotNull(actual);
+    assertEquals(expected.val, actual.val);
+    assertSameShape(expected.left, actual.left);
+    assertSameShape(expected.right, actual.right);
+  }
+
+  // --- Compression ------------------------------------------------------------
+
+  @Test
+  void identicalSubtrees_areStoredOnce() {
+    //        1
+    //      /   \
+    //     2     2
+    //    / \   / \
+    //   3   4 3   4
+    TreeNode root = levelOrder(1, 2, 2, 3, 4, 3, 4);
+    SubtreeDag dag = SubtreeDag.of(root);
+
+    assertEquals(4, dag.size);
+    assertEquals(7, dag.nodeCount());
+    assertEquals(dag.left[dag.root()], dag.right[dag.root()]);
+    assertEquals(dag.size, SubtreeDag.of(FlatTree.of(root)).size);
+  }
+
+  @Test
+  void mirroredOrRevaluedSubtrees_stayDistinct() {
+    SubtreeDag dag = SubtreeDag.of(levelOrder(1, 2, 2, 3, null, null, 3));
+
+    assertEquals(4, dag.size);
+  }
+
+  @Test
+  void sharedExpansion_keepsShapeAndSharesNodes() {
+    TreeNode root = levelOrder(1, 2, 2, 3, 4, 3, 4, 5);
+    TreeNode shared = SubtreeDag.of(root).toSharedTreeNode();
+
+    assertSameShape(root, shared);
+    assertSame(shared.left.right, shared.right.right);
+    assertNull(SubtreeDag.of((TreeNode) null).toSharedTreeNode());
+  }
+
+  // --- Builder ----------------------------------------------------------------
+
+  @Test
+  void builder_internsRepeatedTriples() {
+    SubtreeDag.Builder builder = new SubtreeDag.Builder();
+    int leaf = builder.leaf(1);
+    int level = leaf;
+    for (int depth = 1; depth < 100; depth++) {
+      int below = level;
+      level = builder.node(1, below, below);
+      assertEquals(level, builder.node(1, below, below));
+    }
+    assertEquals(leaf, builder.leaf(1));
+
+    SubtreeDag dag = builder.build(level);
+    assertEquals(100, dag.size);
+    assertEquals(Long.MAX_VALUE, dag.nodeCount());
+  }
+
+  @Test
+  void builder_rehashesWithoutLosingIds() {
+    SubtreeDag.Builder builder = new SubtreeDag.Builder();
+    for (int i = 0; i < 10_000; i++) assertEquals(i, builder.leaf(i));
+    for (int i = 0; i < 10_000; i++) assertEquals(i, builder.leaf(i));
+    assertEquals(10_000, builder.size());
+  }
+
+  @Test
+  void builder_rejectsUnknownIds() {
+    SubtreeDag.Builder builder = new SubtreeDag.Builder();
+    int leaf = builder.leaf(1);
+
+    assertThrows(IllegalArgumentException.class, () -> builder.node(1, leaf + 1, SubtreeDag.NIL));
+    assertThrows(IllegalArgumentException.class, () -> builder.build(5));
+    assertTrue(builder.build(SubtreeDag.NIL).isEmpty());
+  }
+
+  @Test
+  void deepChain_isCompressedWithoutRecursion() {
+    TreeNode root = new TreeNode(0);
+    TreeNode cur = root;
+    for (int i = 1; i < 1_000_000; i++) {
+      cur.left = new TreeNode(i % 3);
+      cur = cur.left;
+    }
+
+    SubtreeDag dag = SubtreeDag.of(root);
+
+    assertEquals(1_000_000, dag.size);
+    assertEquals(1_000_000, dag.nodeCount());
+  }
+}
@@ -0,0 +1,137 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeBuildersTest {
+
+  private static final int NULL = Integer.MIN_VALUE;
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static List<Integer[]> sampleInputs() {
+    return List.of(
+      new Integer[]{},
+      new Integer[]{null, 1, 2},
+      new Integer[]{7},
+      new Integer[]{1, 2, 3, 4, 5, 6, 7},
+      new Integer[]{1, 2, 3, null, 4, 5, 6},
+      new Integer[]{1, 2, 3, 4, 5, 6, 7, null, null, 8, 9},
+      new Integer[]{-10, 9, 20, null, null, 15, 7},
+      new Integer[]{1, null, 2, null, 3, null, 4, null, null},
+      new Integer[]{1, 2, null, 3, null, 4},
+      new Integer[]{1, null, null, 5, 6, 7}
+    );
+  }
+
+  private static int[] withSentinel(Integer[] vals) {
+    final int[] out = new int[vals.length];
+    for (int i = 0; i < vals.length; i++) out[i] = vals[i] == null ? NULL : vals[i];
+    return out;
+  }
+
+  private static BitSet nulls(Integer[] vals) {
+    final BitSet nulls = new BitSet(vals.length);
+    for (int i = 0; i < vals.length; i++) if (vals[i] == null) nulls.set(i);
+    return nulls;
+  }
+
+  private static void assertSameShape(TreeNode expected, TreeNode actual) {
+    if (expected == null) {
+      assertNull(actual);
+      return;
+    }
+    assertNotNull(actual);
+    assertEquals(expected.val, actual.val);
+    assertSameShape(expected.left, actual.left);
+    assertSameShape(expected.right, actual.right);
+  }
+
+  private static void assertSameColumns(FlatTree expected, FlatTree actual) {
+    assertEquals(expected.size, actual.size);
+    for (int i = 0; i < expected.size; i++) {
+      assertEquals(expected.val[i], actual.val[i], "val " + i);
+      assertEquals(expected.left[i], actual.left[i], "left " + i);
+      assertEquals(expected.right[i], actual.right[i], "right " + i);
+    }
+  }
+
+  // --- Parity with the boxed helper -------------------------------------------
+
+  @Test
+  void treeNode_matchesBoxedBuilder() {
+    for (Integer[] vals : sampleInputs()) {
+      TreeNode expected = levelOrder(vals);
+
+      assertSameShape(expected, TreeBuilders.treeNode(withSentinel(vals), NULL));
+      assertSameShape(expected, TreeBuilders.treeNode(withSentinel(vals), nulls(vals)));
+      int[] slots = withSentinel(vals);
+      int[] next = {0};
+      assertSameShape(expected, TreeBuilders.treeNode(() -> slots[next[0]++], slots.length, NULL));
+    }
+  }
+
+  @Test
+  void flatTree_numbersLikeFlatTreeOf() {
+    for (Integer[] vals : sampleInputs()) {
+      FlatTree expected = FlatTree.of(levelOrder(vals));
+
+      assertSameColumns(expected, TreeBuilders.flatTree(withSentinel(vals), NULL));
+      assertSameColumns(expected, TreeBuilders.flatTree(withSentinel(vals), nulls(vals)));
+      int[] slots = withSentinel(vals);
+      int[] next = {0};
+      assertSameColumns(expected, TreeBuilders.flatTree(() -> slots[next[0]++], slots.length, NULL));
+    }
+  }
+
+  // --- Null encodings ---------------------------------------------------------
+
+  @Test
+  void bitmap_allowsEveryIntValue() {
+    BitSet nulls = new BitSet();
+    nulls.set(1);
+    TreeNode root = TreeBuilders.treeNode(new int[]{NULL, 0, NULL}, nulls);
+
+    assertEquals(NULL, root.val);
+    assertNull(root.left);
+    assertEquals(NULL, root.right.val);
+  }
+
+  @Test
+  void supplier_stopsReadingOnceTreeIsComplete() {
+    int[] calls = {0};
+    IntSupplier slots = () -> {
+      calls[0]++;
+      return calls[0] == 1 ? 1 : NULL;
+    };
+
+    FlatTree tree = TreeBuilders.flatTree(slots, 1000, NULL);
+
+    assertEquals(1, tree.size);
+    assertEquals(3, calls[0]);
+  }
+
+  @Test
+  void largeCompleteTree_isBuiltWithoutRecursion() {
+    int n = 1_000_000;
+    int[] slots = new int[n];
+    for (int i = 0; i < n; i++) slots[i] = i;
+
+    FlatTree tree = TreeBuilders.flatTree(slots, NULL);
+
+    assertEquals(n, tree.size);
+    assertEquals(n - 1, tree.left[(n - 2) / 2]);
+    assertEquals(n, FlatTree.of(TreeBuilders.treeNode(slots, NULL)).size);
+  }
+
+  @Test
+  void negativeCount_isRejected() {
+    assertThrows(IllegalArgumentException.class, () -> TreeBuilders.flatTree(() -> 1, -1, NULL));
+  }
+}
@@ -0,0 +1,179 @@
+package com.amit.cs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeCodecTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static TreeNode randomTree(int size, long seed) {
+    Random random = new Random(seed);
+    TreeNode root = new TreeNode(random.nextInt());
+    List<TreeNode> nodes = new ArrayList<>(List.of(root));
+    while (nodes.size() < size) {
+      TreeNode parent = nodes.get(random.nextInt(nodes.size()));
+      TreeNode child = new TreeNode(random.nextBoolean() ? random.nextInt() : random.nextInt(200) - 100);
+      if (random.nextBoolean()) {
+        if (parent.left != null) continue;
+        parent.left = child;
+      } else {
+        if (parent.right != null) continue;
+        parent.right = child;
+      }
+      nodes.add(child);
+    }
+    return root;
+  }
+
+  private static void assertSameShape(TreeNode expected, TreeNode actual) {
+    if (expected == null) {
+      assertNull(actual);
+      return;
+    }
+    assertNotNull(actual);
+    assertEquals(expected.val, actual.val);
+    assertSameShape(expected.left, actual.left);
+    assertSameShape(expected.right, actual.right);
+  }
+
+  private static ReadableByteChannel channelOf(byte[] bytes) {
+    return Channels.newChannel(new ByteArrayInputStream(bytes));
+  }
+
+  // --- Round trips ------------------------------------------------------------
+
+  @Test
+  void roundTrip_smallTrees() {
+    List<TreeNode> trees = new ArrayList<>();
+    trees.add(null);
+    trees.add(new TreeNode(7));
+    trees.add(levelOrder(1, 2, 3, null, 4, 5, 6));
+    trees.add(levelOrder(-10, 9, 20, null, null, 15, 7));
+    trees.add(levelOrder(Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1));
+
+    for (TreeNode root : trees) {
+      assertSameShape(root, TreeCodec.decode(TreeCodec.encode(root)));
+    }
+  }
+
+  @Test
+  void roundTrip_largeRandomTreesThroughSmallBuffers() throws IOException {
+    TreeCodec codec = new TreeCodec(16);
+    for (long seed = 1; seed <= 5; seed++) {
+      TreeNode root = randomTree(20_000, seed);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      codec.write(root, Channels.newChannel(bytes));
+
+      assertSameShape(root, codec.readTreeNode(channelOf(bytes.toByteArray())));
+    }
+  }
+
+  @Test
+  void readFlatTree_numbersNodesInLevelOrder() throws IOException {
+    TreeNode root = levelOrder(1, 2, 3, null, null, 4);
+    FlatTree expected = FlatTree.of(root);
+    FlatTree actual = new TreeCodec().readFlatTree(channelOf(TreeCodec.encode(root)));
+
+    assertEquals(expected.size, actual.size);
+    assertArrayEquals(expected.val, actual.val);
+    assertArrayEquals(expected.left, actual.left);
+    assertArrayEquals(expected.right, actual.right);
+  }
+
+  @Test
+  void consecutiveTreesOnOneChannel() throws IOException {
+    TreeCodec codec = new TreeCodec();
+    TreeNode first = levelOrder(1, 2, 3);
+    TreeNode second = levelOrder(4, null, 5);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    codec.write(first, Channels.newChannel(bytes));
+    codec.write((TreeNode) null, Channels.newChannel(bytes));
+    codec.write(second, Channels.newChannel(bytes));
+
+    ReadableByteChannel in = channelOf(bytes.toByteArray());
+    assertSameShape(first, codec.readTreeNode(in));
+    assertNull(codec.readTreeNode(in));
+    assertSameShape(second, codec.readTreeNode(in));
+  }
+
+  @Test
+  void encoding_isCompact() {
+    // 7 nodes: version + count + 2 structure bytes + 7 one-byte values
+    assertEquals(11, TreeCodec.encode(levelOrder(1, 2, 3, 4, 5, 6, 7)).length);
+    assertEquals(2, TreeCodec.encode(null).length);
+  }
+
+  // --- Malformed input --------------------------------------------------------
+
+  @Test
+  void truncatedInput_throwsEof() {
+    byte[] bytes = TreeCodec.encode(levelOrder(1, 2, 3, 4, 5));
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+
+    assertThrows(EOFException.class, () -> new TreeCodec().readFlatTree(channelOf(truncated)));
+  }
+
+  @Test
+  void inconsistentStructure_isRejected() {
+    // version 1, 2 nodes, structure says the root has no children
+    byte[] bytes = {1, 2, 0, 2, 4};
+
+    assertThrows(StreamCorruptedException.class, () -> new TreeCodec().readFlatTree(channelOf(bytes)));
+    assertThrows(IllegalArgumentException.class, () -> TreeCodec.decode(new byte[]{9, 0}));
+  }
+
+  @Test
+  void corruptNodeCount_isRejectedWithoutAllocatingIt() {
+    // 2^31 - 1 nodes declared, then nothing
+    byte[] maxCount = {1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+    // 2^28 nodes declared, then nothing
+    byte[] hugeCount = {1, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x40};
+    // 2^28 nodes declared and a root with two children, then nodes without a parent
+    byte[] orphans = {1, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x40, 0x03, 0x00};
+
+    for (byte[] bytes : List.of(maxCount, hugeCount, orphans)) {
+      assertThrows(IllegalArgumentException.class, () -> TreeCodec.decode(bytes));
+      assertThrows(IOException.class, () -> new TreeCodec().readOffHeapTree(channelOf(bytes)));
+    }
+    assertThrows(EOFException.class, () -> new TreeCodec().readFlatTree(channelOf(hugeCount)));
+    assertThrows(StreamCorruptedException.class, () -> new TreeCodec().readFlatTree(channelOf(orphans)));
+  }
+
+  // --- Channels ---------------------------------------------------------------
+
+  @Test
+  void nonBlockingChannels_areRejected() throws IOException {
+    Pipe pipe = Pipe.open();
+    try (Pipe.SourceChannel source = pipe.source(); Pipe.SinkChannel sink = pipe.sink()) {
+      source.configureBlocking(false);
+      sink.configureBlocking(false);
+      TreeCodec codec = new TreeCodec();
+
+      assertThrows(IllegalArgumentException.class, () -> codec.readFlatTree(source));
+      assertThrows(IllegalArgumentException.class, () -> codec.readOffHeapTree(source));
+      assertThrows(IllegalArgumentException.class, () -> codec.write(levelOrder(1, 2, 3), sink));
+
+      source.configureBlocking(true);
+      sink.configureBlocking(true);
+      codec.write(levelOrder(1, 2, 3), sink);
+      sink.close(); // a read may wait for bytes past the tree, so end the stream
+      assertSameShape(levelOrder(1, 2, 3), codec.readTreeNode(source));
+    }
+  }
+}
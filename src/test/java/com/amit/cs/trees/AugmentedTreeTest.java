@@ -0,0 +1,136 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+import com.amit.cs.trees.AugmentedTree.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AugmentedTreeTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static void assertMatchesRecomputation(AugmentedTree tree) {
+    TreeNode snapshot = tree.toTreeNode();
+    assertEquals(new DiameterOfBinaryTree().diameterOfBinaryTree(snapshot), tree.diameter());
+    assertEquals(new MaxPathSum().maxPathSum(snapshot), tree.maxPathSum());
+  }
+
+  private static List<Node> nodes(AugmentedTree tree) {
+    List<Node> nodes = new ArrayList<>();
+    if (tree.root() != null) nodes.add(tree.root());
+    for (int i = 0; i < nodes.size(); i++) {
+      Node node = nodes.get(i);
+      if (node.left() != null) nodes.add(node.left());
+      if (node.right() != null) nodes.add(node.right());
+    }
+    return nodes;
+  }
+
+  // --- Construction -----------------------------------------------------------
+
+  @Test
+  void of_cachesLeetCodeAnswers() {
+    AugmentedTree tree = AugmentedTree.of(levelOrder(-10, 9, 20, null, null, 15, 7));
+
+    assertEquals(5, tree.size());
+    assertEquals(3, tree.height());
+    assertEquals(3, tree.diameter());
+    assertEquals(42, tree.maxPathSum());
+  }
+
+  @Test
+  void emptyTree_matchesStatelessAlgorithms() {
+    AugmentedTree tree = AugmentedTree.of(null);
+
+    assertNull(tree.root());
+    assertEquals(0, tree.diameter());
+    assertEquals(Integer.MIN_VALUE, tree.maxPathSum());
+  }
+
+  // --- Edits ------------------------------------------------------------------
+
+  @Test
+  void edits_keepCachesInSync() {
+    AugmentedTree tree = new AugmentedTree();
+    Node root = tree.insertRoot(1);
+    Node left = tree.insertLeft(root, 2);
+    tree.insertRight(root, 3);
+    assertEquals(2, tree.diameter());
+    assertEquals(6, tree.maxPathSum());
+
+    Node deep = tree.insertLeft(left, -5);
+    assertEquals(3, tree.diameter());
+    assertEquals(6, tree.maxPathSum());
+
+    tree.setValue(deep, 50);
+    assertEquals(56, tree.maxPathSum());
+    assertEquals(deep, left.left());
+    assertEquals(left, deep.parent());
+
+    tree.removeLeaf(deep);
+    assertEquals(2, tree.diameter());
+    assertEquals(6, tree.maxPathSum());
+    assertNull(deep.parent());
+  }
+
+  @Test
+  void randomEdits_matchFullRecomputation() {
+    Random random = new Random(11);
+    AugmentedTree tree = new AugmentedTree();
+    tree.insertRoot(random.nextInt(21) - 10);
+
+    for (int step = 0; step < 2_000; step++) {
+      List<Node> nodes = nodes(tree);
+      Node node = nodes.get(random.nextInt(nodes.size()));
+      int op = random.nextInt(4);
+      if (op == 0) {
+        tree.setValue(node, random.nextInt(21) - 10);
+      } else if (op == 1 && node.left() == null) {
+        tree.insertLeft(node, random.nextInt(21) - 10);
+      } else if (op == 2 && node.right() == null) {
+        tree.insertRight(node, random.nextInt(21) - 10);
+      } else if (op == 3 && node.left() == null && node.right() == null && node != tree.root()) {
+        tree.removeLeaf(node);
+      }
+      assertMatchesRecomputation(tree);
+      assertEquals(nodes(tree).size(), tree.size());
+    }
+  }
+
+  @Test
+  void deepChain_isBuiltAndRepairedWithoutRecursion() {
+    AugmentedTree tree = new AugmentedTree();
+    Node cur = tree.insertRoot(0);
+    for (int i = 1; i < 100_000; i++) {
+      cur = tree.insertLeft(cur, 1);
+    }
+    tree.setValue(cur, 1_000);
+
+    assertEquals(99_999, tree.diameter());
+    assertEquals(100_998, tree.maxPathSum());
+    assertEquals(100_000, AugmentedTree.of(tree.toTreeNode()).height());
+  }
+
+  // --- Misuse -----------------------------------------------------------------
+
+  @Test
+  void foreignOrRemovedNodes_areRejected() {
+    AugmentedTree tree = AugmentedTree.of(levelOrder(1, 2, 3));
+    AugmentedTree other = AugmentedTree.of(levelOrder(1));
+    Node leaf = tree.root().left();
+
+    assertThrows(IllegalArgumentException.class, () -> other.setValue(leaf, 5));
+    assertThrows(IllegalArgumentException.class, () -> tree.removeLeaf(tree.root()));
+    assertThrows(IllegalArgumentException.class, () -> tree.insertLeft(tree.root(), 4));
+    assertThrows(IllegalStateException.class, () -> tree.insertRoot(4));
+
+    tree.removeLeaf(leaf);
+    assertThrows(IllegalArgumentException.class, () -> tree.insertLeft(leaf, 4));
+  }
+}
@@ -0,0 +1,138 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.amit.cs.trees.TreeFixtures.randomTree;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchQueryExecutorTest {
+
+  // --- Ordering ---------------------------------------------------------------
+
+  @Test
+  void results_comeBackInInputOrder() {
+    List<TreeNode> trees = new ArrayList<>();
+    for (int i = 0; i < 500; i++) trees.add(randomTree(1 + i % 40, i));
+    List<Integer> expected = new ArrayList<>();
+    for (TreeNode tree : trees) expected.add(new MaxPathSum().maxPathSum(tree));
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try (BatchQueryExecutor batch = BatchQueryExecutor.forkJoin(pool, 16)) {
+      assertEquals(expected, batch.run(trees, new MaxPathSum()::maxPathSum));
+      assertEquals(expected, batch.run(trees.stream(), new MaxPathSum()::maxPathSum));
+
+      BatchQueryExecutor.Stats stats = batch.stats();
+      assertEquals(1_000, stats.submitted);
+      assertEquals(1_000, stats.completed);
+      assertEquals(0, stats.inFlight);
+      assertEquals(0, stats.queued);
+      assertTrue(stats.latencyPercentileNanos(0.5) <= stats.latencyPercentileNanos(1.0));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void create_runsOnVirtualThreads() {
+    try (BatchQueryExecutor batch = BatchQueryExecutor.create(8)) {
+      assertTrue(batch.usesVirtualThreads());
+      assertEquals(List.of(true), batch.run(List.of(1), i -> Thread.currentThread().isVirtual()));
+      List<FlatTree> trees = List.of(FlatTree.of(randomTree(10, 1)), FlatTree.of(null));
+
+      assertEquals(List.of(new DiameterOfBinaryTree().diameterOfBinaryTree(trees.get(0)), 0),
+        batch.run(trees, new DiameterOfBinaryTree()::diameterOfBinaryTree));
+    }
+  }
+
+  // --- Backpressure -----------------------------------------------------------
+
+  @Test
+  void inFlightWork_staysWithinWindow() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    AtomicInteger produced = new AtomicInteger();
+
+    ForkJoinPool pool = new ForkJoinPool(8);
+    try (BatchQueryExecutor batch = BatchQueryExecutor.forkJoin(pool, 3)) {
+      List<Integer> results = new ArrayList<>();
+      batch.run(IntStream.range(0, 200).peek(i -> produced.incrementAndGet()).boxed().iterator(), i -> {
+        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return i * 2;
+      }, result -> {
+        results.add(result);
+        assertTrue(produced.get() - results.size() <= 3);
+      });
+
+      assertEquals(200, results.size());
+      assertEquals(398, results.get(199));
+      assertTrue(peak.get() <= 3, "peak " + peak.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // --- Failures ---------------------------------------------------------------
+
+  @Test
+  void failingQuery_failsTheBatch() {
+    try (BatchQueryExecutor batch = BatchQueryExecutor.create(4)) {
+      List<Integer> inputs = List.of(1, 2, 0, 4);
+
+      CompletionException error = assertThrows(CompletionException.class, () -> batch.run(inputs, i -> 10 / i));
+      assertInstanceOf(ArithmeticException.class, error.getCause());
+      assertEquals(1, batch.stats().failed);
+    }
+  }
+
+  @Test
+  void failingQuery_cancelsTheTreesLeftInTheWindow() {
+    // One worker and no compensation threads: while it is parked on the gate, the other trees queue.
+    ForkJoinPool pool = new ForkJoinPool(1, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+      1, 1, 1, p -> true, 1, TimeUnit.MINUTES);
+    CountDownLatch gate = new CountDownLatch(1);
+    AtomicInteger started = new AtomicInteger();
+    try (BatchQueryExecutor batch = BatchQueryExecutor.forkJoin(pool, 8)) {
+      assertThrows(CompletionException.class, () -> batch.run(List.of(0, 1, 2, 3, 4), i -> {
+        if (i == 0) throw new IllegalStateException("first tree fails");
+        started.incrementAndGet();
+        try {
+          gate.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return i;
+      }));
+      gate.countDown();
+      assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+
+      // The worker may pick up one more tree before the failure is seen; the rest never start.
+      assertTrue(started.get() <= 1);
+      assertEquals(started.get(), batch.stats().completed);
+      assertEquals(4 - started.get(), batch.stats().queued);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void invalidWindow_isRejected() {
+    assertThrows(IllegalArgumentException.class, () -> BatchQueryExecutor.create(0));
+  }
+}
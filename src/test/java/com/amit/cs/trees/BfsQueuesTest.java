@@ -0,0 +1,168 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BfsQueuesTest {
+
+  @Test
+  void testIntQueueWrapsAndGrowsInOrder() {
+    IntQueue queue = new IntQueue(4);
+    for (int round = 0; round < 3; round++) {
+      queue.offerLast(round);
+      queue.pollFirst();
+    }
+    for (int i = 0; i < 10; i++) queue.offerLast(i);
+    queue.offerFirst(-1);
+
+    assertEquals(16, queue.capacity());
+    assertEquals(11, queue.size());
+    assertEquals(-1, queue.pollFirst());
+    assertEquals(9, queue.pollLast());
+    for (int i = 0; i < 9; i++) assertEquals(i, queue.pollFirst());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void testNodeQueueUsedAsDeque() {
+    NodeQueue queue = new NodeQueue(2);
+    TreeNode a = new TreeNode(1);
+    TreeNode b = new TreeNode(2);
+    TreeNode c = new TreeNode(3);
+    queue.offerLast(b);
+    queue.offerFirst(a);
+    queue.offerLast(c);
+
+    assertSame(c, queue.pollLast());
+    assertSame(a, queue.pollFirst());
+    assertSame(b, queue.pollFirst());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void testEnsureCapacityRoundsUpToPowerOfTwo() {
+    NodeQueue queue = new NodeQueue();
+    queue.ensureCapacity(1000);
+
+    assertEquals(1024, queue.capacity());
+    assertEquals(2, BfsQueues.capacityFor(0));
+    assertEquals(64, BfsQueues.capacityFor(64));
+    assertEquals(128, BfsQueues.capacityFor(65));
+  }
+
+  @Test
+  void testLeaseIsReusedOnTheSameThread() {
+    NodeQueue first = BfsQueues.nodeQueue();
+    BfsQueues.release(first);
+    NodeQueue second = BfsQueues.nodeQueue();
+    BfsQueues.release(second);
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void testNestedLeaseGetsAFreshQueue() {
+    IntQueue outer = BfsQueues.intQueue();
+    try {
+      outer.offerLast(42);
+      IntQueue inner = BfsQueues.intQueue();
+      assertNotSame(outer, inner);
+      BfsQueues.release(inner);
+      assertEquals(42, outer.pollFirst());
+    } finally {
+      BfsQueues.release(outer);
+    }
+  }
+
+  @Test
+  void testOversizedBufferIsDroppedOnRelease() {
+    NodeQueue queue = BfsQueues.nodeQueue();
+    queue.ensureCapacity(BfsQueues.MAX_RETAINED * 4);
+    queue.offerLast(new TreeNode(1));
+    BfsQueues.release(queue);
+
+    assertTrue(queue.capacity() <= BfsQueues.MAX_RETAINED);
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void testOversizedBufferIsKeptWhileWideQueriesNeedIt() {
+    int wide = BfsQueues.MAX_RETAINED * 2;
+    IntQueue queue = BfsQueues.intQueue();
+    for (int i = 0; i < wide; i++) queue.offerLast(i);
+    BfsQueues.release(queue);
+    int capacity = queue.capacity();
+    assertTrue(capacity >= wide);
+
+    IntQueue again = BfsQueues.intQueue();
+    assertSame(queue, again);
+    for (int i = 0; i < wide; i++) again.offerLast(i);
+    BfsQueues.release(again);
+    assertEquals(capacity, again.capacity(), "a second wide query reuses the buffer");
+
+    IntQueue narrow = BfsQueues.intQueue();
+    narrow.offerLast(1);
+    BfsQueues.release(narrow);
+    assertTrue(narrow.capacity() <= BfsQueues.MAX_RETAINED, "a narrow query drops it");
+  }
+
+  @Test
+  void testPresizeGrowsAndRetainsOnlyTheRequestedKind() throws InterruptedException {
+    int[] capacities = new int[4];
+    // A fresh thread, so the raised limit does not leak into other tests.
+    Thread thread = new Thread(() -> {
+      BfsQueues.presize(BfsQueues.Kind.NODE, BfsQueues.MAX_RETAINED * 2);
+      NodeQueue queue = BfsQueues.nodeQueue();
+      capacities[0] = queue.capacity();
+      queue.offerLast(new TreeNode(1));
+      BfsQueues.release(queue);
+      capacities[1] = queue.capacity();
+
+      IntQueue ints = BfsQueues.intQueue();
+      capacities[2] = ints.capacity();
+      BfsQueues.release(ints);
+
+      BfsQueues.resetRetention();
+      capacities[3] = queue.capacity();
+    });
+    thread.start();
+    thread.join();
+
+    assertEquals(BfsQueues.MAX_RETAINED * 4, capacities[0], "1.5 x maxWidth, rounded up");
+    assertEquals(capacities[0], capacities[1]);
+    assertTrue(capacities[2] <= BfsQueues.MAX_RETAINED, "other kinds are not presized");
+    assertTrue(capacities[3] <= BfsQueues.MAX_RETAINED, "reset drops the presized buffer");
+    assertThrows(IllegalArgumentException.class, () -> BfsQueues.presize(BfsQueues.Kind.INT, -1));
+  }
+
+  @Test
+  void testQueryFromVisitorCallbackDoesNotCorruptOuterTraversal() {
+    //     1
+    //    / \
+    //   2   3
+    TreeNode root = new TreeNode(1);
+    root.left = new TreeNode(2);
+    root.right = new TreeNode(3);
+    FlatTree flat = FlatTree.of(root);
+    RightSideView view = new RightSideView();
+    MaxLevelSum maxLevelSum = new MaxLevelSum();
+
+    StringBuilder seen = new StringBuilder();
+    new LevelOrderTraversal().levelOrder(root, value -> {
+      seen.append(value);
+      assertEquals(List.of(1, 3), view.rightSideView(root));
+      assertEquals(2, maxLevelSum.maxLevelSum(flat));
+    });
+
+    assertEquals("123", seen.toString());
+  }
+}
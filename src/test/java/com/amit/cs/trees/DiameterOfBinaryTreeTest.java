@@ -0,0 +1,110 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.amit.cs.trees.TreeFixtures.bushyTreeWithTail;
+import static com.amit.cs.trees.TreeFixtures.chain;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for DiameterOfBinaryTree: the recursive method and its stack-safe iterative counterpart
+ * must agree, and the iterative one must survive chains far deeper than the thread stack allows.
+ */
+class DiameterOfBinaryTreeTest {
+
+  @Test
+  void testSingleNodeTree() {
+    DiameterOfBinaryTree solver = new DiameterOfBinaryTree();
+    assertEquals(0, solver.diameterOfBinaryTreeIterative(new TreeNode(1)));
+    assertEquals(0, new DiameterOfBinaryTree().diameterOfBinaryTree(new TreeNode(1)));
+  }
+
+  @Test
+  void testEmptyTreeIterative() {
+    assertEquals(0, new DiameterOfBinaryTree().diameterOfBinaryTreeIterative(null));
+  }
+
+  @Test
+  void testPathThroughRoot() {
+    //       1
+    //      / \
+    //     2   3
+    //    / \
+    //   4   5
+    TreeNode root = new TreeNode(1, new TreeNode(2, new TreeNode(4), new TreeNode(5)), new TreeNode(3));
+
+    assertEquals(3, new DiameterOfBinaryTree().diameterOfBinaryTree(root));
+    assertEquals(3, new DiameterOfBinaryTree().diameterOfBinaryTreeIterative(root));
+  }
+
+  @Test
+  void testPathNotThroughRoot() {
+    //         1
+    //        /
+    //       2
+    //      / \
+    //     3   4
+    //    /     \
+    //   5       6
+    TreeNode root = new TreeNode(1,
+      new TreeNode(2, new TreeNode(3, new TreeNode(5), null), new TreeNode(4, null, new TreeNode(6))),
+      null);
+
+    assertEquals(4, new DiameterOfBinaryTree().diameterOfBinaryTree(root));
+    assertEquals(4, new DiameterOfBinaryTree().diameterOfBinaryTreeIterative(root));
+  }
+
+  @Test
+  void testIterativeHandlesDeepChain() {
+    TreeNode root = chain(1_000_000, true);
+    root.right = new TreeNode(-1);
+
+    assertEquals(1_000_000, new DiameterOfBinaryTree().diameterOfBinaryTreeIterative(root));
+  }
+
+  @Test
+  void testInstanceIsReusableAcrossTrees() {
+    DiameterOfBinaryTree solver = new DiameterOfBinaryTree();
+    TreeNode deep = new TreeNode(1, new TreeNode(2, new TreeNode(4), new TreeNode(5)), new TreeNode(3));
+
+    assertEquals(3, solver.diameterOfBinaryTree(deep));
+    assertEquals(0, solver.diameterOfBinaryTree(new TreeNode(9)));
+    assertEquals(0, solver.diameterOfBinaryTree((TreeNode) null));
+  }
+
+  @Test
+  void testSharedInstanceAcrossThreads() {
+    DiameterOfBinaryTree solver = new DiameterOfBinaryTree();
+
+    List<Integer> lengths = IntStream.range(1, 200).boxed().collect(Collectors.toList());
+    List<Integer> diameters = lengths.parallelStream()
+      .map(n -> solver.diameterOfBinaryTree(chain(n, true)))
+      .collect(Collectors.toList());
+
+    assertEquals(lengths.stream().map(n -> n - 1).collect(Collectors.toList()), diameters);
+  }
+
+  @Test
+  void testParallelMatchesSequential() {
+    DiameterOfBinaryTree solver = new DiameterOfBinaryTree();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 3; seed++) {
+        TreeNode root = bushyTreeWithTail(100_000, 50_000, seed);
+        int expected = solver.diameterOfBinaryTreeIterative(root);
+
+        assertEquals(expected, solver.diameterOfBinaryTreeParallel(root));
+        assertEquals(expected, solver.diameterOfBinaryTreeParallel(root, pool));
+      }
+      assertEquals(0, solver.diameterOfBinaryTreeParallel(null));
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package com.amit.cs.trees;
 
 import com.amit.cs.common.TreeNode;
+import com.amit.cs.common.FlatTree;
 import org.junit.jupiter.api.Test;
 
+import static com.amit.cs.trees.TreeFixtures.chain;
+import static com.amit.cs.trees.TreeFixtures.randomTree;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class FindBottomLeftValueTest {
@@ -110,4 +113,39 @@ class FindBottomLeftValueTest {
 
     assertEquals(-2, result, "The method should handle negative values and return the correct leftmost value.");
   }
-}
\ No newline at end of file
+
+  // --- Depth-first variant ----------------------------------------------------
+
+  @Test
+  void dfsMatchesBfsOnRandomTrees() {
+    FindBottomLeftValue solution = new FindBottomLeftValue();
+    for (long seed = 0; seed < 50; seed++) {
+      TreeNode root = randomTree(1 + (int) (seed * 37 % 500), seed);
+      int expected = solution.findBottomLeftValue(root);
+      assertEquals(expected, solution.findBottomLeftValueDfs(root));
+      assertEquals(expected, solution.findBottomLeftValueDfs(FlatTree.of(root)));
+      assertEquals(expected, solution.findBottomLeftValueAdaptive(FlatTree.of(root)));
+      assertEquals(expected, solution.findBottomLeftValue(root, TraversalPlanner.Strategy.DFS));
+    }
+  }
+
+  @Test
+  void dfsPicksTheLeftmostNodeOfTheDeepestLevel() {
+    FindBottomLeftValue solution = new FindBottomLeftValue();
+    //        1
+    //       / \
+    //      2   3
+    //         / \
+    //        5   6
+    TreeNode root = new TreeNode(1, new TreeNode(2), new TreeNode(3, new TreeNode(5), new TreeNode(6)));
+    assertEquals(5, solution.findBottomLeftValueDfs(root));
+    assertEquals(7, solution.findBottomLeftValueDfs(new TreeNode(7)));
+  }
+
+  @Test
+  void dfsHandlesDeepTrees() {
+    FindBottomLeftValue solution = new FindBottomLeftValue();
+    assertEquals(200_000, solution.findBottomLeftValueDfs(chain(200_000, false)));
+    assertEquals(200_000, solution.findBottomLeftValueDfs(FlatTree.of(chain(200_000, true))));
+  }
+}
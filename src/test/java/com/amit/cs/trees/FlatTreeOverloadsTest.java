@@ -0,0 +1,184 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.MappedTree;
+import com.amit.cs.common.OffHeapTree;
+import com.amit.cs.common.SubtreeDag;
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that every {@link FlatTree}, {@link com.amit.cs.common.IndexedTree} and {@link OffHeapTree}
+ * overload in this package returns exactly what the {@link TreeNode} version returns for the same tree.
+ */
+class FlatTreeOverloadsTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static List<TreeNode> sampleTrees() {
+    TreeNode leftChain = new TreeNode(1);
+    leftChain.left = new TreeNode(2);
+    leftChain.left.left = new TreeNode(3);
+    leftChain.left.left.left = new TreeNode(4);
+
+    return List.of(
+      new TreeNode(7),
+      levelOrder(1, 2, 3, 4, 5, 6, 7),
+      levelOrder(1, 2, 3, 4, 5, 6, 7, null, null, 8, 9),
+      levelOrder(1, 2, 3, null, 4, 5, 6),
+      levelOrder(-10, 9, 20, null, null, 15, 7),
+      levelOrder(0, -1, 1, -2, null, null, 2),
+      levelOrder(4, 9, 0, 5, 1),
+      leftChain
+    );
+  }
+
+  // --- Tests ------------------------------------------------------------------
+
+  @Test
+  void levelShapedOverloads_matchTreeNodeVersions() {
+    for (TreeNode root : sampleTrees()) {
+      FlatTree tree = FlatTree.of(root);
+
+      assertEquals(new LevelOrderTraversal().levelOrder(root), new LevelOrderTraversal().levelOrder(tree));
+      assertEquals(new ZigzagLevelOrderTraversal().zigzagLevelOrder(root),
+        new ZigzagLevelOrderTraversal().zigzagLevelOrder(tree));
+      assertEquals(new RightSideView().rightSideView(root), new RightSideView().rightSideView(tree));
+      assertEquals(new FindBottomLeftValue().findBottomLeftValue(root),
+        new FindBottomLeftValue().findBottomLeftValue(tree));
+      assertEquals(new MaxLevelSum().maxLevelSum(root), new MaxLevelSum().maxLevelSum(tree));
+    }
+  }
+
+  @Test
+  void postOrderOverloads_matchTreeNodeVersions() {
+    for (TreeNode root : sampleTrees()) {
+      FlatTree tree = FlatTree.of(root);
+
+      assertEquals(new DiameterOfBinaryTree().diameterOfBinaryTree(root),
+        new DiameterOfBinaryTree().diameterOfBinaryTree(tree));
+      assertEquals(new MaxPathSum().maxPathSum(root), new MaxPathSum().maxPathSum(tree));
+      assertEquals(new SumNumbers().sumNumbers(root), new SumNumbers().sumNumbers(tree));
+      assertEquals(new SumOfLeftLeaves().sumOfLeftLeaves(root, false),
+        new SumOfLeftLeaves().sumOfLeftLeaves(tree));
+    }
+  }
+
+  @Test
+  void verticalOverloads_matchTreeNodeVersions() {
+    for (TreeNode root : sampleTrees()) {
+      FlatTree tree = FlatTree.of(root);
+      TopBottomView views = new TopBottomView();
+      VerticalOrderTraversal vertical = new VerticalOrderTraversal();
+
+      assertEquals(views.topView(new TopBottomView.Tuple(root, 0, 0)), views.topView(tree));
+      assertEquals(views.bottomView(new TopBottomView.Tuple(root, 0, 0)), views.bottomView(tree));
+      assertEquals(vertical.verticalTraversal(new VerticalOrderTraversal.Tuple(root, 0, 0)),
+        vertical.verticalTraversal(tree));
+    }
+  }
+
+  @Test
+  void mappedTreeOverloads_matchTreeNodeVersions(@TempDir Path dir) throws IOException {
+    int n = 0;
+    for (TreeNode root : sampleTrees()) {
+      Path file = dir.resolve("tree-" + n++ + ".bin");
+      MappedTree.write(root, file);
+      MappedTree tree = MappedTree.open(file);
+
+      assertEquals(new LevelOrderTraversal().levelOrder(root), new LevelOrderTraversal().levelOrder(tree));
+      assertEquals(new LevelOrderTraversal().levelOrderCompact(root),
+        new LevelOrderTraversal().levelOrderCompact(tree));
+      assertEquals(new ZigzagLevelOrderTraversal().zigzagLevelOrder(root),
+        new ZigzagLevelOrderTraversal().zigzagLevelOrder(tree));
+      assertEquals(new RightSideView().rightSideView(root), new RightSideView().rightSideView(tree));
+      assertEquals(new FindBottomLeftValue().findBottomLeftValue(root),
+        new FindBottomLeftValue().findBottomLeftValue(tree));
+      assertEquals(new MaxLevelSum().maxLevelSum(root), new MaxLevelSum().maxLevelSum(tree));
+      assertEquals(new MaxPathSum().maxPathSum(root), new MaxPathSum().maxPathSum(tree));
+    }
+  }
+
+  @Test
+  void offHeapOverloads_matchTreeNodeVersions() {
+    for (TreeNode root : sampleTrees()) {
+      try (OffHeapTree tree = OffHeapTree.of(root)) {
+        List<List<Integer>> levels = new ArrayList<>();
+        new LevelOrderTraversal().levelOrder(tree, new LevelVisitor() {
+          @Override
+          public void beginLevel(int depth, int width) {
+            levels.add(new ArrayList<>(width));
+          }
+
+          @Override
+          public void value(int value) {
+            levels.get(levels.size() - 1).add(value);
+          }
+        });
+
+        assertEquals(new LevelOrderTraversal().levelOrder(root), levels);
+        assertEquals(new RightSideView().rightSideView(root), new RightSideView().rightSideView(tree));
+        assertEquals(new FindBottomLeftValue().findBottomLeftValue(root),
+          new FindBottomLeftValue().findBottomLeftValue(tree));
+        assertEquals(new MaxLevelSum().maxLevelSum(root), new MaxLevelSum().maxLevelSum(tree));
+        assertEquals(new DiameterOfBinaryTree().diameterOfBinaryTree(root),
+          new DiameterOfBinaryTree().diameterOfBinaryTree(tree));
+        assertEquals(new MaxPathSum().maxPathSum(root), new MaxPathSum().maxPathSum(tree));
+        assertEquals(new SumNumbers().sumNumbers(root), new SumNumbers().sumNumbers(tree));
+        assertEquals(new SumOfLeftLeaves().sumOfLeftLeaves(root, false),
+          new SumOfLeftLeaves().sumOfLeftLeaves(tree));
+      }
+    }
+  }
+
+  @Test
+  void dagOverloads_matchTreeNodeVersions() {
+    for (TreeNode root : sampleTrees()) {
+      SubtreeDag dag = SubtreeDag.of(root);
+
+      assertEquals(new DiameterOfBinaryTree().diameterOfBinaryTree(root),
+        new DiameterOfBinaryTree().diameterOfBinaryTree(dag));
+      assertEquals(new MaxPathSum().maxPathSum(root), new MaxPathSum().maxPathSum(dag));
+      assertEquals(new SumOfLeftLeaves().sumOfLeftLeaves(root, false),
+        new SumOfLeftLeaves().sumOfLeftLeaves(dag));
+    }
+  }
+
+  @Test
+  void dagOverloads_handleExponentiallyLargeTrees() {
+    // A complete tree of height 30 (2^30 - 1 nodes) described by 30 distinct subtrees.
+    SubtreeDag.Builder builder = new SubtreeDag.Builder();
+    int level = builder.leaf(1);
+    for (int depth = 1; depth < 30; depth++) level = builder.node(1, level, level);
+    SubtreeDag dag = builder.build(level);
+
+    assertEquals((1L << 30) - 1, dag.nodeCount());
+    assertEquals(58, new DiameterOfBinaryTree().diameterOfBinaryTree(dag));
+    assertEquals(59, new MaxPathSum().maxPathSum(dag));
+    assertEquals(1 << 28, new SumOfLeftLeaves().sumOfLeftLeaves(dag));
+  }
+
+  @Test
+  void emptyFlatTree_overloadsReturnEmptyResults() {
+    FlatTree tree = FlatTree.of(null);
+
+    assertEquals(List.of(), new LevelOrderTraversal().levelOrder(tree));
+    assertEquals(List.of(), new ZigzagLevelOrderTraversal().zigzagLevelOrder(tree));
+    assertEquals(List.of(), new RightSideView().rightSideView(tree));
+    assertEquals(0, new MaxLevelSum().maxLevelSum(tree));
+    assertEquals(0, new DiameterOfBinaryTree().diameterOfBinaryTree(tree));
+    assertEquals(0, new SumNumbers().sumNumbers(tree));
+    assertEquals(0, new SumOfLeftLeaves().sumOfLeftLeaves(tree));
+    assertEquals(List.of(), new TopBottomView().topView(tree));
+    assertEquals(List.of(), new VerticalOrderTraversal().verticalTraversal(tree));
+  }
+}
@@ -0,0 +1,95 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+import com.amit.cs.trees.FusedLevelQueries.Query;
+import com.amit.cs.trees.FusedLevelQueries.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.amit.cs.trees.TreeFixtures.randomTree;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FusedLevelQueriesTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static List<Integer> toList(int[] values) {
+    List<Integer> list = new ArrayList<>(values.length);
+    for (int value : values) list.add(value);
+    return list;
+  }
+
+  private static void assertMatchesSingleQueries(TreeNode root, Result result) {
+    assertEquals(new MaxLevelSum().maxLevelSum(root), result.maxLevelSum());
+    assertEquals(new RightSideView().rightSideView(root), toList(result.rightSideView()));
+    assertEquals(new FindBottomLeftValue().findBottomLeftValue(root), result.bottomLeftValue());
+    assertEquals(new LevelOrderTraversal().levelOrder(root), result.levelOrder().asList());
+    assertEquals(new ZigzagLevelOrderTraversal().zigzagLevelOrder(root), result.zigzagLevelOrder().asList());
+  }
+
+  // --- Parity -----------------------------------------------------------------
+
+  @Test
+  void allQueries_matchSingleQueryClasses() {
+    for (long seed = 1; seed <= 20; seed++) {
+      TreeNode root = randomTree(1 + (int) seed * 37, seed);
+      EnumSet<Query> all = EnumSet.allOf(Query.class);
+
+      assertMatchesSingleQueries(root, FusedLevelQueries.run(root, all));
+      assertMatchesSingleQueries(root, FusedLevelQueries.run(FlatTree.of(root), all));
+    }
+  }
+
+  @Test
+  void levelsCountTreeHeight() {
+    TreeNode root = new TreeNode(1);
+    root.left = new TreeNode(2);
+    root.left.right = new TreeNode(3);
+
+    assertEquals(3, FusedLevelQueries.run(root, EnumSet.noneOf(Query.class)).levels());
+  }
+
+  // --- Requested subsets ------------------------------------------------------
+
+  @Test
+  void unrequestedQuery_isRejected() {
+    Result result = FusedLevelQueries.run(randomTree(10, 7), EnumSet.of(Query.RIGHT_SIDE_VIEW));
+
+    assertEquals(EnumSet.of(Query.RIGHT_SIDE_VIEW), result.queries());
+    assertThrows(IllegalStateException.class, result::maxLevelSum);
+    assertThrows(IllegalStateException.class, result::levelOrder);
+  }
+
+  @Test
+  void emptyTree_returnsEmptyAnswers() {
+    Result result = FusedLevelQueries.run((TreeNode) null, EnumSet.allOf(Query.class));
+
+    assertEquals(0, result.levels());
+    assertEquals(0, result.maxLevelSum());
+    assertEquals(0, result.rightSideView().length);
+    assertEquals(0, result.levelOrder().rows());
+    assertEquals(0, result.zigzagLevelOrder().rows());
+    assertThrows(NoSuchElementException.class, result::bottomLeftValue);
+  }
+
+  @Test
+  void deepChain_growsRightSideView() {
+    TreeNode root = new TreeNode(0);
+    TreeNode cur = root;
+    for (int i = 1; i < 10_000; i++) {
+      cur.right = new TreeNode(i);
+      cur = cur.right;
+    }
+
+    Result result = FusedLevelQueries.run(root, EnumSet.of(Query.RIGHT_SIDE_VIEW, Query.BOTTOM_LEFT_VALUE));
+
+    assertEquals(10_000, result.rightSideView().length);
+    assertEquals(9_999, result.rightSideView()[9_999]);
+    assertEquals(9_999, result.bottomLeftValue());
+  }
+}
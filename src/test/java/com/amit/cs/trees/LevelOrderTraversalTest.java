@@ -1,12 +1,16 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.RaggedIntArray;
 import com.amit.cs.common.TreeNode;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import static com.amit.cs.trees.TreeFixtures.wideTree;
 import static org.junit.jupiter.api.Assertions.*;
 
 class LevelOrderTraversalTest {
@@ -199,4 +203,93 @@ class LevelOrderTraversalTest {
     // Redundant but explicit: both methods agree
     assertEquals(usingSize, streaming);
   }
+
+  @Test
+  void compact_sameValuesInTwoPrimitiveArrays() {
+    LevelOrderTraversal s = new LevelOrderTraversal();
+    TreeNode r = buildLevelOrder(1, 2, 3, null, 4, 5, 6);
+
+    var compact = s.levelOrderCompact(r);
+
+    assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, compact.values());
+    assertArrayEquals(new int[]{0, 1, 3, 6}, compact.offsets());
+    assertEquals(s.levelOrderUsingSizeVariable(r), compact.asList());
+    assertEquals(compact, s.levelOrderCompact(FlatTree.of(r)));
+  }
+
+  @Test
+  void compact_emptyTreeHasNoRows() {
+    LevelOrderTraversal s = new LevelOrderTraversal();
+
+    assertEquals(0, s.levelOrderCompact((TreeNode) null).rows());
+    assertEquals(List.of(), s.levelOrderCompact(FlatTree.of(null)).asList());
+  }
+
+  @Test
+  void visitor_receivesLevelEventsInOrder() {
+    LevelOrderTraversal s = new LevelOrderTraversal();
+    //      1
+    //     / \
+    //    2   3
+    //     \
+    //      4
+    TreeNode r = buildLevelOrder(1, 2, 3, null, 4);
+    String expected = "begin(0,1) 1 end begin(1,2) 2 3 end begin(2,1) 4 end ";
+
+    StringBuilder events = new StringBuilder();
+    LevelVisitor recorder = new LevelVisitor() {
+      @Override
+      public void beginLevel(int depth, int width) {
+        events.append("begin(").append(depth).append(',').append(width).append(") ");
+      }
+
+      @Override
+      public void value(int value) {
+        events.append(value).append(' ');
+      }
+
+      @Override
+      public void endLevel() {
+        events.append("end ");
+      }
+    };
+
+    s.levelOrder(r, recorder);
+    assertEquals(expected, events.toString());
+
+    events.setLength(0);
+    s.levelOrder(FlatTree.of(r), recorder);
+    assertEquals(expected, events.toString());
+  }
+
+  @Test
+  void visitor_emptyTreeProducesNoEvents() {
+    LevelOrderTraversal s = new LevelOrderTraversal();
+    int[] calls = {0};
+
+    s.levelOrder((TreeNode) null, value -> calls[0]++);
+
+    assertEquals(0, calls[0]);
+  }
+
+  @Test
+  void parallel_matchesSequentialOnWideTrees() {
+    LevelOrderTraversal solver = new LevelOrderTraversal();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 3; seed++) {
+        TreeNode root = wideTree(1 << 18, seed);
+        FlatTree flat = FlatTree.of(root);
+        RaggedIntArray expected = solver.levelOrderCompact(root);
+
+        assertEquals(expected, solver.levelOrderCompactParallel(root, pool));
+        assertEquals(expected, solver.levelOrderCompactParallel(flat, pool));
+        assertEquals(expected, solver.levelOrderCompactParallel(root));
+      }
+      assertEquals(0, solver.levelOrderCompactParallel((TreeNode) null, pool).rows());
+      assertEquals(0, solver.levelOrderCompactParallel(FlatTree.of(null), pool).rows());
+    } finally {
+      pool.shutdown();
+    }
+  }
 }
@@ -1,8 +1,14 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.LevelLayout;
 import com.amit.cs.common.TreeNode;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.ForkJoinPool;
+
+import static com.amit.cs.trees.TreeFixtures.wideTree;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -159,4 +165,63 @@ public class MaxLevelSumTest {
 
     assertEquals(2, result, "Level 2 has the maximum sum (10).");
   }
-}
\ No newline at end of file
+
+  @Test
+  void parallel_matchesSequentialOnWideTrees() {
+    MaxLevelSum solver = new MaxLevelSum();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 5; seed++) {
+        TreeNode root = wideTree(1 << 18, seed);
+        int expected = solver.maxLevelSum(root);
+
+        assertEquals(expected, solver.maxLevelSumParallel(root, pool));
+        assertEquals(expected, solver.maxLevelSumParallel(FlatTree.of(root), pool));
+        assertEquals(expected, solver.maxLevelSumParallel(root));
+      }
+      assertEquals(0, solver.maxLevelSumParallel((TreeNode) null, pool));
+      assertEquals(0, solver.maxLevelSumParallel(FlatTree.of(null)));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void levelLayout_matchesBfs() {
+    MaxLevelSum solver = new MaxLevelSum();
+    for (long seed = 1; seed <= 5; seed++) {
+      TreeNode root = wideTree(1 << 16, seed);
+      LevelLayout layout = LevelLayout.of(root);
+
+      assertEquals(solver.maxLevelSum(root), solver.maxLevelSum(layout));
+      int[] sums = solver.levelSums(layout);
+      assertEquals(solver.maxLevelSum(root), argMax(sums) + 1);
+    }
+    assertEquals(0, solver.maxLevelSum(LevelLayout.of((TreeNode) null)));
+    assertEquals(0, solver.levelSums(LevelLayout.of((TreeNode) null)).length);
+  }
+
+  @Test
+  void levelLayout_levelSumsAndTies() {
+    // Tree:      1
+    //           / \
+    //          7   0
+    //         / \
+    //        7  -8
+    TreeNode root = new TreeNode(1, new TreeNode(7, new TreeNode(7), new TreeNode(-8)), new TreeNode(0));
+    MaxLevelSum solver = new MaxLevelSum();
+    LevelLayout layout = LevelLayout.of(root);
+
+    assertArrayEquals(new int[]{1, 7, -1}, solver.levelSums(layout));
+    assertEquals(2, solver.maxLevelSum(layout));
+    assertEquals(1, solver.maxLevelSum(LevelLayout.of(new TreeNode(1, new TreeNode(1), null))));
+  }
+
+  private static int argMax(int[] values) {
+    int best = 0;
+    for (int i = 1; i < values.length; i++) {
+      if (values[i] > values[best]) best = i;
+    }
+    return best;
+  }
+}
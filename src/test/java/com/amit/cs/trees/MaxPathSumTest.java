@@ -0,0 +1,109 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.amit.cs.trees.TreeFixtures.bushyTreeWithTail;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for MaxPathSum: recursive and stack-safe iterative variants on shared inputs,
+ * plus a chain deep enough to overflow the recursive version.
+ */
+class MaxPathSumTest {
+
+  @Test
+  void testSingleNegativeNode() {
+    assertEquals(-3, new MaxPathSum().maxPathSum(new TreeNode(-3)));
+    assertEquals(-3, new MaxPathSum().maxPathSumIterative(new TreeNode(-3)));
+  }
+
+  @Test
+  void testEmptyTreeMatchesRecursive() {
+    assertEquals(new MaxPathSum().maxPathSum((TreeNode) null), new MaxPathSum().maxPathSumIterative(null));
+  }
+
+  @Test
+  void testPathThroughRoot() {
+    //   1
+    //  / \
+    // 2   3
+    TreeNode root = new TreeNode(1, new TreeNode(2), new TreeNode(3));
+
+    assertEquals(6, new MaxPathSum().maxPathSum(root));
+    assertEquals(6, new MaxPathSum().maxPathSumIterative(root));
+  }
+
+  @Test
+  void testNegativeRootIsSkipped() {
+    //   -10
+    //   /  \
+    //  9    20
+    //      /  \
+    //     15   7
+    TreeNode root = new TreeNode(-10, new TreeNode(9), new TreeNode(20, new TreeNode(15), new TreeNode(7)));
+
+    assertEquals(42, new MaxPathSum().maxPathSum(root));
+    assertEquals(42, new MaxPathSum().maxPathSumIterative(root));
+  }
+
+  @Test
+  void testIterativeHandlesDeepChain() {
+    // alternating left/right zigzag of 1_000_000 ones
+    TreeNode root = new TreeNode(1);
+    TreeNode node = root;
+    for (int i = 1; i < 1_000_000; i++) {
+      TreeNode next = new TreeNode(1);
+      if (i % 2 == 0) node.left = next;
+      else node.right = next;
+      node = next;
+    }
+
+    assertEquals(1_000_000, new MaxPathSum().maxPathSumIterative(root));
+  }
+
+  @Test
+  void testInstanceIsReusableAcrossTrees() {
+    MaxPathSum solver = new MaxPathSum();
+
+    assertEquals(42, solver.maxPathSum(
+      new TreeNode(-10, new TreeNode(9), new TreeNode(20, new TreeNode(15), new TreeNode(7)))));
+    assertEquals(-3, solver.maxPathSum(new TreeNode(-3)));
+    assertEquals(6, solver.maxPathSum(new TreeNode(1, new TreeNode(2), new TreeNode(3))));
+  }
+
+  @Test
+  void testSharedInstanceAcrossThreads() {
+    MaxPathSum solver = new MaxPathSum();
+
+    List<Integer> values = IntStream.range(-100, 100).boxed().collect(Collectors.toList());
+    List<Integer> sums = values.parallelStream()
+      .map(v -> solver.maxPathSum(new TreeNode(v, new TreeNode(v), new TreeNode(-1000))))
+      .collect(Collectors.toList());
+
+    assertEquals(values.stream().map(v -> v > 0 ? 2 * v : v).collect(Collectors.toList()), sums);
+  }
+
+  @Test
+  void testParallelMatchesSequential() {
+    MaxPathSum solver = new MaxPathSum();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 3; seed++) {
+        TreeNode root = bushyTreeWithTail(100_000, 50_000, seed);
+        int expected = solver.maxPathSumIterative(root);
+
+        assertEquals(expected, solver.maxPathSumParallel(root));
+        assertEquals(expected, solver.maxPathSumParallel(root, pool));
+      }
+      assertEquals(Integer.MIN_VALUE, solver.maxPathSumParallel(null));
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.amit.cs.trees.TreeFixtures.randomTree;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MorrisTraversalTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static void inorderRecursive(TreeNode node, List<Integer> out) {
+    if (node == null) return;
+    inorderRecursive(node.left, out);
+    out.add(node.val);
+    inorderRecursive(node.right, out);
+  }
+
+  private static void preorderRecursive(TreeNode node, List<Integer> out) {
+    if (node == null) return;
+    out.add(node.val);
+    preorderRecursive(node.left, out);
+    preorderRecursive(node.right, out);
+  }
+
+  // --- Traversal order --------------------------------------------------------
+
+  @Test
+  void inorderMatchesRecursion() {
+    for (long seed = 0; seed < 30; seed++) {
+      TreeNode root = randomTree(1 + (int) (seed * 41 % 700), seed);
+      List<Integer> expected = new ArrayList<>();
+      inorderRecursive(root, expected);
+      StructuralHash.Digest before = StructuralHash.of(root);
+
+      List<Integer> actual = new ArrayList<>();
+      MorrisTraversal.inorder(root, actual::add);
+      assertEquals(expected, actual);
+      assertEquals(before, StructuralHash.of(root));
+    }
+  }
+
+  @Test
+  void preorderMatchesRecursion() {
+    for (long seed = 0; seed < 30; seed++) {
+      TreeNode root = randomTree(1 + (int) (seed * 41 % 700), seed);
+      List<Integer> expected = new ArrayList<>();
+      preorderRecursive(root, expected);
+      StructuralHash.Digest before = StructuralHash.of(root);
+
+      List<Integer> actual = new ArrayList<>();
+      MorrisTraversal.preorder(root, actual::add);
+      assertEquals(expected, actual);
+      assertEquals(before, StructuralHash.of(root));
+    }
+  }
+
+  @Test
+  void emptyTreeVisitsNothing() {
+    MorrisTraversal.inorder(null, value -> fail());
+    MorrisTraversal.preorder(null, value -> fail());
+    assertFalse(MorrisTraversal.inorderIterator(null).hasNext());
+  }
+
+  @Test
+  void deepTreesNeedNoStack() {
+    TreeNode root = null;
+    for (int i = 1_000_000; i > 0; i--) root = new TreeNode(i, null, root);
+    TreeNode zigzag = new TreeNode(0);
+    TreeNode node = zigzag;
+    for (int i = 1; i < 1_000_000; i++) {
+      TreeNode child = new TreeNode(i);
+      if (i % 2 == 0) node.left = child;
+      else node.right = child;
+      node = child;
+    }
+
+    long[] sum = {0};
+    MorrisTraversal.inorder(root, value -> sum[0] += value);
+    assertEquals(500_000_500_000L, sum[0]);
+    sum[0] = 0;
+    MorrisTraversal.preorder(zigzag, value -> sum[0] += value);
+    assertEquals(499_999_500_000L, sum[0]);
+  }
+
+  // --- Pointer restoration ----------------------------------------------------
+
+  @Test
+  void failingVisitorLeavesTreeIntact() {
+    TreeNode root = randomTree(500, 3);
+    StructuralHash.Digest before = StructuralHash.of(root);
+    int[] seen = {0};
+
+    assertThrows(IllegalStateException.class, () -> MorrisTraversal.inorder(root, value -> {
+      if (++seen[0] == 250) throw new IllegalStateException("stop");
+    }));
+    assertEquals(before, StructuralHash.of(root));
+
+    seen[0] = 0;
+    assertThrows(IllegalStateException.class, () -> MorrisTraversal.preorder(root, value -> {
+      if (++seen[0] == 100) throw new IllegalStateException("stop");
+    }));
+    assertEquals(before, StructuralHash.of(root));
+  }
+
+  // --- Iterator ---------------------------------------------------------------
+
+  @Test
+  void iteratorYieldsInorder() {
+    TreeNode root = randomTree(300, 9);
+    List<Integer> expected = new ArrayList<>();
+    inorderRecursive(root, expected);
+
+    List<Integer> actual = new ArrayList<>();
+    MorrisTraversal.InorderIterator it = MorrisTraversal.inorderIterator(root);
+    while (it.hasNext()) actual.add(it.nextInt());
+    assertEquals(expected, actual);
+    assertThrows(NoSuchElementException.class, it::nextInt);
+  }
+
+  @Test
+  void closingEarlyRestoresTree() {
+    TreeNode root = randomTree(300, 11);
+    StructuralHash.Digest before = StructuralHash.of(root);
+
+    try (MorrisTraversal.InorderIterator it = MorrisTraversal.inorderIterator(root)) {
+      for (int i = 0; i < 120; i++) it.nextInt();
+    }
+    assertEquals(before, StructuralHash.of(root));
+  }
+
+  @Test
+  void closeIsIdempotent() {
+    TreeNode root = randomTree(50, 13);
+    StructuralHash.Digest before = StructuralHash.of(root);
+    MorrisTraversal.InorderIterator it = MorrisTraversal.inorderIterator(root);
+    it.nextInt();
+    it.close();
+    it.close();
+    assertFalse(it.hasNext());
+    assertEquals(before, StructuralHash.of(root));
+  }
+}
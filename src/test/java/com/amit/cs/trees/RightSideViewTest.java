@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static com.amit.cs.trees.TreeFixtures.chain;
+import static com.amit.cs.trees.TreeFixtures.randomTree;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -115,4 +117,46 @@ class RightSideViewTest {
     root.right = new TreeNode(3, new TreeNode(5), new TreeNode(6, null, new TreeNode(8)));
     assertEquals(List.of(1, 3, 6, 8), solution.rightSideView(root));
   }
-}
\ No newline at end of file
+
+  // --- Depth-first variant ----------------------------------------------------
+
+  @Test
+  void dfsMatchesBfsOnRandomTrees() {
+    RightSideView solution = new RightSideView();
+    for (long seed = 0; seed < 50; seed++) {
+      TreeNode root = randomTree(1 + (int) (seed * 37 % 500), seed);
+      var expected = solution.rightSideView(root);
+      assertEquals(expected, solution.rightSideViewDfs(root));
+      assertEquals(expected, solution.rightSideViewDfs(com.amit.cs.common.FlatTree.of(root)));
+      assertEquals(expected, solution.rightSideViewAdaptive(root));
+      assertEquals(expected, solution.rightSideView(root, TraversalPlanner.Strategy.DFS));
+    }
+  }
+
+  @Test
+  void dfsHandlesEmptyAndDeepTrees() {
+    RightSideView solution = new RightSideView();
+    assertEquals(List.of(), solution.rightSideViewDfs((TreeNode) null));
+
+    TreeNode deep = chain(200_000, true);
+    List<Integer> view = solution.rightSideViewDfs(deep);
+    assertEquals(200_000, view.size());
+    assertEquals(1, view.get(0));
+    assertEquals(200_000, view.get(view.size() - 1));
+  }
+
+  @Test
+  void dfsUsesTheRightmostNodeOfEachLevel() {
+    RightSideView solution = new RightSideView();
+    // Tree:       1
+    //           /   \
+    //          2     3
+    //           \     \
+    //            5     4
+    TreeNode root = buildLevelOrder(1, 2, 3, null, 5, null, 4);
+    assertEquals(List.of(1, 3, 4), solution.rightSideViewDfs(root));
+    // The left subtree is deeper, so its node shows on the last level.
+    TreeNode lopsided = buildLevelOrder(1, 2, 3, 4);
+    assertEquals(List.of(1, 3, 4), solution.rightSideViewDfs(lopsided));
+  }
+}
@@ -0,0 +1,85 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.amit.cs.trees.TreeFixtures.randomTree;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructuralHashTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  private static TreeNode copy(TreeNode root) {
+    return FlatTree.of(root).toTreeNode();
+  }
+
+  // --- Equality ---------------------------------------------------------------
+
+  @Test
+  void equalTrees_haveEqualDigests() {
+    for (long seed = 1; seed <= 10; seed++) {
+      TreeNode root = randomTree(300, seed, random -> random.nextInt(5) - 2);
+
+      StructuralHash.Digest digest = StructuralHash.of(root);
+      assertEquals(digest, StructuralHash.of(copy(root)));
+      assertEquals(digest, StructuralHash.of(FlatTree.of(root)));
+      assertEquals(300, digest.size);
+    }
+  }
+
+  @Test
+  void differentTrees_haveDifferentDigests() {
+    TreeNode leftChild = new TreeNode(1, new TreeNode(2), null);
+    TreeNode rightChild = new TreeNode(1, null, new TreeNode(2));
+    TreeNode otherValue = new TreeNode(1, new TreeNode(3), null);
+
+    assertNotEquals(StructuralHash.of(leftChild), StructuralHash.of(rightChild));
+    assertNotEquals(StructuralHash.of(leftChild), StructuralHash.of(otherValue));
+    assertNotEquals(StructuralHash.of(new TreeNode(0)), StructuralHash.of((TreeNode) null));
+  }
+
+  @Test
+  void singleValueChange_changesDigest() {
+    TreeNode root = randomTree(1_000, 5, random -> random.nextInt(5) - 2);
+    StructuralHash.Digest before = StructuralHash.of(root);
+
+    TreeNode node = root;
+    while (node.left != null || node.right != null) node = node.left != null ? node.left : node.right;
+    node.val++;
+
+    assertNotEquals(before, StructuralHash.of(root));
+  }
+
+  // --- Parallel and deep trees ------------------------------------------------
+
+  @Test
+  void parallel_matchesSequential() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 10; seed++) {
+        TreeNode root = randomTree(5_000, seed, random -> random.nextInt(5) - 2);
+        assertEquals(StructuralHash.of(root), StructuralHash.ofParallel(root, pool));
+      }
+      assertEquals(StructuralHash.of((TreeNode) null), StructuralHash.ofParallel(null, pool));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void deepChain_isHashedWithoutRecursion() {
+    TreeNode root = new TreeNode(0);
+    TreeNode cur = root;
+    for (int i = 1; i < 1_000_000; i++) {
+      cur = i % 2 == 0 ? (cur.left = new TreeNode(i)) : (cur.right = new TreeNode(i));
+    }
+
+    StructuralHash.Digest digest = StructuralHash.of(root);
+    assertEquals(1_000_000, digest.size);
+    assertEquals(digest, StructuralHash.ofParallel(root));
+  }
+}
@@ -0,0 +1,56 @@
+package com.amit.cs.trees;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SumKernelsTest {
+
+  @Test
+  void instanceIsVectorizedWhenModuleIsPresent() {
+    // The test task runs with --add-modules jdk.incubator.vector.
+    assertTrue(SumKernels.INSTANCE.vectorized());
+  }
+
+  @Test
+  void instanceMatchesScalarOnEverySlice() {
+    SumKernels scalar = new SumKernels.Scalar();
+    Random random = new Random(42);
+    int[] values = new int[300];
+    boolean[] mask = new boolean[values.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextInt();
+      mask[i] = random.nextBoolean();
+    }
+
+    for (int from = 0; from < 40; from++) {
+      for (int to = from; to <= values.length; to += 7) {
+        assertEquals(scalar.sum(values, from, to), SumKernels.INSTANCE.sum(values, from, to));
+        assertEquals(scalar.maskedSum(values, mask, from, to), SumKernels.INSTANCE.maskedSum(values, mask, from, to));
+      }
+    }
+  }
+
+  @Test
+  void sumsWrapOnOverflowLikeASequentialLoop() {
+    int[] values = new int[100];
+    Arrays.fill(values, Integer.MAX_VALUE);
+    boolean[] mask = new boolean[values.length];
+    int expected = 0;
+    int expectedMasked = 0;
+    for (int i = 0; i < values.length; i++) {
+      mask[i] = i % 3 == 0;
+      expected += values[i];
+      if (mask[i]) expectedMasked += values[i];
+    }
+
+    for (SumKernels kernels : new SumKernels[]{SumKernels.INSTANCE, new SumKernels.Scalar()}) {
+      assertEquals(expected, kernels.sum(values, 0, values.length));
+      assertEquals(expectedMasked, kernels.maskedSum(values, mask, 0, values.length));
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.amit.cs.trees.TreeFixtures.bushyTreeWithTail;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for SumNumbers: recursive and stack-safe iterative variants on shared inputs,
+ * plus a chain deep enough to overflow the recursive version.
+ */
+class SumNumbersTest {
+
+  @Test
+  void testEmptyTree() {
+    assertEquals(0, new SumNumbers().sumNumbers((TreeNode) null));
+    assertEquals(0, new SumNumbers().sumNumbersIterative(null));
+  }
+
+  @Test
+  void testTwoLeaves() {
+    //   1
+    //  / \
+    // 2   3      12 + 13 = 25
+    TreeNode root = new TreeNode(1, new TreeNode(2), new TreeNode(3));
+
+    assertEquals(25, new SumNumbers().sumNumbers(root));
+    assertEquals(25, new SumNumbers().sumNumbersIterative(root));
+  }
+
+  @Test
+  void testUnevenTree() {
+    //     4
+    //    / \
+    //   9   0
+    //  / \
+    // 5   1      495 + 491 + 40 = 1026
+    TreeNode root = new TreeNode(4, new TreeNode(9, new TreeNode(5), new TreeNode(1)), new TreeNode(0));
+
+    assertEquals(1026, new SumNumbers().sumNumbers(root));
+    assertEquals(1026, new SumNumbers().sumNumbersIterative(root));
+  }
+
+  @Test
+  void testIterativeHandlesDeepChain() {
+    // 1 followed by 999_999 zeros: the number wraps around exactly like the recursive arithmetic
+    TreeNode root = new TreeNode(1);
+    TreeNode node = root;
+    int expected = 1;
+    for (int i = 1; i < 1_000_000; i++) {
+      node.right = new TreeNode(0);
+      node = node.right;
+      expected = expected * 10;
+    }
+
+    assertEquals(expected, new SumNumbers().sumNumbersIterative(root));
+  }
+
+  @Test
+  void testInstanceIsReusableAcrossTrees() {
+    SumNumbers solver = new SumNumbers();
+
+    assertEquals(25, solver.sumNumbers(new TreeNode(1, new TreeNode(2), new TreeNode(3))));
+    assertEquals(7, solver.sumNumbers(new TreeNode(7)));
+    assertEquals(0, solver.sumNumbers((TreeNode) null));
+  }
+
+  @Test
+  void testSharedInstanceAcrossThreads() {
+    SumNumbers solver = new SumNumbers();
+
+    List<Integer> digits = IntStream.range(0, 1000).map(i -> i % 10).boxed().collect(Collectors.toList());
+    List<Integer> sums = digits.parallelStream()
+      .map(d -> solver.sumNumbers(new TreeNode(d, new TreeNode(1), new TreeNode(2))))
+      .collect(Collectors.toList());
+
+    assertEquals(digits.stream().map(d -> 20 * d + 3).collect(Collectors.toList()), sums);
+  }
+
+  @Test
+  void testParallelMatchesSequential() {
+    SumNumbers solver = new SumNumbers();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 3; seed++) {
+        TreeNode root = bushyTreeWithTail(100_000, 50_000, seed);
+        int expected = solver.sumNumbersIterative(root);
+
+        assertEquals(expected, solver.sumNumbersParallel(root));
+        assertEquals(expected, solver.sumNumbersParallel(root, pool));
+      }
+      assertEquals(0, solver.sumNumbersParallel(null));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testMorrisMatchesIterativeAndRestoresTree() {
+    SumNumbers solver = new SumNumbers();
+    for (long seed = 1; seed <= 3; seed++) {
+      // 17 levels of digits: every path number fits in a long.
+      TreeNode root = bushyTreeWithTail(100_000, 0, seed);
+      StructuralHash.Digest before = StructuralHash.of(root);
+
+      assertEquals(solver.sumNumbersIterative(root), solver.sumNumbersMorris(root));
+      assertEquals(before, StructuralHash.of(root));
+    }
+    assertEquals(0, solver.sumNumbersMorris(null));
+    assertEquals(7, solver.sumNumbersMorris(new TreeNode(7)));
+    // 495 + 491 + 40
+    TreeNode sample = new TreeNode(4, new TreeNode(9, new TreeNode(5), new TreeNode(1)), new TreeNode(0));
+    assertEquals(1026, solver.sumNumbersMorris(sample));
+  }
+
+  @Test
+  void testMorrisOnDeepTreeOfZeros() {
+    // A 10^6-deep left chain of zeros ending in 7, with a right leaf on every node: path numbers stay small.
+    TreeNode root = new TreeNode(0);
+    TreeNode node = root;
+    for (int i = 0; i < 1_000_000; i++) {
+      node.right = new TreeNode(i % 2);
+      node.left = new TreeNode(0);
+      node = node.left;
+    }
+    node.val = 7;
+
+    assertEquals(new SumNumbers().sumNumbersIterative(root), new SumNumbers().sumNumbersMorris(root));
+  }
+
+  @Test
+  void testMorrisOverflowRestoresTree() {
+    SumNumbers solver = new SumNumbers();
+    TreeNode root = bushyTreeWithTail(1_000, 40, 7);
+    StructuralHash.Digest before = StructuralHash.of(root);
+
+    assertThrows(ArithmeticException.class, () -> solver.sumNumbersMorris(root));
+    assertEquals(before, StructuralHash.of(root));
+  }
+}
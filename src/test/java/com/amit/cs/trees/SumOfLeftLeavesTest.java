@@ -1,8 +1,13 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.LevelLayout;
 import com.amit.cs.common.TreeNode;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.ForkJoinPool;
+
+import static com.amit.cs.trees.TreeFixtures.bushyTreeWithTail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -169,4 +174,90 @@ public class SumOfLeftLeavesTest {
     );
     assertEquals(18, solution.sumOfLeftLeaves(root, false)); // Left leaves: 4, 6, 8
   }
-}
\ No newline at end of file
+
+  @Test
+  void testIterativeMatchesRecursive() {
+    SumOfLeftLeaves solution = new SumOfLeftLeaves();
+    TreeNode root = new TreeNode(
+      1,
+      new TreeNode(2, new TreeNode(4), new TreeNode(5, new TreeNode(6), null)),
+      new TreeNode(3, new TreeNode(8), null)
+    );
+    assertEquals(solution.sumOfLeftLeaves(root, false), solution.sumOfLeftLeavesIterative(root, false));
+    assertEquals(0, solution.sumOfLeftLeavesIterative(null, false));
+    assertEquals(8, solution.sumOfLeftLeavesIterative(new TreeNode(8), true));
+    assertEquals(0, solution.sumOfLeftLeavesIterative(new TreeNode(8), false));
+  }
+
+  @Test
+  void testIterativeHandlesDeepLeftChain() {
+    SumOfLeftLeaves solution = new SumOfLeftLeaves();
+    // 1_000_000 left children would overflow the default thread stack recursively
+    TreeNode root = new TreeNode(0);
+    TreeNode node = root;
+    for (int i = 1; i < 1_000_000; i++) {
+      node.left = new TreeNode(i % 10);
+      node = node.left;
+    }
+    assertEquals(node.val, solution.sumOfLeftLeavesIterative(root, false));
+  }
+
+  @Test
+  void testParallelMatchesSequential() {
+    SumOfLeftLeaves solver = new SumOfLeftLeaves();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 3; seed++) {
+        TreeNode root = bushyTreeWithTail(100_000, 50_000, seed);
+        int expected = solver.sumOfLeftLeavesIterative(root, false);
+
+        assertEquals(expected, solver.sumOfLeftLeavesParallel(root, false));
+        assertEquals(expected, solver.sumOfLeftLeavesParallel(root, false, pool));
+      }
+      assertEquals(0, solver.sumOfLeftLeavesParallel(null, false));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testMorrisMatchesIterativeAndRestoresTree() {
+    SumOfLeftLeaves solver = new SumOfLeftLeaves();
+    for (long seed = 1; seed <= 3; seed++) {
+      TreeNode root = bushyTreeWithTail(100_000, 50_000, seed);
+      StructuralHash.Digest before = StructuralHash.of(root);
+
+      assertEquals(solver.sumOfLeftLeavesIterative(root, false), solver.sumOfLeftLeavesMorris(root, false));
+      assertEquals(before, StructuralHash.of(root));
+    }
+    assertEquals(0, solver.sumOfLeftLeavesMorris(null, false));
+    assertEquals(5, solver.sumOfLeftLeavesMorris(new TreeNode(5), true));
+    assertEquals(0, solver.sumOfLeftLeavesMorris(new TreeNode(5), false));
+  }
+
+  @Test
+  void testMorrisCountsPredecessorLeaves() {
+    //      3
+    //     / \
+    //    9   20
+    //       /  \
+    //      15   7
+    // 9 is both a left leaf and the predecessor that gets threaded back to 3.
+    TreeNode root = new TreeNode(3, new TreeNode(9), new TreeNode(20, new TreeNode(15), new TreeNode(7)));
+    assertEquals(24, new SumOfLeftLeaves().sumOfLeftLeavesMorris(root, false));
+  }
+
+  @Test
+  void testLevelLayoutMatchesIterative() {
+    SumOfLeftLeaves solver = new SumOfLeftLeaves();
+    for (long seed = 1; seed <= 3; seed++) {
+      TreeNode root = bushyTreeWithTail(100_000, 50_000, seed);
+      int expected = solver.sumOfLeftLeavesIterative(root, false);
+
+      assertEquals(expected, solver.sumOfLeftLeaves(LevelLayout.of(root)));
+      assertEquals(expected, solver.sumOfLeftLeaves(LevelLayout.of(FlatTree.of(root))));
+    }
+    assertEquals(0, solver.sumOfLeftLeaves(LevelLayout.of((TreeNode) null)));
+    assertEquals(0, solver.sumOfLeftLeaves(LevelLayout.of(new TreeNode(5))));
+  }
+}
@@ -1,10 +1,13 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
 import com.amit.cs.common.TreeNode;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static com.amit.cs.trees.TreeFixtures.randomTree;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class TopBottomViewTest {
@@ -304,4 +307,67 @@ class TopBottomViewTest {
 
     assertEquals(List.of(-2, -1, 0, 1, 2), result, "Bottom view with negative and positive values should handle ordering correctly.");
   }
-}
\ No newline at end of file
+
+  @Test
+  void testMatchesTreeMapReference() {
+    TopBottomView solver = new TopBottomView();
+    for (long seed = 1; seed <= 20; seed++) {
+      TreeNode root = randomTree(2_000, seed);
+      TopBottomView.Tuple tuple = new TopBottomView.Tuple(root, 0, 0);
+      List<Integer> top = solver.topViewUsingTreeMap(tuple);
+      List<Integer> bottom = solver.bottomViewUsingTreeMap(tuple);
+
+      assertEquals(top, solver.topView(tuple), "top, seed " + seed);
+      assertEquals(bottom, solver.bottomView(tuple), "bottom, seed " + seed);
+      assertEquals(top, solver.topView(FlatTree.of(root)), "flat top, seed " + seed);
+      assertEquals(bottom, solver.bottomView(FlatTree.of(root)), "flat bottom, seed " + seed);
+    }
+  }
+
+  @Test
+  void testTopAndBottomViewInOnePass() {
+    //        1
+    //      /   \
+    //     2     3
+    //    / \   /
+    //   4   5 6
+    TreeNode root = new TreeNode(1);
+    root.left = new TreeNode(2);
+    root.right = new TreeNode(3);
+    root.left.left = new TreeNode(4);
+    root.left.right = new TreeNode(5);
+    root.right.left = new TreeNode(6);
+    TopBottomView solver = new TopBottomView();
+
+    TopBottomView.Views views = solver.topAndBottomView(new TopBottomView.Tuple(root, 0, 0));
+    assertArrayEquals(new int[]{4, 2, 1, 3}, views.top);
+    assertArrayEquals(new int[]{4, 2, 6, 3}, views.bottom);
+
+    TopBottomView.Views flat = solver.topAndBottomView(FlatTree.of(root));
+    assertArrayEquals(views.top, flat.top);
+    assertArrayEquals(views.bottom, flat.bottom);
+
+    TopBottomView.Views empty = solver.topAndBottomView((TopBottomView.Tuple) null);
+    assertEquals(0, empty.top.length);
+    assertEquals(0, empty.bottom.length);
+  }
+
+  @Test
+  void testColumnBufferGrowsOnBothEnds() {
+    TreeNode root = new TreeNode(0);
+    TreeNode left = root;
+    TreeNode right = root;
+    for (int i = 1; i <= 100; i++) {
+      left.left = new TreeNode(-i);
+      left = left.left;
+      right.right = new TreeNode(i);
+      right = right.right;
+    }
+    int[] expected = new int[201];
+    for (int i = 0; i < expected.length; i++) expected[i] = i - 100;
+
+    TopBottomView.Views views = new TopBottomView().topAndBottomView(new TopBottomView.Tuple(root, 0, 0));
+    assertArrayEquals(expected, views.top);
+    assertArrayEquals(expected, views.bottom);
+  }
+}
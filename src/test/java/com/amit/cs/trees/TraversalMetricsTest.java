@@ -0,0 +1,232 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.OffHeapTree;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static com.amit.cs.trees.TreeFixtures.chain;
+import static com.amit.cs.trees.TreeFixtures.perfect;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs only in the {@code metricsTest} task, which starts the JVM with
+ * {@code -Dcom.amit.cs.trees.metrics=true}; the main test task leaves metrics off. Metrics are global and
+ * other tests record into them too, so assertions compare before and after values, and probe tests use
+ * method labels of their own.
+ */
+class TraversalMetricsTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  /** Value of the sample {@code metric{class="owner",method="method"}}, or -1 when it is absent. */
+  private static double sample(String text, String metric, Class<?> owner, String method) {
+    final var prefix = metric + "{" + labels(owner, method) + "} ";
+    for (final var line : text.split("\n")) {
+      if (line.startsWith(prefix)) return Double.parseDouble(line.substring(prefix.length()));
+    }
+    return -1;
+  }
+
+  private static String labels(Class<?> owner, String method) {
+    return "class=\"" + owner.getName() + "\",method=\"" + method + "\"";
+  }
+
+  // --- Switch -----------------------------------------------------------------
+
+  @Test
+  void enabledByTheMetricsTestTask() {
+    assertTrue(TraversalMetrics.ENABLED);
+  }
+
+  // --- Probe ------------------------------------------------------------------
+
+  @Test
+  void probeRecordsNodesFrontierAndDepth() {
+    final var probe = TraversalMetrics.probe(TraversalMetricsTest.class, "test.probe");
+    probe.level(1);
+    probe.level(8);
+    probe.level(3);
+    probe.visited(4);
+    probe.depth(7);
+    probe.depth(2);
+    probe.finish();
+
+    final var text = TraversalMetrics.prometheusText();
+    assertEquals(1, sample(text, "tree_query_calls_total", TraversalMetricsTest.class, "test.probe"));
+    assertEquals(16, sample(text, "tree_query_nodes_visited_total", TraversalMetricsTest.class, "test.probe"));
+    assertEquals(8, sample(text, "tree_query_max_frontier", TraversalMetricsTest.class, "test.probe"));
+    assertEquals(7, sample(text, "tree_query_max_depth", TraversalMetricsTest.class, "test.probe"));
+    assertEquals(1, sample(text, "tree_query_latency_seconds_count", TraversalMetricsTest.class, "test.probe"));
+    assertTrue(sample(text, "tree_query_allocated_bytes_total", TraversalMetricsTest.class, "test.probe") >= 0);
+  }
+
+  @Test
+  void maximaAreKeptAcrossCalls() {
+    for (final var width : new int[]{5, 40, 12}) {
+      final var probe = TraversalMetrics.probe(TraversalMetricsTest.class, "test.maxima");
+      probe.level(width);
+      probe.depth(width / 2);
+      probe.finish();
+    }
+
+    final var text = TraversalMetrics.prometheusText();
+    assertEquals(3, sample(text, "tree_query_calls_total", TraversalMetricsTest.class, "test.maxima"));
+    assertEquals(57, sample(text, "tree_query_nodes_visited_total", TraversalMetricsTest.class, "test.maxima"));
+    assertEquals(40, sample(text, "tree_query_max_frontier", TraversalMetricsTest.class, "test.maxima"));
+    assertEquals(20, sample(text, "tree_query_max_depth", TraversalMetricsTest.class, "test.maxima"));
+  }
+
+  // --- Exposition format ------------------------------------------------------
+
+  @Test
+  void equalMethodNamesInTwoClassesStayApart() {
+    TraversalMetrics.probe(TraversalMetricsTest.class, "test.shared").finish();
+    TraversalMetrics.probe(TraversalMetrics.class, "test.shared").finish();
+    TraversalMetrics.probe(TraversalMetrics.class, "test.shared").finish();
+
+    final var text = TraversalMetrics.prometheusText();
+    assertEquals(1, sample(text, "tree_query_calls_total", TraversalMetricsTest.class, "test.shared"));
+    assertEquals(2, sample(text, "tree_query_calls_total", TraversalMetrics.class, "test.shared"));
+  }
+
+  @Test
+  void histogramBucketsAreCumulativeAndEndAtCount() {
+    for (int i = 0; i < 5; i++) TraversalMetrics.probe(TraversalMetricsTest.class, "test.histogram").finish();
+
+    final var text = TraversalMetrics.prometheusText();
+    assertTrue(text.contains("# TYPE tree_query_latency_seconds histogram\n"));
+    assertTrue(text.contains("# TYPE tree_query_calls_total counter\n"));
+    assertTrue(text.contains("# TYPE tree_query_max_frontier gauge\n"));
+
+    double previous = 0;
+    int buckets = 0;
+    for (final var line : text.split("\n")) {
+      if (!line.startsWith("tree_query_latency_seconds_bucket{" + labels(TraversalMetricsTest.class, "test.histogram"))) continue;
+      final var count = Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+      assertTrue(count >= previous, line);
+      previous = count;
+      buckets++;
+    }
+    assertEquals(9, buckets);
+    assertTrue(text.contains("tree_query_latency_seconds_bucket{"
+      + labels(TraversalMetricsTest.class, "test.histogram") + ",le=\"+Inf\"} 5\n"));
+    assertEquals(5, sample(text, "tree_query_latency_seconds_count", TraversalMetricsTest.class, "test.histogram"));
+    assertTrue(sample(text, "tree_query_latency_seconds_sum", TraversalMetricsTest.class, "test.histogram") >= 0);
+  }
+
+  // --- Instrumented traversals ------------------------------------------------
+
+  @Test
+  void bfsRecordsWidestLevel() {
+    final var root = perfect(6);
+    final var before = TraversalMetrics.prometheusText();
+    new MaxLevelSum().maxLevelSum(root);
+    final var after = TraversalMetrics.prometheusText();
+
+    assertEquals(1, sample(after, "tree_query_calls_total", MaxLevelSum.class, "maxLevelSum")
+      - Math.max(0, sample(before, "tree_query_calls_total", MaxLevelSum.class, "maxLevelSum")));
+    assertEquals(63, sample(after, "tree_query_nodes_visited_total", MaxLevelSum.class, "maxLevelSum")
+      - Math.max(0, sample(before, "tree_query_nodes_visited_total", MaxLevelSum.class, "maxLevelSum")));
+    assertTrue(sample(after, "tree_query_max_frontier", MaxLevelSum.class, "maxLevelSum") >= 32);
+  }
+
+  @Test
+  void listFormsAreRecorded() {
+    final var root = perfect(4);
+    final var before = TraversalMetrics.prometheusText();
+    new LevelOrderTraversal().levelOrder(root);
+    new ZigzagLevelOrderTraversal().zigzagLevelOrder(root);
+    final var after = TraversalMetrics.prometheusText();
+
+    assertEquals(15, sample(after, "tree_query_nodes_visited_total", LevelOrderTraversal.class, "levelOrderStream")
+      - Math.max(0, sample(before, "tree_query_nodes_visited_total", LevelOrderTraversal.class, "levelOrderStream")));
+    assertEquals(15, sample(after, "tree_query_nodes_visited_total", ZigzagLevelOrderTraversal.class,
+      "zigzagLevelOrderCompact")
+      - Math.max(0, sample(before, "tree_query_nodes_visited_total", ZigzagLevelOrderTraversal.class,
+      "zigzagLevelOrderCompact")));
+  }
+
+  @Test
+  void flatOverloadsHaveTheirOwnLabel() {
+    final var tree = FlatTree.of(perfect(4));
+    final var before = TraversalMetrics.prometheusText();
+    new LevelOrderTraversal().levelOrderCompact(tree);
+    final var after = TraversalMetrics.prometheusText();
+
+    assertEquals(15, sample(after, "tree_query_nodes_visited_total", LevelOrderTraversal.class, "levelOrderFlat")
+      - Math.max(0, sample(before, "tree_query_nodes_visited_total", LevelOrderTraversal.class, "levelOrderFlat")));
+  }
+
+  @Test
+  void indexedAndOffHeapOverloadsHaveTheirOwnLabels() {
+    final IndexedTree indexed = FlatTree.of(perfect(4));
+    final var before = TraversalMetrics.prometheusText();
+    new RightSideView().rightSideView(indexed);
+    try (final var offHeap = OffHeapTree.of(perfect(4))) {
+      new RightSideView().rightSideView(offHeap);
+    }
+    final var after = TraversalMetrics.prometheusText();
+
+    assertEquals(15, sample(after, "tree_query_nodes_visited_total", RightSideView.class, "rightSideViewIndexed")
+      - Math.max(0, sample(before, "tree_query_nodes_visited_total", RightSideView.class, "rightSideViewIndexed")));
+    assertEquals(15, sample(after, "tree_query_nodes_visited_total", RightSideView.class, "rightSideViewOffHeap")
+      - Math.max(0, sample(before, "tree_query_nodes_visited_total", RightSideView.class, "rightSideViewOffHeap")));
+  }
+
+  @Test
+  void iterativeDfsRecordsStackDepth() {
+    new DiameterOfBinaryTree().diameterOfBinaryTreeIterative(chain(5_000, true));
+    new MaxPathSum().maxPathSumIterative(chain(4_000, true));
+
+    final var text = TraversalMetrics.prometheusText();
+    assertTrue(sample(text, "tree_query_max_depth", DiameterOfBinaryTree.class, "diameterOfBinaryTreeIterative") >= 5_000);
+    assertTrue(sample(text, "tree_query_max_depth", MaxPathSum.class, "maxPathSumIterative") >= 4_000);
+  }
+
+  @Test
+  void verticalOrderRecordsHeight() {
+    new VerticalOrderTraversal().verticalTraversalCompact(new VerticalOrderTraversal.Tuple(chain(300, true), 0, 0));
+
+    final var text = TraversalMetrics.prometheusText();
+    assertTrue(sample(text, "tree_query_max_depth", VerticalOrderTraversal.class, "verticalTraversalCompact") >= 300);
+  }
+
+  @Test
+  void failedCallsAreStillRecorded() {
+    final var before = TraversalMetrics.prometheusText();
+    assertThrows(IllegalStateException.class, () -> new LevelOrderTraversal().levelOrder(perfect(3), value -> {
+      throw new IllegalStateException("visitor failed");
+    }));
+    final var after = TraversalMetrics.prometheusText();
+
+    assertEquals(1, sample(after, "tree_query_calls_total", LevelOrderTraversal.class, "levelOrder")
+      - Math.max(0, sample(before, "tree_query_calls_total", LevelOrderTraversal.class, "levelOrder")));
+  }
+
+  // --- HTTP endpoint ----------------------------------------------------------
+
+  @Test
+  void servesPrometheusTextOverHttp() throws IOException, InterruptedException {
+    TraversalMetrics.probe(TraversalMetricsTest.class, "test.http").finish();
+    final var server = TraversalMetrics.serve(new InetSocketAddress("127.0.0.1", 0));
+    try {
+      final var uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/metrics");
+      final var response = HttpClient.newHttpClient()
+        .send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+
+      assertEquals(200, response.statusCode());
+      assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain; version=0.0.4"));
+      assertEquals(1, sample(response.body(), "tree_query_calls_total", TraversalMetricsTest.class, "test.http"));
+    } finally {
+      server.stop(0);
+    }
+  }
+}
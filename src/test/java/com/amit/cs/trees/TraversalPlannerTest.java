@@ -0,0 +1,76 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import static com.amit.cs.trees.TreeFixtures.chain;
+import static com.amit.cs.trees.TreeFixtures.perfect;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraversalPlannerTest {
+
+  // --- Known shape ------------------------------------------------------------
+
+  @Test
+  void knownShapePrefersTheSmallerWorkingSet() {
+    assertEquals(TraversalPlanner.Strategy.DFS, TraversalPlanner.plan(1L << 25, 26));
+    assertEquals(TraversalPlanner.Strategy.BFS, TraversalPlanner.plan(1, 1_000_000));
+    assertEquals(TraversalPlanner.Strategy.BFS, TraversalPlanner.plan(0, 0));
+  }
+
+  // --- Sampled shape ----------------------------------------------------------
+
+  @Test
+  void perfectTreeIsEstimatedExactly() {
+    final var shape = TraversalPlanner.sample(perfect(12));
+    assertEquals(12, shape.height);
+    assertEquals(2048, shape.maxWidth, 1e-9);
+    assertEquals(TraversalPlanner.Strategy.DFS, TraversalPlanner.plan(perfect(12)));
+  }
+
+  @Test
+  void chainIsEstimatedExactly() {
+    final var shape = TraversalPlanner.sample(chain(3_000, false));
+    assertEquals(3_000, shape.height);
+    assertEquals(1, shape.maxWidth, 1e-9);
+    assertEquals(TraversalPlanner.Strategy.BFS, TraversalPlanner.plan(chain(3_000, false)));
+  }
+
+  @Test
+  void flatTreeSamplesLikeThePointerTree() {
+    for (final var root : new TreeNode[]{perfect(10), chain(300, false), new TreeNode(1, perfect(6), chain(40, false))}) {
+      final var pointer = TraversalPlanner.sample(root);
+      final var flat = TraversalPlanner.sample(FlatTree.of(root));
+      assertEquals(pointer.height, flat.height);
+      assertEquals(pointer.maxWidth, flat.maxWidth, 1e-9);
+    }
+  }
+
+  @Test
+  void branchBelowTheRootIsStillAveraged() {
+    final var shape = TraversalPlanner.sample(new TreeNode(0, chain(100, true), chain(100, false)));
+    assertEquals(101, shape.height);
+    assertEquals(2, shape.maxWidth, 1e-9);
+  }
+
+  @Test
+  void descentsStopAtTheProbeLimit() {
+    final var shape = TraversalPlanner.sample(chain(TraversalPlanner.MAX_PROBE_DEPTH + 10, false));
+    assertEquals(TraversalPlanner.MAX_PROBE_DEPTH, shape.height);
+  }
+
+  @Test
+  void emptyTreeHasNoShape() {
+    final var shape = TraversalPlanner.sample((TreeNode) null);
+    assertEquals(0, shape.height);
+    assertEquals(0, shape.maxWidth);
+    assertEquals(TraversalPlanner.Strategy.BFS, TraversalPlanner.plan(FlatTree.of(null)));
+  }
+
+  @Test
+  void samplingIsDeterministic() {
+    final var root = new TreeNode(0, perfect(8), chain(100, false));
+    assertEquals(TraversalPlanner.sample(root).maxWidth, TraversalPlanner.sample(root).maxWidth);
+  }
+}
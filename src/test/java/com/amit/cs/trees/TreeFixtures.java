@@ -0,0 +1,95 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.TreeBuilders;
+import com.amit.cs.common.TreeNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+/**
+ * Tree shapes shared by the tests of this package. Every random shape is fixed by its seed, so a
+ * failing seed can be replayed on its own.
+ */
+final class TreeFixtures {
+
+  private TreeFixtures() {
+  }
+
+  /** {@link #randomTree(int, long, ToIntFunction)} with values in {@code [-50, 50)}. */
+  static TreeNode randomTree(int size, long seed) {
+    return randomTree(size, seed, random -> random.nextInt(100) - 50);
+  }
+
+  /**
+   * Random tree of {@code size} nodes: each new node becomes a free child of a node picked uniformly
+   * from those already placed, which gives a shallow, irregular shape. Values are drawn by
+   * {@code values}, root first.
+   */
+  static TreeNode randomTree(int size, long seed, ToIntFunction<Random> values) {
+    Random random = new Random(seed);
+    TreeNode root = new TreeNode(values.applyAsInt(random));
+    List<TreeNode> nodes = new ArrayList<>(List.of(root));
+    while (nodes.size() < size) {
+      TreeNode parent = nodes.get(random.nextInt(nodes.size()));
+      TreeNode child = new TreeNode(values.applyAsInt(random));
+      if (random.nextBoolean()) {
+        if (parent.left != null) continue;
+        parent.left = child;
+      } else {
+        if (parent.right != null) continue;
+        parent.right = child;
+      }
+      nodes.add(child);
+    }
+    return root;
+  }
+
+  /**
+   * Level-order array of {@code slots} slots with about one in ten left empty, so levels are wide and
+   * a few subtrees are cut off. Values are in {@code [-100, 100]}.
+   */
+  static TreeNode wideTree(int slots, long seed) {
+    Random random = new Random(seed);
+    int[] values = new int[slots];
+    for (int i = 0; i < slots; i++) {
+      values[i] = random.nextInt(10) == 0 ? Integer.MIN_VALUE : random.nextInt(201) - 100;
+    }
+    values[0] = 1;
+    return TreeBuilders.treeNode(values, Integer.MIN_VALUE);
+  }
+
+  /**
+   * Complete tree of {@code size} nodes with values in {@code [-9, 9]}, plus a left chain of
+   * {@code tail} digit nodes hanging from its last node, deep enough to overflow a recursive walk.
+   */
+  static TreeNode bushyTreeWithTail(int size, int tail, long seed) {
+    Random random = new Random(seed);
+    TreeNode[] nodes = new TreeNode[size];
+    for (int i = 0; i < size; i++) nodes[i] = new TreeNode(random.nextInt(19) - 9);
+    for (int i = 0; 2 * i + 1 < size; i++) {
+      nodes[i].left = nodes[2 * i + 1];
+      if (2 * i + 2 < size) nodes[i].right = nodes[2 * i + 2];
+    }
+    TreeNode node = nodes[size - 1];
+    for (int i = 0; i < tail; i++) {
+      node.left = new TreeNode(random.nextInt(10));
+      node = node.left;
+    }
+    return nodes[0];
+  }
+
+  /** Perfect tree of {@code height} levels; each node holds the height of its subtree. */
+  static TreeNode perfect(int height) {
+    if (height == 0) return null;
+    return new TreeNode(height, perfect(height - 1), perfect(height - 1));
+  }
+
+  /** Chain of {@code length} nodes valued {@code 1..length} from the root down, built iteratively. */
+  static TreeNode chain(int length, boolean left) {
+    TreeNode root = null;
+    for (int i = length; i > 0; i--) root = left ? new TreeNode(i, root, null) : new TreeNode(i, null, root);
+    return root;
+  }
+}
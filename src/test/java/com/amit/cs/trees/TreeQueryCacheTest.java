@@ -0,0 +1,99 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.TreeNode;
+import org.junit.jupiter.api.Test;
+
+import static com.amit.cs.common.LevelOrderTrees.levelOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeQueryCacheTest {
+
+  // --- Results ----------------------------------------------------------------
+
+  @Test
+  void cachedAnswers_matchDirectQueries() {
+    TreeNode root = levelOrder(-10, 9, 20, null, null, 15, 7);
+    TreeQueryCache cache = new TreeQueryCache(1_000);
+
+    for (int round = 0; round < 2; round++) {
+      assertEquals(42, cache.maxPathSum(root));
+      assertEquals(3, cache.diameterOfBinaryTree(root));
+      assertEquals(new VerticalOrderTraversal().verticalTraversal(new VerticalOrderTraversal.Tuple(root, 0, 0)),
+        cache.verticalTraversal(root).asList());
+      assertEquals(new LevelOrderTraversal().levelOrder(root), cache.levelOrder(root).asList());
+      assertEquals(new ZigzagLevelOrderTraversal().zigzagLevelOrder(root), cache.zigzagLevelOrder(root).asList());
+    }
+
+    TreeQueryCache.Stats stats = cache.stats();
+    assertEquals(5, stats.hits);
+    assertEquals(5, stats.misses);
+    assertEquals(0.5, stats.hitRate());
+  }
+
+  @Test
+  void structurallyEqualTrees_shareEntries() {
+    TreeNode root = levelOrder(1, 2, 3, 4);
+    TreeNode copy = FlatTree.of(root).toTreeNode();
+    TreeQueryCache cache = new TreeQueryCache(100);
+
+    StructuralHash.Digest digest = StructuralHash.ofParallel(root);
+    assertEquals(cache.levelOrder(digest, root), cache.levelOrder(copy));
+    assertEquals(1, cache.stats().hits);
+
+    cache.maxPathSum(levelOrder(1, 2, 3, 5));
+    assertEquals(2, cache.stats().misses);
+  }
+
+  @Test
+  void emptyTree_isCachedLikeAnyOther() {
+    TreeQueryCache cache = new TreeQueryCache(10);
+
+    assertEquals(Integer.MIN_VALUE, cache.maxPathSum(null));
+    assertEquals(0, cache.diameterOfBinaryTree(null));
+    assertEquals(0, cache.levelOrder(null).rows());
+    assertEquals(Integer.MIN_VALUE, cache.maxPathSum(null));
+    assertEquals(1, cache.stats().hits);
+  }
+
+  // --- Eviction ---------------------------------------------------------------
+
+  @Test
+  void weightBound_evictsLeastRecentlyUsed() {
+    TreeQueryCache cache = new TreeQueryCache(3);
+    TreeNode a = new TreeNode(1);
+    TreeNode b = new TreeNode(2);
+    TreeNode c = new TreeNode(3);
+    TreeNode d = new TreeNode(4);
+
+    cache.maxPathSum(a);
+    cache.maxPathSum(b);
+    cache.maxPathSum(c);
+    cache.maxPathSum(a);
+    cache.maxPathSum(d);
+
+    assertEquals(1, cache.stats().evictions);
+    assertEquals(3, cache.stats().weight);
+    cache.maxPathSum(a);
+    assertEquals(2, cache.stats().hits);
+    cache.maxPathSum(b);
+    assertEquals(2, cache.stats().hits);
+  }
+
+  @Test
+  void oversizedResult_isNotCached() {
+    TreeQueryCache cache = new TreeQueryCache(4);
+    TreeNode root = levelOrder(1, 2, 3, 4, 5, 6, 7);
+
+    cache.levelOrder(root);
+    cache.levelOrder(root);
+
+    assertEquals(0, cache.stats().hits);
+    assertEquals(0, cache.stats().entries);
+  }
+
+  @Test
+  void invalidBound_isRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new TreeQueryCache(0));
+  }
+}
@@ -0,0 +1,94 @@
+package com.amit.cs.trees;
+
+import com.amit.cs.common.FlatTree;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.amit.cs.trees.TreeFixtures.chain;
+import static com.amit.cs.trees.TreeFixtures.perfect;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeQueryEventTest {
+
+  // --- Helpers ----------------------------------------------------------------
+
+  /** Runs {@code queries} under a recording with the given threshold and returns the tree query events. */
+  private static List<RecordedEvent> record(Duration threshold, Runnable queries) throws IOException {
+    final var file = Files.createTempFile("tree-query", ".jfr");
+    try (var recording = new Recording()) {
+      recording.enable(TreeQueryEvent.NAME).withThreshold(threshold);
+      recording.start();
+      queries.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().equals(TreeQueryEvent.NAME))
+        .collect(Collectors.toList());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  // --- Fields -----------------------------------------------------------------
+
+  @Test
+  void bfsQueryRecordsShape() throws IOException {
+    final var root = perfect(5);
+    final var events = record(Duration.ZERO, () -> new MaxLevelSum().maxLevelSum(root));
+
+    assertEquals(1, events.size());
+    final var event = events.get(0);
+    assertEquals(MaxLevelSum.class.getName(), event.getClass("queryClass").getName());
+    assertEquals("maxLevelSum", event.getString("method"));
+    assertEquals(31, event.getLong("nodeCount"));
+    assertEquals(5, event.getInt("height"));
+    assertTrue(event.getLong("bytesAllocated") >= 0);
+    assertFalse(event.getDuration().isNegative());
+  }
+
+  @Test
+  void dfsQueryRecordsStackDepthAsHeight() throws IOException {
+    final var root = chain(1_000, true);
+    final var events = record(Duration.ZERO, () -> new DiameterOfBinaryTree().diameterOfBinaryTreeIterative(root));
+
+    assertEquals(1, events.size());
+    assertEquals("diameterOfBinaryTreeIterative", events.get(0).getString("method"));
+    assertEquals(1_000, events.get(0).getLong("nodeCount"));
+    assertEquals(1_000, events.get(0).getInt("height"));
+  }
+
+  @Test
+  void flatOverloadsAreLabelled() throws IOException {
+    final var tree = FlatTree.of(perfect(3));
+    final var events = record(Duration.ZERO, () -> new RightSideView().rightSideView(tree));
+
+    assertEquals(1, events.size());
+    assertEquals("rightSideViewFlat", events.get(0).getString("method"));
+    assertEquals(3, events.get(0).getInt("height"));
+  }
+
+  // --- Thresholds -------------------------------------------------------------
+
+  @Test
+  void fastQueriesAreDroppedBelowThreshold() throws IOException {
+    final var root = perfect(3);
+    final var events = record(Duration.ofHours(1), () -> {
+      for (int i = 0; i < 100; i++) new LevelOrderTraversal().levelOrderCompact(root);
+    });
+
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  void disabledWithoutRecording() {
+    assertNull(TreeQueryEvent.beginIfEnabled());
+  }
+}
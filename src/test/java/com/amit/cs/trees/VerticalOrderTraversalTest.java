@@ -1,11 +1,16 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.RaggedIntArray;
 import com.amit.cs.common.TreeNode;
 import com.amit.cs.trees.VerticalOrderTraversal.Tuple;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.amit.cs.trees.TreeFixtures.randomTree;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class VerticalOrderTraversalTest {
@@ -139,4 +144,75 @@ class VerticalOrderTraversalTest {
     assertEquals(List.of(List.of(-2), List.of(-1), List.of(0), List.of(1), List.of(2)),
       result, "Vertical traversal should handle both negative and positive values correctly.");
   }
-}
\ No newline at end of file
+
+  @Test
+  void testCompactMatchesListResult() {
+    TreeNode root = new TreeNode(1);
+    root.left = new TreeNode(2);
+    root.right = new TreeNode(3);
+    root.left.right = new TreeNode(6);
+    root.right.left = new TreeNode(5);
+    root.left.left = new TreeNode(4);
+    root.right.right = new TreeNode(7);
+
+    Tuple tuple = new Tuple(root, 0, 0);
+    VerticalOrderTraversal solver = new VerticalOrderTraversal();
+    RaggedIntArray compact = solver.verticalTraversalCompact(tuple);
+
+    assertEquals(solver.verticalTraversal(tuple), compact.asList());
+    assertArrayEquals(new int[]{4, 2, 1, 5, 6, 3, 7}, compact.values());
+    assertArrayEquals(new int[]{0, 1, 2, 5, 6, 7}, compact.offsets());
+    assertEquals(compact, solver.verticalTraversalCompact(FlatTree.of(root)));
+  }
+
+  @Test
+  void testMatchesTreeMapReference() {
+    VerticalOrderTraversal solver = new VerticalOrderTraversal();
+    for (long seed = 1; seed <= 20; seed++) {
+      TreeNode root = randomTree(500, seed, random -> random.nextBoolean() ? random.nextInt() : random.nextInt(5) - 2);
+      Tuple tuple = new Tuple(root, 0, 0);
+      List<List<Integer>> expected = solver.verticalTraversalUsingTreeMap(tuple);
+
+      assertEquals(expected, solver.verticalTraversal(tuple), "seed " + seed);
+      assertEquals(expected, solver.verticalTraversal(FlatTree.of(root)), "flat, seed " + seed);
+    }
+  }
+
+  @Test
+  void testNonZeroRootPosition() {
+    TreeNode root = new TreeNode(1);
+    root.left = new TreeNode(2);
+    root.right = new TreeNode(3);
+    VerticalOrderTraversal solver = new VerticalOrderTraversal();
+
+    assertEquals(List.of(List.of(2), List.of(1), List.of(3)), solver.verticalTraversal(new Tuple(root, 5, 3)));
+  }
+
+  @Test
+  void testDeepChainDoesNotOverflow() {
+    TreeNode root = new TreeNode(0);
+    TreeNode node = root;
+    for (int i = 1; i < 1_000_000; i++) {
+      node.right = new TreeNode(i);
+      node = node.right;
+    }
+    RaggedIntArray result = new VerticalOrderTraversal().verticalTraversalCompact(new Tuple(root, 0, 0));
+
+    assertEquals(1_000_000, result.rows());
+    assertEquals(999_999, result.get(999_999, 0));
+  }
+
+  @Test
+  void testResultIsModifiable() {
+    TreeNode root = new TreeNode(1, new TreeNode(2), new TreeNode(3));
+    VerticalOrderTraversal solver = new VerticalOrderTraversal();
+
+    for (List<List<Integer>> result : List.of(
+      solver.verticalTraversal(new Tuple(root, 0, 0)), solver.verticalTraversal(FlatTree.of(root)))) {
+      result.get(1).add(4);
+      result.add(new ArrayList<>());
+      assertEquals(List.of(List.of(2), List.of(1, 4), List.of(3), List.of()), result);
+    }
+    solver.verticalTraversal((Tuple) null).add(List.of());
+  }
+}
@@ -1,12 +1,18 @@
 package com.amit.cs.trees;
 
+import com.amit.cs.common.FlatTree;
+import com.amit.cs.common.IndexedTree;
+import com.amit.cs.common.RaggedIntArray;
 import com.amit.cs.common.TreeNode;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import static com.amit.cs.trees.TreeFixtures.wideTree;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class ZigzagLevelOrderTraversalTest {
@@ -54,7 +60,8 @@ class ZigzagLevelOrderTraversalTest {
   @Test
   void emptyTree_returnsEmptyList() {
     ZigzagLevelOrderTraversal s = new ZigzagLevelOrderTraversal();
-    assertEquals(List.of(), s.zigzagLevelOrder(null));
+    // A bare null is ambiguous since the FlatTree overload was added; see FlatTree.
+    assertEquals(List.of(), s.zigzagLevelOrder((TreeNode) null));
   }
 
   @Test
@@ -149,4 +156,50 @@ class ZigzagLevelOrderTraversalTest {
         s.zigzagLevelOrder(r)
     );
   }
+
+  @Test
+  void compact_matchesListResult() {
+    ZigzagLevelOrderTraversal s = new ZigzagLevelOrderTraversal();
+    TreeNode r = buildLevelOrder(1, 2, 3, 4, 5, null, 6, null, null, 7, 8);
+    var expected = s.zigzagLevelOrder(r);
+
+    assertEquals(expected, s.zigzagLevelOrderCompact(r).asList());
+    assertEquals(expected, s.zigzagLevelOrderCompact(FlatTree.of(r)).asList());
+    assertEquals(0, s.zigzagLevelOrderCompact((TreeNode) null).rows());
+  }
+
+  @Test
+  void indexedOverloads_returnModifiableLists() {
+    ZigzagLevelOrderTraversal s = new ZigzagLevelOrderTraversal();
+    TreeNode r = buildLevelOrder(1, 2, 3, 4, 5, null, 6);
+    IndexedTree indexed = FlatTree.of(r);
+
+    var fromFlat = s.zigzagLevelOrder(FlatTree.of(r));
+    var fromIndexed = s.zigzagLevelOrder(indexed);
+    assertEquals(s.zigzagLevelOrder(r), fromIndexed);
+    assertEquals(fromFlat, fromIndexed);
+
+    fromIndexed.get(0).add(9);
+    fromFlat.add(new ArrayList<>());
+    assertEquals(List.of(1, 9), fromIndexed.get(0));
+  }
+
+  @Test
+  void parallel_matchesSequentialOnWideTrees() {
+    ZigzagLevelOrderTraversal solver = new ZigzagLevelOrderTraversal();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (long seed = 1; seed <= 3; seed++) {
+        TreeNode root = wideTree(1 << 18, seed);
+        RaggedIntArray expected = solver.zigzagLevelOrderCompact(root);
+
+        assertEquals(expected, solver.zigzagLevelOrderCompactParallel(root, pool));
+        assertEquals(expected, solver.zigzagLevelOrderCompactParallel(FlatTree.of(root), pool));
+        assertEquals(expected, solver.zigzagLevelOrderCompactParallel(root));
+      }
+      assertEquals(0, solver.zigzagLevelOrderCompactParallel((TreeNode) null, pool).rows());
+    } finally {
+      pool.shutdown();
+    }
+  }
 }